@@ -0,0 +1,70 @@
+package healthy.com.benchmarks;
+
+import healthy.com.CustomMealRequest;
+import healthy.com.CustomMealService;
+import healthy.com.CustomerRepository;
+import healthy.com.CustomerService;
+import healthy.com.IngredientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Building and finalizing a custom meal for a customer with stored dietary preferences. */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomMealServiceBenchmark {
+    private static final int INGREDIENTS = 5000;
+    private static final int INGREDIENTS_PER_MEAL = 5;
+
+    @Param({"1000", "100000"})
+    public int customers;
+
+    private Path directory;
+    private CustomMealService customMealService;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        directory = BenchmarkData.createDirectory("custom-meal-benchmark");
+        Path ingredientsFile = directory.resolve("ingredients.txt");
+        Path customersFile = directory.resolve("customers.txt");
+        BenchmarkData.generator().writeIngredients(ingredientsFile, INGREDIENTS);
+        BenchmarkData.generator().writeCustomers(customersFile, customers);
+        customMealService = new CustomMealService(new IngredientRepository(ingredientsFile),
+                new CustomerService(new CustomerRepository(customersFile)));
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public CustomMealRequest finalizeCustomMeal() {
+        CustomMealRequest request = customMealService.startCustomMeal(
+                DatasetGenerator.customerEmail(random.nextInt(customers)), "Benchmark Bowl");
+        for (int i = 0; i < INGREDIENTS_PER_MEAL; i++) {
+            customMealService.addIngredientToCustomMeal(request, DatasetGenerator.ingredientName(random.nextInt(INGREDIENTS)));
+        }
+        return customMealService.finalizeCustomMeal(request);
+    }
+}
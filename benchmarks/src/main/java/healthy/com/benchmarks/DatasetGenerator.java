@@ -0,0 +1,378 @@
+package healthy.com.benchmarks;
+
+import healthy.com.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes large synthetic data files in the exact formats the repositories read, for load
+ * testing. Popularity is skewed the way real traffic is: customers and meals are drawn from a
+ * Zipf distribution, so a few regulars and best sellers account for most orders while the long
+ * tail stays sparse. Older orders are mostly Delivered or Paid and the newest ones are still in
+ * progress. Output is fully determined by the seed.
+ *
+ * <p>Names follow fixed patterns ({@link #customerEmail(int)}, {@link #mealName(int)},
+ * {@link #ingredientName(int)}) so callers can address generated records without reading the
+ * files back. Run from the command line, for example:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar healthy.com.benchmarks.DatasetGenerator --out=target/dataset --orders=5000000 --customers=200000
+ * </pre>
+ */
+public class DatasetGenerator {
+    public static final String[] ORDER_STATUSES = {"Paid", "Delivered", "Pending", "Preparing", "Cancelled"};
+    public static final String[] INGREDIENT_TAGS = {"vegan", "vegetarian", "gluten_free", "low_carb", "high_carb", "dairy", "nuts"};
+
+    private static final String[][] BASE_INGREDIENTS = {
+            {"Tomato", "vegan,vegetarian,gluten_free,low_carb"}, {"Basil", "vegan,vegetarian,gluten_free"},
+            {"Olive Oil", "vegan,vegetarian,gluten_free"}, {"Garlic", "vegan,vegetarian,gluten_free"},
+            {"Pasta", "vegan,vegetarian,high_carb"}, {"Rice", "vegan,vegetarian,gluten_free,high_carb"},
+            {"Quinoa", "vegan,vegetarian,gluten_free"}, {"Tofu", "vegan,vegetarian,gluten_free,low_carb"},
+            {"Chicken Breast", "gluten_free,low_carb"}, {"Beef Patty", "gluten_free,low_carb"},
+            {"Salmon", "gluten_free,low_carb"}, {"Cheddar", "vegetarian,gluten_free,dairy,low_carb"},
+            {"Mozzarella", "vegetarian,gluten_free,dairy"}, {"Almonds", "vegan,vegetarian,gluten_free,nuts"},
+            {"Peanut Butter", "vegan,vegetarian,nuts"}, {"Spinach", "vegan,vegetarian,gluten_free,low_carb"},
+            {"Zucchini Noodles", "vegan,vegetarian,gluten_free,low_carb"}, {"Avocado", "vegan,vegetarian,gluten_free,low_carb"},
+            {"Bread", "vegan,vegetarian,high_carb"}, {"Egg", "vegetarian,gluten_free,low_carb"},
+            {"Mushroom", "vegan,vegetarian,gluten_free,low_carb"}, {"Chickpeas", "vegan,vegetarian,gluten_free"},
+            {"Coconut Milk", "vegan,vegetarian,gluten_free"}, {"Parmesan", "vegetarian,gluten_free,dairy"}
+    };
+    private static final String[] MEAL_STYLES = {"Grilled", "Roasted", "Vegan", "Spicy", "Classic", "Crispy", "Creamy", "Smoked"};
+    private static final String[] MEAL_DISHES = {"Steak", "Pasta", "Pizza", "Burger", "Salad", "Curry", "Bowl", "Soup", "Wrap", "Tacos"};
+    private static final String[] PREFERENCES = {"Vegan", "Vegetarian", "Keto", "Gluten-Free"};
+    private static final String[] ALLERGIES = {"nuts", "dairy", "Peanuts", "Shellfish", "Gluten"};
+    private static final String[] EXPERTISE = {"Grilling", "Italian Cuisine", "Baking", "Desserts", "Vegan Cuisine", "Asian Cuisine"};
+    private static final String[] UNITS = {"kg", "g", "l", "pcs"};
+
+    private final long seed;
+    private double skew = 1.1;
+    private LocalDate lastOrderDate = LocalDate.of(2024, 12, 31);
+    private int orderDays = 730;
+
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /** Zipf exponent for customer, meal and ingredient popularity; 0 makes them uniform. */
+    public DatasetGenerator setSkew(double skew) {
+        this.skew = skew;
+        return this;
+    }
+
+    /** Orders are spread over the {@code days} days ending on {@code lastOrderDate}. */
+    public DatasetGenerator setOrderDateRange(LocalDate lastOrderDate, int days) {
+        this.lastOrderDate = lastOrderDate;
+        this.orderDays = days;
+        return this;
+    }
+
+    public static String customerEmail(int customer) {
+        return "customer" + customer + "@example.com";
+    }
+
+    public static String orderId(int order) {
+        return "ORD-" + order;
+    }
+
+    public static String mealName(int meal) {
+        String name = MEAL_STYLES[meal % MEAL_STYLES.length] + " " + MEAL_DISHES[(meal / MEAL_STYLES.length) % MEAL_DISHES.length];
+        int variant = meal / (MEAL_STYLES.length * MEAL_DISHES.length);
+        return variant == 0 ? name : name + " No. " + (variant + 1);
+    }
+
+    public static String ingredientName(int ingredient) {
+        String name = BASE_INGREDIENTS[ingredient % BASE_INGREDIENTS.length][0];
+        int variant = ingredient / BASE_INGREDIENTS.length;
+        return variant == 0 ? name : name + " " + (variant + 1);
+    }
+
+    public static String supplierId(int supplier) {
+        return "SUP-" + supplier;
+    }
+
+    public static String chefName(int chef) {
+        return "Chef " + chef;
+    }
+
+    // orderId;customerEmail;orderDate;status;total;meal,qty,unitPrice,itemTotal|...
+    public void writeOrders(Path file, int orders, int customers, int meals) throws IOException {
+        Random random = new Random(seed);
+        ZipfSampler customerSampler = new ZipfSampler(customers, skew);
+        ZipfSampler mealSampler = new ZipfSampler(meals, skew);
+        long[] mealPriceCents = new long[meals];
+        for (int meal = 0; meal < meals; meal++) {
+            mealPriceCents[meal] = 650 + 50L * random.nextInt(50);
+        }
+        try (BufferedWriter writer = newWriter(file)) {
+            StringBuilder record = new StringBuilder(192);
+            StringBuilder items = new StringBuilder(128);
+            for (int order = 0; order < orders; order++) {
+                int ageInDays = random.nextInt(orderDays);
+                items.setLength(0);
+                long totalCents = 0;
+                int itemCount = 1 + (int) Math.min(4, Math.abs(random.nextGaussian()) * 1.5);
+                for (int item = 0; item < itemCount; item++) {
+                    int meal = mealSampler.next(random);
+                    int quantity = random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(3);
+                    long itemCents = quantity * mealPriceCents[meal];
+                    totalCents += itemCents;
+                    if (item > 0) {
+                        items.append('|');
+                    }
+                    items.append(mealName(meal)).append(',').append(quantity).append(',');
+                    Money.appendTo(items, mealPriceCents[meal]).append(',');
+                    Money.appendTo(items, itemCents);
+                }
+                record.setLength(0);
+                record.append(orderId(order)).append(';')
+                        .append(customerEmail(customerSampler.next(random))).append(';')
+                        .append(lastOrderDate.minusDays(ageInDays)).append(';')
+                        .append(statusForAge(ageInDays, random)).append(';');
+                Money.appendTo(record, totalCents).append(';').append(items);
+                writer.write(record.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    // Anything older than two days has been settled; recent orders are still moving through the kitchen.
+    private static String statusForAge(int ageInDays, Random random) {
+        int roll = random.nextInt(100);
+        if (ageInDays > 2) {
+            return roll < 55 ? "Delivered" : roll < 95 ? "Paid" : "Cancelled";
+        }
+        return roll < 40 ? "Pending" : roll < 75 ? "Preparing" : roll < 90 ? "Paid" : "Delivered";
+    }
+
+    // email;preference,...;allergy,...
+    public void writeCustomers(Path file, int customers) throws IOException {
+        Random random = new Random(seed + 1);
+        try (BufferedWriter writer = newWriter(file)) {
+            for (int customer = 0; customer < customers; customer++) {
+                writer.write(customerEmail(customer) + ";" + pickSome(PREFERENCES, random, 60) + ";" + pickSome(ALLERGIES, random, 80));
+                writer.newLine();
+            }
+        }
+    }
+
+    // Most customers have nothing listed; the rest have one or, rarely, two entries.
+    private static String pickSome(String[] values, Random random, int percentWithNone) {
+        int roll = random.nextInt(100);
+        if (roll < percentWithNone) {
+            return "";
+        }
+        String first = values[random.nextInt(values.length)];
+        if (roll < 95) {
+            return first;
+        }
+        String second = values[random.nextInt(values.length)];
+        return second.equals(first) ? first : first + "," + second;
+    }
+
+    // name;price;tag,...;alternative,...;stock;unit;reorderLevel
+    public void writeIngredients(Path file, int ingredients) throws IOException {
+        Random random = new Random(seed + 2);
+        try (BufferedWriter writer = newWriter(file)) {
+            StringBuilder record = new StringBuilder(160);
+            for (int ingredient = 0; ingredient < ingredients; ingredient++) {
+                int base = ingredient % BASE_INGREDIENTS.length;
+                record.setLength(0);
+                record.append(ingredientName(ingredient)).append(';')
+                        .append(Money.format(20 + random.nextInt(1500))).append(';')
+                        .append(BASE_INGREDIENTS[base][1]).append(';');
+                // Alternatives are other variants of the same base ingredient.
+                int alternatives = random.nextInt(4);
+                int written = 0;
+                for (int i = 0; i < alternatives; i++) {
+                    int alternative = base + BASE_INGREDIENTS.length * random.nextInt(Math.max(1, ingredients / BASE_INGREDIENTS.length));
+                    if (alternative != ingredient && alternative < ingredients) {
+                        record.append(written++ > 0 ? "," : "").append(ingredientName(alternative));
+                    }
+                }
+                int reorderLevel = 5 + random.nextInt(46);
+                record.append(';').append(random.nextInt(10) == 0 ? random.nextInt(reorderLevel) : reorderLevel + random.nextInt(500))
+                        .append(';').append(UNITS[random.nextInt(UNITS.length)])
+                        .append(';').append(reorderLevel);
+                writer.write(record.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    // name;ingredient,...;N minutes;tag,...
+    public void writeRecipes(Path file, int recipes, int ingredients) throws IOException {
+        Random random = new Random(seed + 3);
+        ZipfSampler ingredientSampler = new ZipfSampler(ingredients, skew);
+        try (BufferedWriter writer = newWriter(file)) {
+            for (int recipe = 0; recipe < recipes; recipe++) {
+                Set<String> recipeIngredients = new LinkedHashSet<>();
+                int count = 2 + random.nextInt(6);
+                while (recipeIngredients.size() < Math.min(count, ingredients)) {
+                    recipeIngredients.add(ingredientName(ingredientSampler.next(random)));
+                }
+                String tag = INGREDIENT_TAGS[random.nextInt(INGREDIENT_TAGS.length)];
+                writer.write(mealName(recipe) + " Recipe;" + String.join(",", recipeIngredients) + ";"
+                        + (10 + 5 * random.nextInt(14)) + " minutes;" + tag);
+                writer.newLine();
+            }
+        }
+    }
+
+    // id;name;email;item:price,...
+    public void writeSuppliers(Path file, int suppliers, int itemsPerSupplier, int ingredients) throws IOException {
+        Random random = new Random(seed + 4);
+        int[] catalogue = new int[ingredients];
+        for (int i = 0; i < ingredients; i++) {
+            catalogue[i] = i;
+        }
+        int priceListSize = Math.min(itemsPerSupplier, ingredients);
+        try (BufferedWriter writer = newWriter(file)) {
+            StringBuilder record = new StringBuilder(priceListSize * 24 + 64);
+            for (int supplier = 0; supplier < suppliers; supplier++) {
+                record.setLength(0);
+                record.append(supplierId(supplier)).append(';')
+                        .append("Supplier ").append(supplier).append(';')
+                        .append("orders@supplier").append(supplier).append(".example.com;");
+                // Partial Fisher-Yates shuffle: a distinct price list per supplier.
+                for (int i = 0; i < priceListSize; i++) {
+                    int pick = i + random.nextInt(ingredients - i);
+                    int ingredient = catalogue[pick];
+                    catalogue[pick] = catalogue[i];
+                    catalogue[i] = ingredient;
+                    if (i > 0) {
+                        record.append(',');
+                    }
+                    record.append(ingredientName(ingredient)).append(':');
+                    Money.appendTo(record, 15 + random.nextInt(1200));
+                }
+                writer.write(record.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    // name;expertise,...;workload;taskId~meal~due~status|...;notification,...
+    public void writeChefs(Path file, int chefs, int tasksPerChef, int meals) throws IOException {
+        Random random = new Random(seed + 5);
+        ZipfSampler mealSampler = new ZipfSampler(meals, skew);
+        String[] workloads = {"Low", "Medium", "High"};
+        try (BufferedWriter writer = newWriter(file)) {
+            StringBuilder record = new StringBuilder(256);
+            for (int chef = 0; chef < chefs; chef++) {
+                record.setLength(0);
+                String first = EXPERTISE[random.nextInt(EXPERTISE.length)];
+                String second = EXPERTISE[random.nextInt(EXPERTISE.length)];
+                record.append(chefName(chef)).append(';')
+                        .append(first.equals(second) ? first : first + "," + second).append(';')
+                        .append(workloads[Math.min(2, tasksPerChef / 5)]).append(';');
+                for (int task = 0; task < tasksPerChef; task++) {
+                    if (task > 0) {
+                        record.append('|');
+                    }
+                    int minutes = 11 * 60 + random.nextInt(11 * 4) * 15;
+                    record.append("TASK-").append(chef).append('-').append(task).append('~')
+                            .append(mealName(mealSampler.next(random))).append('~')
+                            .append(minutes / 60).append(':').append(minutes % 60 < 10 ? "0" : "").append(minutes % 60)
+                            .append('~').append(random.nextInt(4) == 0 ? "In Progress" : "Assigned");
+                }
+                record.append(';');
+                writer.write(record.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /** Writes all six data files into {@code directory} under the names the application uses. */
+    public void writeAll(Path directory, Map<String, Integer> scale) throws IOException {
+        Files.createDirectories(directory);
+        int customers = scale.get("customers");
+        int meals = scale.get("meals");
+        int ingredients = scale.get("ingredients");
+        writeCustomers(directory.resolve("customers.txt"), customers);
+        writeOrders(directory.resolve("orders.txt"), scale.get("orders"), customers, meals);
+        writeIngredients(directory.resolve("ingredients.txt"), ingredients);
+        writeRecipes(directory.resolve("recipes.txt"), scale.get("recipes"), ingredients);
+        writeSuppliers(directory.resolve("suppliers.txt"), scale.get("suppliers"), scale.get("supplier-items"), ingredients);
+        writeChefs(directory.resolve("chefs.txt"), scale.get("chefs"), scale.get("tasks-per-chef"), meals);
+    }
+
+    private static BufferedWriter newWriter(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Integer> scale = new HashMap<>();
+        scale.put("orders", 1_000_000);
+        scale.put("customers", 50_000);
+        scale.put("meals", 400);
+        scale.put("ingredients", 5_000);
+        scale.put("recipes", 10_000);
+        scale.put("suppliers", 200);
+        scale.put("supplier-items", 2_000);
+        scale.put("chefs", 40);
+        scale.put("tasks-per-chef", 8);
+        Path out = Paths.get("target/dataset");
+        long seed = 42;
+        double skew = 1.1;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println("Ignoring argument " + arg + " (expected --name=value)");
+                continue;
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            if (name.equals("out")) {
+                out = Paths.get(value);
+            } else if (name.equals("seed")) {
+                seed = Long.parseLong(value);
+            } else if (name.equals("skew")) {
+                skew = Double.parseDouble(value);
+            } else if (scale.containsKey(name)) {
+                scale.put(name, Integer.parseInt(value.replace("_", "")));
+            } else {
+                System.err.println("Unknown option --" + name + "; known: out, seed, skew, " + String.join(", ", scale.keySet()));
+            }
+        }
+        long start = System.nanoTime();
+        new DatasetGenerator(seed).setSkew(skew).writeAll(out, scale);
+        System.out.println("Wrote dataset " + scale + " to " + out.toAbsolutePath()
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Draws ranks 0..n-1 with probability proportional to 1/(rank+1)^skew, by binary search over
+     * the cumulative distribution.
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double skew) {
+            cumulative = new double[Math.max(1, n)];
+            double sum = 0;
+            for (int rank = 0; rank < cumulative.length; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, skew);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < cumulative.length; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int next(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
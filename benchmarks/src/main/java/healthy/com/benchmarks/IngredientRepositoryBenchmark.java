@@ -0,0 +1,69 @@
+package healthy.com.benchmarks;
+
+import healthy.com.Ingredient;
+import healthy.com.IngredientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IngredientRepositoryBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int ingredients;
+
+    private Path directory;
+    private IngredientRepository repository;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        directory = BenchmarkData.createDirectory("ingredients-benchmark");
+        Path dataFile = directory.resolve("ingredients.txt");
+        BenchmarkData.generator().writeIngredients(dataFile, ingredients);
+        repository = new IngredientRepository(dataFile);
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Ingredient findIngredientByName() {
+        return repository.findIngredientByName(DatasetGenerator.ingredientName(random.nextInt(ingredients)));
+    }
+
+    /** Lookups from several threads at once while nothing writes; reads take no lock. */
+    @Benchmark
+    @Threads(4)
+    public Ingredient findIngredientByNameConcurrently() {
+        return repository.findIngredientByName(DatasetGenerator.ingredientName(ThreadLocalRandom.current().nextInt(ingredients)));
+    }
+
+    @Benchmark
+    public Ingredient findMissingIngredient() {
+        return repository.findIngredientByName("Unknown " + random.nextInt(ingredients));
+    }
+}
@@ -0,0 +1,109 @@
+package healthy.com.benchmarks;
+
+import healthy.com.Order;
+import healthy.com.OrderItem;
+import healthy.com.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Loading, looking up and saving orders against an orders.txt of the given size. */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderRepositoryBenchmark {
+    private static final int CUSTOMERS_PER_ORDER = 10;
+    private static final int MEALS = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    @Param({"BUFFERED", "MEMORY_MAPPED"})
+    public OrderRepository.ReadMode readMode;
+
+    private Path directory;
+    private Path pristineFile;
+    private Path dataFile;
+    private OrderRepository repository;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        directory = BenchmarkData.createDirectory("orders-benchmark");
+        pristineFile = directory.resolve("orders.pristine.txt");
+        dataFile = directory.resolve("orders.txt");
+        BenchmarkData.generator().writeOrders(pristineFile, orders, Math.max(1, orders / CUSTOMERS_PER_ORDER), MEALS);
+        random = new Random(42);
+    }
+
+    // Saves append to the file; start every iteration from the generated data again.
+    @Setup(Level.Iteration)
+    public void resetFile() throws Exception {
+        Files.copy(pristineFile, dataFile, StandardCopyOption.REPLACE_EXISTING);
+        repository = new OrderRepository(dataFile, readMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public OrderRepository load() {
+        return new OrderRepository(dataFile, readMode);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Order findOrderById() {
+        return repository.findOrderById(DatasetGenerator.orderId(random.nextInt(orders)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<Order> findOrdersByCustomerEmail() {
+        return repository.findOrdersByCustomerEmail(
+                DatasetGenerator.customerEmail(random.nextInt(Math.max(1, orders / CUSTOMERS_PER_ORDER))));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void saveExistingOrder() {
+        Order order = repository.findOrderById(DatasetGenerator.orderId(random.nextInt(orders)));
+        order.setStatus(DatasetGenerator.ORDER_STATUSES[random.nextInt(DatasetGenerator.ORDER_STATUSES.length)]);
+        repository.saveOrder(order);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void saveNewOrder() {
+        Order order = new Order("NEW-" + random.nextLong(), DatasetGenerator.customerEmail(random.nextInt(100)),
+                "2024-06-01", "Pending");
+        order.addItem(new OrderItem(DatasetGenerator.mealName(random.nextInt(MEALS)), 2, 12.50, 25.00));
+        repository.saveOrder(order);
+    }
+}
@@ -0,0 +1,95 @@
+package healthy.com.benchmarks;
+
+import healthy.com.CustomerRepository;
+import healthy.com.OrderArchive;
+import healthy.com.OrderRepository;
+import healthy.com.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** The admin revenue and order-history reports, live and over the columnar archive. */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderServiceReportBenchmark {
+    private static final YearMonth REPORT_MONTH = YearMonth.of(2024, 6);
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    private Path directory;
+    private OrderService liveService;
+    private OrderService archiveService;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        directory = BenchmarkData.createDirectory("reports-benchmark");
+        Path ordersFile = directory.resolve("orders.txt");
+        BenchmarkData.generator().writeOrders(ordersFile, orders, Math.max(1, orders / 10), 200);
+        OrderRepository orderRepository = new OrderRepository(ordersFile, OrderRepository.ReadMode.BUFFERED);
+        CustomerRepository customerRepository = new CustomerRepository(directory.resolve("customers.txt"));
+        liveService = new OrderService(orderRepository, customerRepository);
+        archiveService = new OrderService(orderRepository, customerRepository);
+        archiveService.setOrderArchive(OrderArchive.of(orderRepository.getAllOrders()));
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public double totalRevenueForMonth() {
+        return liveService.getTotalRevenueForMonth(REPORT_MONTH);
+    }
+
+    @Benchmark
+    public double overallTotalRevenue() {
+        return liveService.getOverallTotalRevenue();
+    }
+
+    @Benchmark
+    public double completedRevenueForMonth() {
+        return liveService.getCompletedRevenueForMonth(REPORT_MONTH);
+    }
+
+    @Benchmark
+    public double completedRevenueForMonthFromArchive() {
+        return archiveService.getCompletedRevenueForMonth(REPORT_MONTH);
+    }
+
+    @Benchmark
+    public Map<String, Long> mealFrequenciesForMonth() {
+        return liveService.getMealFrequenciesForMonth(REPORT_MONTH);
+    }
+
+    @Benchmark
+    public Map<String, Long> mealFrequenciesForMonthFromArchive() {
+        return archiveService.getMealFrequenciesForMonth(REPORT_MONTH);
+    }
+
+    @Benchmark
+    public List<?> allCompletedOrders() {
+        return liveService.getAllCompletedOrders();
+    }
+}
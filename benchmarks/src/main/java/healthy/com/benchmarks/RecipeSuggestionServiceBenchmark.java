@@ -0,0 +1,71 @@
+package healthy.com.benchmarks;
+
+import healthy.com.RecipeRepository;
+import healthy.com.RecipeSuggestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipeSuggestionServiceBenchmark {
+    private static final int INGREDIENTS = 300;
+    private static final int AVAILABLE_INGREDIENTS = 60;
+
+    @Param({"1000", "100000"})
+    public int recipes;
+
+    private Path directory;
+    private RecipeSuggestionService service;
+    private RecipeSuggestionService.UserRecipePreferences[] preferences;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        directory = BenchmarkData.createDirectory("recipes-benchmark");
+        Path dataFile = directory.resolve("recipes.txt");
+        BenchmarkData.generator().writeRecipes(dataFile, recipes, INGREDIENTS);
+        service = new RecipeSuggestionService(new RecipeRepository(dataFile));
+
+        Random random = new Random(42);
+        preferences = new RecipeSuggestionService.UserRecipePreferences[64];
+        for (int i = 0; i < preferences.length; i++) {
+            Set<String> available = new HashSet<>();
+            while (available.size() < AVAILABLE_INGREDIENTS) {
+                available.add(DatasetGenerator.ingredientName(random.nextInt(INGREDIENTS)));
+            }
+            preferences[i] = new RecipeSuggestionService.UserRecipePreferences(
+                    DatasetGenerator.INGREDIENT_TAGS[random.nextInt(DatasetGenerator.INGREDIENT_TAGS.length)], 15 + random.nextInt(60), available);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public RecipeSuggestionService.RecommendationResult recommendRecipe() {
+        return service.recommendRecipe(preferences[next++ & (preferences.length - 1)]);
+    }
+}
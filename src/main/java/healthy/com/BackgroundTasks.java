@@ -0,0 +1,38 @@
+package healthy.com;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/** Periodic jobs on their own daemon thread, for the board ticker and the sweepers. */
+final class BackgroundTasks {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundTasks.class.getName());
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Runs {@code job} every {@code periodSeconds}, the first time after {@code initialDelaySeconds},
+     * until the returned executor is shut down. A run that throws is logged under
+     * {@code failureMessage} and the next run still happens, where a scheduled executor would
+     * otherwise silently cancel every later run.
+     */
+    static ScheduledExecutorService runPeriodically(String threadName, long initialDelaySeconds, long periodSeconds,
+                                                    Runnable job, String failureMessage) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, failureMessage, e);
+            }
+        }, initialDelaySeconds, periodSeconds, TimeUnit.SECONDS);
+        return executor;
+    }
+}
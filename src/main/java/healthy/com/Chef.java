@@ -2,17 +2,29 @@ package healthy.com;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class Chef {
     private String name;
     private List<String> expertise;
+    // Lower-cased expertise for skill-rule checks, rebuilt whenever the expertise changes.
+    private Set<String> expertiseKeys;
     private String currentWorkload;
-    private List<KitchenTask> assignedTasks;
+    // Tasks by id in assignment order, so dedupe and lookups are O(1) however long the history is.
+    private Map<String, KitchenTask> assignedTasks;
+    // Kitchen-wide taskId index this chef's tasks are registered in, once bound by a ChefRepository.
+    private Map<String, KitchenTask> taskIndex;
     private List<String> notifications;
     private boolean loggedIn;
+    private NotificationOutbox notificationOutbox;
 
     public Chef(String name, String expertiseString, String initialWorkload) {
         this.name = name;
@@ -24,8 +36,9 @@ public class Chef {
         } else {
             this.expertise = new ArrayList<>();
         }
+        rebuildExpertiseKeys();
         this.currentWorkload = initialWorkload;
-        this.assignedTasks = new ArrayList<>();
+        this.assignedTasks = new LinkedHashMap<>();
         this.notifications = new ArrayList<>();
         this.loggedIn = false;
     }
@@ -44,6 +57,7 @@ public class Chef {
 
     public void setExpertise(List<String> expertise) {
         this.expertise = new ArrayList<>(expertise);
+        rebuildExpertiseKeys();
     }
 
     public void setExpertiseFromString(String expertiseString) {
@@ -55,14 +69,32 @@ public class Chef {
         } else {
             this.expertise = new ArrayList<>();
         }
+        rebuildExpertiseKeys();
     }
 
     public void addExpertise(String skill) {
         if (skill != null && !skill.trim().isEmpty() && !this.expertise.contains(skill.trim())) {
             this.expertise.add(skill.trim());
+            this.expertiseKeys.add(SkillRules.normalize(skill));
         }
     }
 
+    private void rebuildExpertiseKeys() {
+        this.expertiseKeys = new HashSet<>();
+        for (String skill : expertise) {
+            expertiseKeys.add(SkillRules.normalize(skill));
+        }
+    }
+
+    /** Case-insensitive check against a lower-cased skill. */
+    boolean hasExpertise(String skillKey) {
+        return expertiseKeys.contains(skillKey);
+    }
+
+    boolean hasAnyExpertise() {
+        return !expertise.isEmpty();
+    }
+
     public String getCurrentWorkload() {
         return currentWorkload;
     }
@@ -72,32 +104,134 @@ public class Chef {
     }
 
     public List<KitchenTask> getAssignedTasks() {
-        return new ArrayList<>(assignedTasks);
+        return new ArrayList<>(assignedTasks.values());
     }
 
-public void addTask(KitchenTask task) {
-    if (task != null && this.assignedTasks.stream().noneMatch(t -> t.getTaskId().equals(task.getTaskId()))) {
-        this.assignedTasks.add(task);
+    /** Read-only live view of the tasks, for callers that only iterate and must not pay for a copy. */
+    public Collection<KitchenTask> getAssignedTasksView() {
+        return Collections.unmodifiableCollection(assignedTasks.values());
     }
-}
 
+    public KitchenTask getTask(String taskId) {
+        return assignedTasks.get(taskId);
+    }
+
+    /**
+     * Adds the task unless one with the same id is already assigned, to this chef or, once bound to
+     * a kitchen-wide index, to another chef; returns whether it was added.
+     */
+    public boolean addTask(KitchenTask task) {
+        if (task == null || assignedTasks.putIfAbsent(task.getTaskId(), task) != null) {
+            return false;
+        }
+        if (taskIndex != null && taskIndex.putIfAbsent(task.getTaskId(), task) != null) {
+            assignedTasks.remove(task.getTaskId());
+            return false;
+        }
+        if (task.getAssignedChefName() == null) {
+            task.setAssignedChefName(name);
+        }
+        return true;
+    }
+
+    /** Adds the task, replacing any held under the same id in place; used when replaying task records. */
+    void putTask(KitchenTask task) {
+        if (task.getAssignedChefName() == null) {
+            task.setAssignedChefName(name);
+        }
+        assignedTasks.put(task.getTaskId(), task);
+        if (taskIndex != null) {
+            taskIndex.put(task.getTaskId(), task);
+        }
+    }
 
     public void clearTasks() {
+        if (taskIndex != null) {
+            for (KitchenTask task : assignedTasks.values()) {
+                taskIndex.remove(task.getTaskId(), task);
+            }
+        }
         this.assignedTasks.clear();
     }
 
+    /** Registers this chef's tasks, now and as they are added, in a kitchen-wide taskId index. */
+    void bindTaskIndex(Map<String, KitchenTask> taskIndex) {
+        if (this.taskIndex == taskIndex) {
+            return;
+        }
+        this.taskIndex = taskIndex;
+        registerTasks();
+    }
+
+    // The first chef to register a task id keeps it.
+    private void registerTasks() {
+        for (KitchenTask task : assignedTasks.values()) {
+            taskIndex.putIfAbsent(task.getTaskId(), task);
+        }
+    }
+
+    /**
+     * Takes the expertise, workload and tasks of {@code stored}, a fresh copy of this chef read back
+     * from storage. Tasks this chef already holds are updated in place rather than replaced, so
+     * whoever holds this chef or one of its tasks keeps working on the live objects.
+     */
+    void reloadFrom(Chef stored) {
+        setExpertise(stored.expertise);
+        this.currentWorkload = stored.currentWorkload;
+        Map<String, KitchenTask> tasks = new LinkedHashMap<>();
+        for (KitchenTask task : stored.assignedTasks.values()) {
+            KitchenTask held = assignedTasks.get(task.getTaskId());
+            if (held != null) {
+                held.reloadFrom(task);
+                task = held;
+            }
+            tasks.put(task.getTaskId(), task);
+        }
+        assignedTasks.clear();
+        assignedTasks.putAll(tasks);
+        if (taskIndex != null) {
+            registerTasks();
+        }
+    }
+
+    /**
+     * Sends this chef's notifications to {@code outbox} from now on instead of keeping them on the
+     * chef, moving over any the chef already holds. Bound chefs never carry notifications in their record.
+     */
+    void bindNotificationOutbox(NotificationOutbox outbox) {
+        if (this.notificationOutbox == outbox) {
+            return;
+        }
+        this.notificationOutbox = outbox;
+        for (String notification : notifications) {
+            outbox.append(name, notification);
+        }
+        this.notifications.clear();
+    }
+
     public List<String> getNotifications() {
+        if (notificationOutbox != null) {
+            return notificationOutbox.getMessages(name);
+        }
         return new ArrayList<>(notifications);
     }
 
     public void addNotification(String notification) {
         if (notification != null && !notification.trim().isEmpty()) {
-            this.notifications.add(notification);
+            if (notificationOutbox != null) {
+                notificationOutbox.append(name, notification);
+            } else {
+                this.notifications.add(notification);
+            }
         }
     }
 
     public void clearNotifications() {
-        this.notifications.clear();
+        if (notificationOutbox != null) {
+            notificationOutbox.discardAll(name);
+        } else {
+            this.notifications.clear();
+        }
     }
 
     public boolean isLoggedIn() {
@@ -0,0 +1,123 @@
+package healthy.com;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Outstanding work per chef, kept in one ordered set per skill rule so the least-loaded chef
+ * able to cook a meal is the first element: selection and every load change cost O(log n).
+ * Chefs are ordered by open task count, then by estimated prep minutes still to cook, then by
+ * name so ties are broken the same way every time.
+ */
+final class ChefLoadBoard {
+    private static final Comparator<ChefLoad> LEAST_LOADED = Comparator
+            .comparingInt((ChefLoad load) -> load.openTasks)
+            .thenComparingInt(load -> load.openPrepMinutes)
+            .thenComparing(load -> load.chefName);
+
+    private static final class ChefLoad {
+        private final String chefName;
+        private int openTasks;
+        private int openPrepMinutes;
+        // Every rule queue this chef sits in, so a load change can reposition it in each.
+        private final List<TreeSet<ChefLoad>> queues = new ArrayList<>();
+
+        private ChefLoad(String chefName) {
+            this.chefName = chefName;
+        }
+    }
+
+    private final Map<String, ChefLoad> loadsByChef = new HashMap<>();
+    private final Map<SkillRules.Rule, TreeSet<ChefLoad>> queuesByRule = new HashMap<>();
+    private long skillIndexVersion = -1;
+
+    synchronized boolean isCurrent(long version) {
+        return skillIndexVersion == version;
+    }
+
+    /** Forces the next {@link #isCurrent} check to fail, e.g. after the prep time estimates changed. */
+    synchronized void invalidate() {
+        skillIndexVersion = -1;
+    }
+
+    /**
+     * Starts over from the chefs' recorded tasks. The caller must keep every chef from changing
+     * meanwhile, since open tasks are counted straight from the chefs.
+     */
+    synchronized void rebuild(long version, Collection<Chef> chefs, ToIntFunction<String> prepTimeEstimator) {
+        loadsByChef.clear();
+        queuesByRule.clear();
+        for (Chef chef : chefs) {
+            ChefLoad load = new ChefLoad(chef.getName());
+            for (KitchenTask task : chef.getAssignedTasksView()) {
+                if (task.isOpen()) {
+                    load.openTasks++;
+                    load.openPrepMinutes += prepTimeEstimator.applyAsInt(task.getMealName());
+                }
+            }
+            loadsByChef.put(chef.getName(), load);
+        }
+        this.skillIndexVersion = version;
+    }
+
+    /**
+     * Picks the least-loaded chef among {@code candidates} for {@code rule} and charges the task to
+     * that chef straight away, so concurrent picks spread out. Returns null if no chef qualifies.
+     */
+    synchronized String pickAndCharge(SkillRules.Rule rule, Supplier<List<Chef>> candidates, int prepMinutes) {
+        TreeSet<ChefLoad> queue = queuesByRule.get(rule);
+        if (queue == null) {
+            queue = new TreeSet<>(LEAST_LOADED);
+            for (Chef chef : candidates.get()) {
+                ChefLoad load = loadsByChef.get(chef.getName());
+                if (load != null) {
+                    queue.add(load);
+                    load.queues.add(queue);
+                }
+            }
+            queuesByRule.put(rule, queue);
+        }
+        if (queue.isEmpty()) {
+            return null;
+        }
+        ChefLoad least = queue.first();
+        adjust(least, 1, prepMinutes);
+        return least.chefName;
+    }
+
+    /** Adds (or with negative values, removes) outstanding work for a chef; unknown chefs are ignored. */
+    synchronized void charge(String chefName, int tasks, int prepMinutes) {
+        ChefLoad load = loadsByChef.get(chefName);
+        if (load != null) {
+            adjust(load, tasks, prepMinutes);
+        }
+    }
+
+    private static void adjust(ChefLoad load, int tasks, int prepMinutes) {
+        for (TreeSet<ChefLoad> queue : load.queues) {
+            queue.remove(load);
+        }
+        load.openTasks = Math.max(0, load.openTasks + tasks);
+        load.openPrepMinutes = Math.max(0, load.openPrepMinutes + prepMinutes);
+        for (TreeSet<ChefLoad> queue : load.queues) {
+            queue.add(load);
+        }
+    }
+
+    synchronized int getOpenTasks(String chefName) {
+        ChefLoad load = loadsByChef.get(chefName);
+        return load == null ? 0 : load.openTasks;
+    }
+
+    synchronized int getOpenPrepMinutes(String chefName) {
+        ChefLoad load = loadsByChef.get(chefName);
+        return load == null ? 0 : load.openPrepMinutes;
+    }
+}
@@ -1,138 +1,430 @@
 package healthy.com;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ChefRepository {
     private static final Logger LOGGER = Logger.getLogger(ChefRepository.class.getName());
-    private static final String FILE_PATH = "src/main/resources/chefs.txt";
-    private static final String SEPARATOR = ";";
-    private static final String LIST_SEPARATOR = ",";
-    private static final String TASK_SEPARATOR = "~";
-    private static final String TASK_LIST_SEPARATOR = "|";
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/chefs.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+    private static final char TASK_SEPARATOR = '~';
+    private static final char TASK_LIST_SEPARATOR = '|';
+    // Markers of the per-task and per-workload records appended between full chef records, e.g.
+    // TASK;Chef Gordon;ORD-1~Steak~18:30~Completed and WORKLOAD;Chef Gordon;Medium.
+    private static final String TASK_RECORD = "TASK";
+    private static final String WORKLOAD_RECORD = "WORKLOAD";
+
+    // Resident chefs, loaded once; only chefs marked as changed are written back, one record each.
+    private final Map<String, Chef> chefsByName = new LinkedHashMap<>();
+    // Each chef's record as formatted when it was last marked changed. Writes and compaction use
+    // these, never the live Chef, which another thread may be modifying under its own lock.
+    private final Map<String, String> recordsByName = new LinkedHashMap<>();
+    // Task and workload records written since each chef's last full record, by task id.
+    private final Map<String, Map<String, String>> taskRecordsByName = new HashMap<>();
+    private final Map<String, String> workloadRecordsByName = new HashMap<>();
+    private int deltaRecordCount;
+    // Records waiting for persistChanges(), in the order they were captured.
+    private final Map<String, String> changedRecords = new LinkedHashMap<>();
+    // Chef names by lower-cased skill, and the skills each chef was last indexed under.
+    private final Map<String, Set<String>> chefNamesBySkill = new HashMap<>();
+    private final Map<String, Set<String>> indexedSkills = new HashMap<>();
+    private long skillIndexVersion;
+    // Every task by id across all chefs; chefs register their tasks here as they get them.
+    private final Map<String, KitchenTask> tasksById = new ConcurrentHashMap<>();
+    private final String filePath;
+    private final ResidentDataFile residentFile;
+    private final RecordJournal journal;
+    private final NotificationOutbox notificationOutbox;
 
     public ChefRepository() {
-        try {
-            Path path = Paths.get(FILE_PATH);
-            if (!Files.exists(path.getParent())) {
-                Files.createDirectories(path.getParent());
+        this(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    /** Uses notifications.txt next to {@code dataFile} as the outbox. */
+    public ChefRepository(Path dataFile) {
+        this(dataFile, new NotificationOutbox(dataFile.resolveSibling("notifications.txt")));
+    }
+
+    public ChefRepository(Path dataFile, NotificationOutbox notificationOutbox) {
+        this.filePath = dataFile.toString();
+        this.notificationOutbox = notificationOutbox;
+        this.residentFile = new ResidentDataFile(dataFile, SEPARATOR);
+        this.journal = residentFile.journal();
+        reloadChefs();
+    }
+
+    // Chefs already handed out are reloaded in place: other threads may hold them (under a chef
+    // lock in KitchenManagementService) and their changes must land on the chefs this repository keeps.
+    private void reloadChefs() {
+        journal.close();
+        Map<String, Chef> previous = new HashMap<>(chefsByName);
+        chefsByName.clear();
+        recordsByName.clear();
+        taskRecordsByName.clear();
+        workloadRecordsByName.clear();
+        deltaRecordCount = 0;
+        changedRecords.clear();
+        chefNamesBySkill.clear();
+        indexedSkills.clear();
+        skillIndexVersion++;
+        tasksById.clear();
+        for (Chef loaded : loadChefs()) {
+            // Notifications stored inline by older versions move to the outbox the first time they are seen.
+            if (notificationOutbox.hasMailbox(loaded.getName())) {
+                loaded.clearNotifications();
             }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
+            loaded.bindNotificationOutbox(notificationOutbox);
+            Chef chef = previous.get(loaded.getName());
+            if (chef == null) {
+                chef = loaded;
+            } else {
+                chef.reloadFrom(loaded);
             }
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error initializing chefs data file: {0}", e.getMessage());
+            chef.bindTaskIndex(tasksById);
+            chefsByName.put(chef.getName(), chef);
+            recordsByName.put(chef.getName(), formatChef(chef));
+            indexSkills(chef);
         }
+        residentFile.markInSync();
     }
 
-    private List<Chef> loadChefs() {
-        List<Chef> chefs = new ArrayList<>();
-        File file = new File(FILE_PATH);
+    // Another repository instance (or an external tool) may have rewritten the file since we loaded it.
+    private void reloadIfFileChanged() {
+        residentFile.reloadIfChanged(this::reloadChefs);
+    }
+
+    private Collection<Chef> loadChefs() {
+        Map<String, Chef> chefs = new LinkedHashMap<>();
+        File file = new File(filePath);
         if (!file.exists() || file.length() == 0) {
-            return chefs;
+            journal.resetRecordCount(0);
+            return chefs.values();
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        long recordsRead = 0;
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(SEPARATOR, -1);
-                if (parts.length >= 3) {
-                    Chef chef = new Chef(parts[0].trim(), parts[1].trim(), parts[2].trim());
-                    if (parts.length >= 4 && !parts[3].isEmpty()) {
-                        String[] taskEntries = parts[3].split(TASK_LIST_SEPARATOR_REGEX());
-                        for (String taskEntry : taskEntries) {
-                            if (taskEntry.trim().isEmpty()) continue;
-                            String[] taskDetails = taskEntry.split(TASK_SEPARATOR);
-                            if (taskDetails.length >= 2) {
-                                String taskId = taskDetails[0];
-                                String mealName = taskDetails[1];
-                                String dueTime = taskDetails.length > 2 && !taskDetails[2].equals("null") ? taskDetails[2] : null;
-                                String status = taskDetails.length > 3 ? taskDetails[3] : "Assigned";
-                                chef.addTask(new KitchenTask(taskId, mealName, chef.getName(), status, dueTime));
-                            }
-                        }
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                recordsRead++;
+                int fields = tokenizer.countFields(SEPARATOR);
+                if (fields == 3 && (tokenizer.fieldEquals(SEPARATOR, TASK_RECORD)
+                        || tokenizer.fieldEquals(SEPARATOR, WORKLOAD_RECORD))) {
+                    replayDelta(tokenizer, chefs, line);
+                } else if (fields >= 3) {
+                    Chef chef = new Chef(tokenizer.nextTrimmed(SEPARATOR));
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, chef::addExpertise);
+                    chef.setCurrentWorkload(tokenizer.nextTrimmed(SEPARATOR));
+                    if (fields >= 4) {
+                        loadTasks(tokenizer, chef, false);
                     }
-                    if (parts.length >= 5 && !parts[4].isEmpty()) {
-                        Arrays.stream(parts[4].split(LIST_SEPARATOR))
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .forEach(chef::addNotification);
+                    if (fields >= 5) {
+                        tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, chef::addNotification);
                     }
-                    chefs.add(chef);
+                    // A later record for the same chef supersedes the earlier one.
+                    chefs.remove(chef.getName());
+                    chefs.put(chef.getName(), chef);
                 }
             }
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error loading chefs: {0}", e.getMessage());
         }
-        return chefs;
+        journal.resetRecordCount(recordsRead);
+        return chefs.values();
+    }
+
+    // TASK;chef;task or WORKLOAD;chef;workload, applied on top of the chef's last full record.
+    private static void replayDelta(RecordTokenizer tokenizer, Map<String, Chef> chefs, String line) {
+        boolean taskRecord = tokenizer.fieldEquals(SEPARATOR, TASK_RECORD);
+        tokenizer.skipField(SEPARATOR);
+        Chef chef = chefs.get(tokenizer.nextTrimmed(SEPARATOR));
+        if (chef == null) {
+            LOGGER.log(Level.WARNING, "Skipping record for a chef with no earlier chef record: {0}", line);
+        } else if (taskRecord) {
+            loadTasks(tokenizer, chef, true);
+        } else {
+            chef.setCurrentWorkload(tokenizer.nextTrimmed(SEPARATOR));
+        }
+    }
+
+    // taskId~mealName~dueTime~status|...
+    private static void loadTasks(RecordTokenizer tokenizer, Chef chef, boolean replaceExisting) {
+        tokenizer.enter(SEPARATOR);
+        while (tokenizer.hasMoreFields()) {
+            if (tokenizer.isFieldBlank(TASK_LIST_SEPARATOR)) {
+                tokenizer.skipField(TASK_LIST_SEPARATOR);
+                continue;
+            }
+            tokenizer.enter(TASK_LIST_SEPARATOR);
+            int details = tokenizer.countFields(TASK_SEPARATOR);
+            if (details >= 2) {
+                String taskId = tokenizer.nextString(TASK_SEPARATOR);
+                String mealName = tokenizer.nextString(TASK_SEPARATOR);
+                String dueTime = null;
+                if (details > 2) {
+                    if (tokenizer.fieldEquals(TASK_SEPARATOR, "null")) {
+                        tokenizer.skipField(TASK_SEPARATOR);
+                    } else {
+                        dueTime = tokenizer.nextString(TASK_SEPARATOR);
+                    }
+                }
+                String status = details > 3 ? tokenizer.nextString(TASK_SEPARATOR) : "Assigned";
+                KitchenTask task = new KitchenTask(taskId, mealName, chef.getName(), status, dueTime);
+                if (replaceExisting) {
+                    chef.putTask(task);
+                } else {
+                    chef.addTask(task);
+                }
+            }
+            tokenizer.exit();
+        }
+        tokenizer.exit();
+    }
+
+    private static String formatChef(Chef chef) {
+        StringBuilder line = new StringBuilder();
+        line.append(chef.getName()).append(SEPARATOR);
+        appendList(line, chef.getExpertise(), LIST_SEPARATOR);
+        line.append(SEPARATOR).append(chef.getCurrentWorkload()).append(SEPARATOR);
+        boolean firstTask = true;
+        for (KitchenTask task : chef.getAssignedTasksView()) {
+            if (!firstTask) {
+                line.append(TASK_LIST_SEPARATOR);
+            }
+            firstTask = false;
+            appendTask(line, task);
+        }
+        // The notifications field stays, always empty: they live in the NotificationOutbox.
+        line.append(SEPARATOR);
+        return line.toString();
+    }
+
+    private static StringBuilder appendTask(StringBuilder line, KitchenTask task) {
+        return line.append(task.getTaskId()).append(TASK_SEPARATOR)
+                .append(task.getMealName()).append(TASK_SEPARATOR)
+                .append(task.getDueTime() == null ? "null" : task.getDueTime()).append(TASK_SEPARATOR)
+                .append(task.getStatus() == null ? "Assigned" : task.getStatus());
+    }
+
+    private static void appendList(StringBuilder line, List<String> values, char separator) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(separator);
+            }
+            line.append(values.get(i));
+        }
+    }
+
+    /**
+     * Records that a resident chef was modified. Nothing is written until {@link #persistChanges()},
+     * so a caller touching several chefs (or one chef several times) pays for one append per chef.
+     * The record is captured here, so a caller that shares the chef between threads must call this
+     * while still holding the lock it modified the chef under.
+     */
+    public synchronized void markChanged(Chef chef) {
+        reloadIfFileChanged();
+        chef.bindNotificationOutbox(notificationOutbox);
+        chef.bindTaskIndex(tasksById);
+        String record = formatChef(chef);
+        // Re-saving moves the chef to the end, matching the order the file replays in.
+        chefsByName.remove(chef.getName());
+        chefsByName.put(chef.getName(), chef);
+        recordsByName.remove(chef.getName());
+        recordsByName.put(chef.getName(), record);
+        // The full record carries every task and the workload, so earlier deltas are folded into it.
+        Map<String, String> taskRecords = taskRecordsByName.remove(chef.getName());
+        if (taskRecords != null) {
+            deltaRecordCount -= taskRecords.size();
+        }
+        if (workloadRecordsByName.remove(chef.getName()) != null) {
+            deltaRecordCount--;
+        }
+        queue(chef.getName(), record);
+        indexSkills(chef);
+    }
+
+    /**
+     * Like {@link #markChanged(Chef)} for a change confined to one task and the workload label that
+     * moves with it: only those two records are written, so the cost does not grow with the chef's
+     * task history. A chef this repository does not hold yet gets a full record instead.
+     * Chefs named TASK or WORKLOAD cannot be stored, as their records would read as these markers.
+     */
+    public synchronized void markTaskChanged(Chef chef, KitchenTask task) {
+        reloadIfFileChanged();
+        if (chefsByName.get(chef.getName()) != chef) {
+            markChanged(chef);
+            return;
+        }
+        String taskRecord = appendTask(new StringBuilder(64)
+                .append(TASK_RECORD).append(SEPARATOR).append(chef.getName()).append(SEPARATOR), task).toString();
+        if (taskRecordsByName.computeIfAbsent(chef.getName(), name -> new LinkedHashMap<>())
+                .put(task.getTaskId(), taskRecord) == null) {
+            deltaRecordCount++;
+        }
+        queue(TASK_RECORD + SEPARATOR + chef.getName() + SEPARATOR + task.getTaskId(), taskRecord);
+        String workloadRecord = WORKLOAD_RECORD + SEPARATOR + chef.getName() + SEPARATOR + chef.getCurrentWorkload();
+        if (workloadRecordsByName.put(chef.getName(), workloadRecord) == null) {
+            deltaRecordCount++;
+        }
+        queue(WORKLOAD_RECORD + SEPARATOR + chef.getName(), workloadRecord);
+    }
+
+    // A record captured again moves behind everything captured since, matching the order changes happened in.
+    private void queue(String key, String record) {
+        changedRecords.remove(key);
+        changedRecords.put(key, record);
     }
 
-    private void saveAllChefs(List<Chef> chefs) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
-            for (Chef chef : chefs) {
-                String expertiseString = String.join(LIST_SEPARATOR, chef.getExpertise());
-                String tasksString = chef.getAssignedTasks().stream()
-                        .map(task -> String.join(TASK_SEPARATOR, task.getTaskId(), task.getMealName(),
-                                task.getDueTime() == null ? "null" : task.getDueTime(),
-                                task.getStatus() == null ? "Assigned" : task.getStatus()))
-                        .collect(Collectors.joining(TASK_LIST_SEPARATOR));
-                String notificationsString = String.join(LIST_SEPARATOR, chef.getNotifications());
-
-                writer.write(String.join(SEPARATOR,
-                        chef.getName(),
-                        expertiseString,
-                        chef.getCurrentWorkload(),
-                        tasksString,
-                        notificationsString
-                ));
-                writer.newLine();
+    private void indexSkills(Chef chef) {
+        Set<String> skills = new LinkedHashSet<>();
+        for (String skill : chef.getExpertise()) {
+            skills.add(SkillRules.normalize(skill));
+        }
+        Set<String> previous = indexedSkills.get(chef.getName());
+        if (skills.equals(previous)) {
+            return;
+        }
+        skillIndexVersion++;
+        if (previous != null) {
+            for (String skill : previous) {
+                Set<String> names = chefNamesBySkill.get(skill);
+                names.remove(chef.getName());
+                if (names.isEmpty()) {
+                    chefNamesBySkill.remove(skill);
+                }
             }
+        }
+        for (String skill : skills) {
+            chefNamesBySkill.computeIfAbsent(skill, key -> new LinkedHashSet<>()).add(chef.getName());
+        }
+        indexedSkills.put(chef.getName(), skills);
+    }
+
+    /** Appends one record per changed chef; unchanged chefs are never rewritten. */
+    public synchronized void persistChanges() {
+        // Concurrent savers may find their record already written by whoever got here first.
+        if (changedRecords.isEmpty()) {
+            return;
+        }
+        try {
+            journal.appendAll(changedRecords.values(), record -> record);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error saving chefs: {0}", e.getMessage());
         }
+        changedRecords.clear();
+        residentFile.markInSync();
+        if (journal.needsCompaction(chefsByName.size() + deltaRecordCount)) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    private synchronized void compact() {
+        reloadIfFileChanged();
+        List<String> records = new ArrayList<>(recordsByName.size() + deltaRecordCount);
+        for (Map.Entry<String, String> entry : recordsByName.entrySet()) {
+            records.add(entry.getValue());
+            Map<String, String> taskRecords = taskRecordsByName.get(entry.getKey());
+            if (taskRecords != null) {
+                records.addAll(taskRecords.values());
+            }
+            String workloadRecord = workloadRecordsByName.get(entry.getKey());
+            if (workloadRecord != null) {
+                records.add(workloadRecord);
+            }
+        }
+        try {
+            journal.rewrite(records, record -> record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error compacting chefs: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+    }
+
+    public synchronized void saveChef(Chef chefToSave) {
+        markChanged(chefToSave);
+        persistChanges();
     }
 
-    private static String TASK_LIST_SEPARATOR_REGEX() {
-        return "\\" + TASK_LIST_SEPARATOR;
+    public synchronized void saveTask(Chef chef, KitchenTask task) {
+        markTaskChanged(chef, task);
+        persistChanges();
     }
 
-    public void saveChef(Chef chefToSave) {
-        List<Chef> chefs = loadChefs();
-        Optional<Chef> existingChef = chefs.stream()
-                .filter(c -> c.getName().equals(chefToSave.getName()))
-                .findFirst();
+    public NotificationOutbox getNotificationOutbox() {
+        return notificationOutbox;
+    }
 
-        if (existingChef.isPresent()) {
-            chefs.remove(existingChef.get());
+    public synchronized Chef findChefByName(String name) {
+        reloadIfFileChanged();
+        return chefsByName.get(name);
+    }
+
+    /**
+     * Chefs with at least one of the lower-cased {@code skills}, or with any skill at all when
+     * {@code anySkill} is set. Answered from the skill index, without looking at each chef.
+     */
+    public synchronized List<Chef> findChefsWithSkills(Collection<String> skills, boolean anySkill) {
+        reloadIfFileChanged();
+        List<Chef> chefs = new ArrayList<>();
+        if (anySkill) {
+            for (Map.Entry<String, Set<String>> entry : indexedSkills.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    chefs.add(chefsByName.get(entry.getKey()));
+                }
+            }
+            return chefs;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String skill : skills) {
+            Set<String> skilled = chefNamesBySkill.get(skill);
+            if (skilled != null) {
+                names.addAll(skilled);
+            }
         }
-        chefs.add(chefToSave);
-        saveAllChefs(chefs);
+        for (String name : names) {
+            chefs.add(chefsByName.get(name));
+        }
+        return chefs;
     }
 
-    public Chef findChefByName(String name) {
-        return loadChefs().stream()
-                .filter(chef -> chef.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+    /** Changes whenever a chef joins or leaves the brigade, or a chef's skills change. */
+    public synchronized long getSkillIndexVersion() {
+        reloadIfFileChanged();
+        return skillIndexVersion;
+    }
+
+    /**
+     * The task with this id, whichever chef holds it. Task ids are unique across the kitchen:
+     * {@link Chef#addTask(KitchenTask)} refuses an id another chef of this repository holds.
+     */
+    public KitchenTask findTaskById(String taskId) {
+        synchronized (this) {
+            reloadIfFileChanged();
+        }
+        return tasksById.get(taskId);
     }
 
-    public List<Chef> getAllChefs() {
-        return loadChefs();
+    public synchronized List<Chef> getAllChefs() {
+        reloadIfFileChanged();
+        return new ArrayList<>(chefsByName.values());
     }
 
     public void updateChef(Chef updatedChef) {
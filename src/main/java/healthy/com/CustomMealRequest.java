@@ -9,7 +9,7 @@ public class CustomMealRequest {
     private String customerEmail;
     private String mealName;
     private List<Ingredient> selectedIngredients;
-    private double totalPrice;
+    private long totalCents;
     private Set<String> mealTags;
     private boolean creationSuccessful;
     private String failureReason;
@@ -19,7 +19,7 @@ public class CustomMealRequest {
         this.mealName = mealName;
         this.selectedIngredients = new ArrayList<>();
         this.mealTags = new HashSet<>();
-        this.totalPrice = 0.0;
+        this.totalCents = 0;
         this.creationSuccessful = false;
     }
 
@@ -40,11 +40,19 @@ public class CustomMealRequest {
     }
 
     public double getTotalPrice() {
-        return totalPrice;
+        return Money.toDouble(totalCents);
     }
 
     public void setTotalPrice(double totalPrice) {
-        this.totalPrice = totalPrice;
+        this.totalCents = Money.toCents(totalPrice);
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
     }
 
     public Set<String> getMealTags() {
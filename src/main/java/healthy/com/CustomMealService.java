@@ -78,7 +78,7 @@ public class CustomMealService {
             }
         }
 
-        double totalPrice = 0;
+        long totalCents = 0;
         mealRequest.clearMealTags();
         boolean allIngredientsAreVegan = true;
 
@@ -89,7 +89,7 @@ public class CustomMealService {
         }
 
         for (Ingredient ingredient : mealRequest.getSelectedIngredients()) {
-            totalPrice += ingredient.getPrice();
+            totalCents += Money.toCents(ingredient.getPrice());
             if (ingredient.getTags() != null) {
                 if (!ingredient.getTags().contains("vegan")) {
                     allIngredientsAreVegan = false;
@@ -98,7 +98,7 @@ public class CustomMealService {
                 allIngredientsAreVegan = false;
             }
         }
-        mealRequest.setTotalPrice(totalPrice);
+        mealRequest.setTotalCents(totalCents);
 
         if (allIngredientsAreVegan) {
             mealRequest.addMealTag("vegan");
@@ -15,6 +15,13 @@ public class Customer {
         this.allergies = new ArrayList<>();
     }
 
+    /** A copy with its own preference and allergy lists. */
+    Customer(Customer other) {
+        this.email = other.email;
+        this.dietaryPreferences = new ArrayList<>(other.dietaryPreferences);
+        this.allergies = new ArrayList<>(other.allergies);
+    }
+
     public String getEmail() {
         return email;
     }
@@ -1,104 +1,248 @@
 package healthy.com;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class CustomerRepository {
-    private static final String FILE_PATH = "src/main/resources/customers.txt";
-    private static final String SEPARATOR = ";";
-    private static final String LIST_SEPARATOR = ",";
+    private static final Logger LOGGER = Logger.getLogger(CustomerRepository.class.getName());
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/customers.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+
+    // Resident indexes, loaded once and kept in step with the file on every write. The customers
+    // in them never leave the repository: saves store a copy and lookups hand out copies, so
+    // callers on other threads can change what they got without racing readers or compaction.
+    private final Map<String, Customer> customersByEmail = new LinkedHashMap<>();
+    private final Map<String, Map<String, Customer>> customersByPreference = new HashMap<>();
+    private final Map<String, Map<String, Customer>> customersByAllergy = new HashMap<>();
+    // What each customer was last indexed under.
+    private final Map<String, IndexedProfile> indexedProfiles = new HashMap<>();
+    private final String filePath;
+    private final ResidentDataFile residentFile;
+    private final RecordJournal journal;
 
     public CustomerRepository() {
-        try {
-            Path path = Paths.get(FILE_PATH);
-            if (!Files.exists(path.getParent())) {
-                Files.createDirectories(path.getParent());
-            }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
+        this(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    public CustomerRepository(Path dataFile) {
+        this.filePath = dataFile.toString();
+        this.residentFile = new ResidentDataFile(dataFile, SEPARATOR);
+        this.journal = residentFile.journal();
+        reloadIndexes();
+    }
+
+    private void reloadIndexes() {
+        journal.close();
+        customersByEmail.clear();
+        customersByPreference.clear();
+        customersByAllergy.clear();
+        indexedProfiles.clear();
+        for (Customer customer : loadCustomers()) {
+            index(customer);
+        }
+        residentFile.markInSync();
+    }
+
+    private void reloadIfFileChanged() {
+        residentFile.reloadIfChanged(this::reloadIndexes);
+    }
+
+    private void index(Customer customer) {
+        customersByEmail.put(customer.getEmail(), customer);
+        IndexedProfile previous = indexedProfiles.get(customer.getEmail());
+        if (previous != null) {
+            unindexAttributes(customer.getEmail(), previous);
+        }
+        IndexedProfile profile = new IndexedProfile(customer);
+        for (String preference : profile.preferences) {
+            customersByPreference.computeIfAbsent(preference, key -> new LinkedHashMap<>()).put(customer.getEmail(), customer);
+        }
+        for (String allergy : profile.allergies) {
+            customersByAllergy.computeIfAbsent(allergy, key -> new LinkedHashMap<>()).put(customer.getEmail(), customer);
+        }
+        indexedProfiles.put(customer.getEmail(), profile);
+    }
+
+    private void unindexAttributes(String email, IndexedProfile profile) {
+        for (String preference : profile.preferences) {
+            removeFrom(customersByPreference, preference, email);
+        }
+        for (String allergy : profile.allergies) {
+            removeFrom(customersByAllergy, allergy, email);
+        }
+    }
+
+    private static void removeFrom(Map<String, Map<String, Customer>> index, String key, String email) {
+        Map<String, Customer> customers = index.get(key);
+        if (customers != null) {
+            customers.remove(email);
+            if (customers.isEmpty()) {
+                index.remove(key);
             }
-        } catch (IOException e) {
-            System.err.println("Error initializing customer data file: " + e.getMessage());
         }
     }
 
+    // Preferences and allergies are matched case-insensitively, as free text typed by customers.
+    private static String attributeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
     private List<Customer> loadCustomers() {
-        List<Customer> customers = new ArrayList<>();
-        File file = new File(FILE_PATH);
+        Map<String, Customer> customers = new LinkedHashMap<>();
+        File file = new File(filePath);
         if (!file.exists() || file.length() == 0) {
-            return customers;
+            journal.resetRecordCount(0);
+            return new ArrayList<>();
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        long recordsRead = 0;
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(SEPARATOR, -1);
-                if (parts.length >= 1) {
-                    Customer customer = new Customer(parts[0]);
-                    if (parts.length >= 2 && !parts[1].isEmpty()) {
-                        Arrays.stream(parts[1].split(LIST_SEPARATOR))
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .forEach(customer::addDietaryPreference);
-                    }
-                    if (parts.length >= 3 && !parts[2].isEmpty()) {
-                        Arrays.stream(parts[2].split(LIST_SEPARATOR))
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .forEach(customer::addAllergy);
-                    }
-                    customers.add(customer);
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                recordsRead++;
+                Customer customer = new Customer(tokenizer.nextString(SEPARATOR));
+                if (tokenizer.hasMoreFields()) {
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, customer::addDietaryPreference);
+                }
+                if (tokenizer.hasMoreFields()) {
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, customer::addAllergy);
                 }
+                // A later record for the same email supersedes the earlier one.
+                customers.remove(customer.getEmail());
+                customers.put(customer.getEmail(), customer);
             }
         } catch (IOException e) {
-            System.err.println("Error loading customers: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Error loading customers: {0}", e.getMessage());
         }
-        return customers;
+        journal.resetRecordCount(recordsRead);
+        return new ArrayList<>(customers.values());
     }
 
-    private void saveAllCustomers(List<Customer> customers) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
-            for (Customer customer : customers) {
-                String preferences = String.join(LIST_SEPARATOR, customer.getDietaryPreferences());
-                String allergies = String.join(LIST_SEPARATOR, customer.getAllergies());
-                writer.write(String.join(SEPARATOR, customer.getEmail(), preferences, allergies));
-                writer.newLine();
-            }
+    private String formatCustomer(Customer customer) {
+        String listSeparator = String.valueOf(LIST_SEPARATOR);
+        return customer.getEmail() + SEPARATOR
+                + String.join(listSeparator, customer.getDietaryPreferences()) + SEPARATOR
+                + String.join(listSeparator, customer.getAllergies());
+    }
+
+    private synchronized void compact() {
+        reloadIfFileChanged();
+        try {
+            journal.rewrite(customersByEmail.values(), this::formatCustomer);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error compacting customers: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+    }
+
+    /** Indexes the customer and appends one record for it; the file is never rewritten on save. */
+    public synchronized void saveCustomer(Customer customerToSave) {
+        reloadIfFileChanged();
+        Customer stored = new Customer(customerToSave);
+        // Re-saving moves the customer to the end, matching the order the file replays in.
+        customersByEmail.remove(stored.getEmail());
+        index(stored);
+        try {
+            journal.append(formatCustomer(stored));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving customers: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+        if (journal.needsCompaction(customersByEmail.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    /** Indexes every customer and appends their records with a single flush. */
+    public synchronized void saveCustomers(Collection<Customer> customersToSave) {
+        reloadIfFileChanged();
+        List<Customer> stored = new ArrayList<>(customersToSave.size());
+        for (Customer customer : customersToSave) {
+            Customer copy = new Customer(customer);
+            customersByEmail.remove(copy.getEmail());
+            index(copy);
+            stored.add(copy);
+        }
+        try {
+            journal.appendAll(stored, this::formatCustomer);
         } catch (IOException e) {
-            System.err.println("Error saving customers: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Error saving customers: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+        if (journal.needsCompaction(customersByEmail.size())) {
+            journal.scheduleCompaction(this::compact);
         }
     }
 
-    public void saveCustomer(Customer customerToSave) {
-        List<Customer> customers = loadCustomers();
-        Optional<Customer> existingCustomer = customers.stream()
-                .filter(c -> c.getEmail().equals(customerToSave.getEmail()))
-                .findFirst();
+    public synchronized Customer findCustomerByEmail(String email) {
+        reloadIfFileChanged();
+        Customer customer = customersByEmail.get(email);
+        return customer == null ? null : new Customer(customer);
+    }
+
+    /** Customers who listed {@code preference} (case-insensitive), in the order they were saved. */
+    public synchronized List<Customer> findCustomersWithDietaryPreference(String preference) {
+        reloadIfFileChanged();
+        return copyOf(customersByPreference.get(attributeKey(preference)));
+    }
+
+    /** Customers who listed {@code allergy} (case-insensitive), in the order they were saved. */
+    public synchronized List<Customer> findCustomersWithAllergy(String allergy) {
+        reloadIfFileChanged();
+        return copyOf(customersByAllergy.get(attributeKey(allergy)));
+    }
+
+    public synchronized List<Customer> getAllCustomers() {
+        reloadIfFileChanged();
+        return copyOf(customersByEmail);
+    }
 
-        if (existingCustomer.isPresent()) {
-            customers.remove(existingCustomer.get());
+    private static List<Customer> copyOf(Map<String, Customer> customers) {
+        if (customers == null) {
+            return Collections.emptyList();
         }
-        customers.add(customerToSave);
-        saveAllCustomers(customers);
+        List<Customer> copies = new ArrayList<>(customers.size());
+        for (Customer customer : customers.values()) {
+            copies.add(new Customer(customer));
+        }
+        return copies;
     }
 
-    public Customer findCustomerByEmail(String email) {
-        return loadCustomers().stream()
-                .filter(customer -> customer.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+    private static final class IndexedProfile {
+        private final List<String> preferences = new ArrayList<>();
+        private final List<String> allergies = new ArrayList<>();
+
+        private IndexedProfile(Customer customer) {
+            for (String preference : customer.getDietaryPreferences()) {
+                String key = attributeKey(preference);
+                if (!preferences.contains(key)) {
+                    preferences.add(key);
+                }
+            }
+            for (String allergy : customer.getAllergies()) {
+                String key = attributeKey(allergy);
+                if (!allergies.contains(key)) {
+                    allergies.add(key);
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
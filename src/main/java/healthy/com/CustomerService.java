@@ -1,5 +1,12 @@
 package healthy.com;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 public class CustomerService {
     private final CustomerRepository customerRepository;
 
@@ -48,6 +55,40 @@ public class CustomerService {
         }
     }
 
+    /**
+     * Applies a batch of dietary profiles, e.g. from an onboarding import. Unknown customers are
+     * registered, attributes are merged into what is already stored, and all touched customers
+     * are written together at the end. Returns the number of customers updated.
+     */
+    public int importDietaryProfiles(Stream<DietaryProfile> profiles) {
+        Map<String, Customer> touched = new LinkedHashMap<>();
+        profiles.forEach(profile -> {
+            String email = profile.getEmail();
+            if (email == null || email.trim().isEmpty()) {
+                System.err.println("Skipping dietary profile without an email.");
+                return;
+            }
+            Customer customer = touched.get(email);
+            if (customer == null) {
+                customer = customerRepository.findCustomerByEmail(email);
+                if (customer == null) {
+                    customer = new Customer(email);
+                }
+                touched.put(email, customer);
+            }
+            for (String preference : profile.getDietaryPreferences()) {
+                customer.addDietaryPreference(preference);
+            }
+            for (String allergy : profile.getAllergies()) {
+                customer.addAllergy(allergy);
+            }
+        });
+        if (!touched.isEmpty()) {
+            customerRepository.saveCustomers(touched.values());
+        }
+        return touched.size();
+    }
+
     public Customer getCustomerDietaryInfo(String email) {
         if (email == null || email.trim().isEmpty()) {
             System.err.println("Email cannot be null or empty for fetching dietary info.");
@@ -55,4 +96,29 @@ public class CustomerService {
         }
         return customerRepository.findCustomerByEmail(email);
     }
+
+    /** One customer's preferences and allergies as supplied to {@link #importDietaryProfiles}. */
+    public static class DietaryProfile {
+        private final String email;
+        private final List<String> dietaryPreferences;
+        private final List<String> allergies;
+
+        public DietaryProfile(String email, List<String> dietaryPreferences, List<String> allergies) {
+            this.email = email;
+            this.dietaryPreferences = dietaryPreferences != null ? new ArrayList<>(dietaryPreferences) : Collections.emptyList();
+            this.allergies = allergies != null ? new ArrayList<>(allergies) : Collections.emptyList();
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public List<String> getDietaryPreferences() {
+            return dietaryPreferences;
+        }
+
+        public List<String> getAllergies() {
+            return allergies;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package healthy.com;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the size, modification time and identity of a data file as last seen by a
+ * resident repository, so the repository can tell with a single stat call whether another
+ * writer has changed the file since it was loaded.
+ */
+class DataFileStamp {
+    private static final Logger LOGGER = Logger.getLogger(DataFileStamp.class.getName());
+    private final Path path;
+    private long size = -1;
+    private FileTime lastModified;
+    private Object fileKey;
+
+    DataFileStamp(Path path) {
+        this.path = path;
+    }
+
+    /** Records the current state of the file as the one this repository is in sync with. */
+    void record() {
+        BasicFileAttributes attributes = readAttributes();
+        if (attributes == null) {
+            size = -1;
+            lastModified = null;
+            fileKey = null;
+        } else {
+            size = attributes.size();
+            lastModified = attributes.lastModifiedTime();
+            fileKey = attributes.fileKey();
+        }
+    }
+
+    /** Returns true if the file was created, removed, replaced or written since the last {@link #record()}. */
+    boolean isStale() {
+        BasicFileAttributes attributes = readAttributes();
+        if (attributes == null) {
+            return size != -1;
+        }
+        return attributes.size() != size
+                || !attributes.lastModifiedTime().equals(lastModified)
+                || !Objects.equals(attributes.fileKey(), fileKey);
+    }
+
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error reading attributes of {0}: {1}", new Object[]{path, e.getMessage()});
+            return null;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class Ingredient {
@@ -13,9 +15,12 @@ public class Ingredient {
     private double price;
     private Set<String> tags;
     private List<String> suggestedAlternatives;
-    private int currentStock;
+    // Atomic so that cooks drawing on the same ingredient at once never oversell it.
+    private final AtomicInteger currentStock = new AtomicInteger();
     private String unit;
-    private int reorderLevel;
+    private volatile int reorderLevel;
+    // Told when the stock drops below the reorder level; see IngredientRepository.
+    private volatile Consumer<Ingredient> lowStockListener;
 
     public Ingredient(String name, double price, String tagsString, String alternativesString, int currentStock, String unit, int reorderLevel) {
         this.name = name;
@@ -36,7 +41,7 @@ public class Ingredient {
                             .collect(Collectors.toList())
             );
         }
-        this.currentStock = currentStock;
+        this.currentStock.set(currentStock);
         this.unit = unit;
         this.reorderLevel = reorderLevel;
     }
@@ -61,6 +66,12 @@ public class Ingredient {
         return tags;
     }
 
+    public void addTag(String tag) {
+        if (tag != null && !tag.trim().isEmpty()) {
+            this.tags.add(tag.trim());
+        }
+    }
+
     public List<String> getSuggestedAlternatives() {
         return new ArrayList<>(suggestedAlternatives);
     }
@@ -72,11 +83,14 @@ public class Ingredient {
     }
 
     public int getCurrentStock() {
-        return currentStock;
+        return currentStock.get();
     }
 
     public void setCurrentStock(int currentStock) {
-        this.currentStock = currentStock;
+        this.currentStock.set(currentStock);
+        if (currentStock < reorderLevel) {
+            reportLowStock();
+        }
     }
 
     public String getUnit() {
@@ -93,20 +107,72 @@ public class Ingredient {
 
     public void setReorderLevel(int reorderLevel) {
         this.reorderLevel = reorderLevel;
+        if (getCurrentStock() < reorderLevel) {
+            reportLowStock();
+        }
     }
 
     public void decreaseStock(int quantity) {
         if (quantity > 0) {
-            this.currentStock -= quantity;
-            if (this.currentStock < 0) {
-                this.currentStock = 0; // Prevent negative stock
-            }
+            int before = this.currentStock.getAndUpdate(stock -> Math.max(0, stock - quantity)); // Prevent negative stock
+            checkReorderLevelCrossed(before, Math.max(0, before - quantity));
         }
     }
 
+    /**
+     * Takes {@code quantity} out of stock only if that much is there, as one atomic step.
+     * Returns false, leaving the stock untouched, if there is not enough.
+     */
+    public boolean tryDecreaseStock(int quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        int stock;
+        do {
+            stock = currentStock.get();
+            if (stock < quantity) {
+                return false;
+            }
+        } while (!currentStock.compareAndSet(stock, stock - quantity));
+        checkReorderLevelCrossed(stock, stock - quantity);
+        return true;
+    }
+
     public void increaseStock(int quantity) {
         if (quantity > 0) {
-            this.currentStock += quantity;
+            this.currentStock.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * Takes every attribute of {@code other}, an edited copy of this ingredient, keeping this
+     * instance (and its atomic stock) the one that holders and the repository share.
+     */
+    void updateFrom(Ingredient other) {
+        this.price = other.price;
+        this.tags = new HashSet<>(other.tags);
+        this.suggestedAlternatives = new ArrayList<>(other.suggestedAlternatives);
+        this.unit = other.unit;
+        this.reorderLevel = other.reorderLevel;
+        this.currentStock.set(other.getCurrentStock());
+    }
+
+    void setLowStockListener(Consumer<Ingredient> lowStockListener) {
+        this.lowStockListener = lowStockListener;
+    }
+
+    // Only the decrement that crosses the level reports it, so further use costs nothing extra.
+    private void checkReorderLevelCrossed(int before, int after) {
+        int level = reorderLevel;
+        if (before >= level && after < level) {
+            reportLowStock();
+        }
+    }
+
+    private void reportLowStock() {
+        Consumer<Ingredient> listener = lowStockListener;
+        if (listener != null) {
+            listener.accept(this);
         }
     }
 
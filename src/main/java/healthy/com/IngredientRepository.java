@@ -1,37 +1,70 @@
 package healthy.com;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+/**
+ * Ingredients are served from an immutable snapshot published through a volatile field, so
+ * lookups take no lock and never see a half-loaded cache: a reload builds a complete new map
+ * and swaps it in with a single write. Writers (saves and reloads) are serialized.
+ *
+ * <p>Each ingredient keeps one instance for as long as the repository holds it: saving a
+ * different instance under a known name copies its attributes into the held one, so a stock
+ * change made concurrently through a held ingredient is never left on an orphaned object.
+ * Changes made in place are recorded with {@link #markChanged(Ingredient)} and written in
+ * batches by {@link #persistChanges()}, which appends one record per changed ingredient; the
+ * last record for a name wins when the file is read, and the whole file is only rewritten by
+ * a full save or once superseded records pile up.
+ *
+ * <p>Ingredients report themselves when a stock change takes them below their reorder level,
+ * and are kept in a restock queue with one entry per ingredient, so finding what needs
+ * restocking costs O(queued ingredients) rather than a scan of the whole catalog.
+ */
 public class IngredientRepository {
-    private static final String FILE_PATH = "src/main/resources/ingredients.txt";
-    private static final String SEPARATOR = ";";
-    private static final String LIST_SEPARATOR = ",";
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/ingredients.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+    private final String filePath;
+    private final RecordJournal journal;
 
-    private Map<String, Ingredient> ingredientsCache;
+    private volatile Map<String, Ingredient> ingredientsCache;
+    // Set when a change cannot be pinned to particular ingredients, so the whole file is rewritten.
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+    private final Set<String> changedNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, Ingredient> restockQueue = new ConcurrentHashMap<>();
+    private volatile Consumer<Ingredient> lowStockListener;
 
     public IngredientRepository() {
-        this.ingredientsCache = new HashMap<>();
-        loadIngredientsFromFile();
+        this(Paths.get(DEFAULT_FILE_PATH));
     }
 
-    private void loadIngredientsFromFile() {
-        this.ingredientsCache.clear();
-        File file = new File(FILE_PATH);
+    public IngredientRepository(Path dataFile) {
+        this.filePath = dataFile.toString();
+        this.journal = new RecordJournal(dataFile, SEPARATOR);
+        publish(loadIngredientsFromFile());
+    }
+
+    private Map<String, Ingredient> loadIngredientsFromFile() {
+        Map<String, Ingredient> ingredients = new HashMap<>();
+        File file = new File(filePath);
         if (!file.exists()) {
             try {
-                Path path = Paths.get(FILE_PATH);
+                Path path = Paths.get(filePath);
                 if (!Files.exists(path.getParent())) {
                     Files.createDirectories(path.getParent());
                 }
@@ -39,24 +72,35 @@ public class IngredientRepository {
             } catch (IOException e) {
                 System.err.println("Error creating ingredient data file: " + e.getMessage());
             }
-            return;
+            journal.resetRecordCount(0);
+            return Collections.emptyMap();
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        long recordsRead = 0;
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(SEPARATOR, -1);
-                if (parts.length >= 6) { // name;price;tags;alternatives;stock;unit;reorderLvl
-                    String name = parts[0].trim();
-                    double price = Double.parseDouble(parts[1].trim());
-                    String tagsString = parts[2].trim();
-                    String alternativesString = (parts.length > 3 && parts[3] != null) ? parts[3].trim() : "";
-                    int currentStock = (parts.length > 4 && parts[4] != null && !parts[4].isEmpty()) ? Integer.parseInt(parts[4].trim()) : 0;
-                    String unit = (parts.length > 5 && parts[5] != null) ? parts[5].trim() : "unit";
-                    int reorderLevel = (parts.length > 6 && parts[6] != null && !parts[6].isEmpty()) ? Integer.parseInt(parts[6].trim()) : 0;
-
-                    this.ingredientsCache.put(name, new Ingredient(name, price, tagsString, alternativesString, currentStock, unit, reorderLevel));
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                recordsRead++;
+                int fields = tokenizer.countFields(SEPARATOR);
+                if (fields >= 6) { // name;price;tags;alternatives;stock;unit;reorderLvl
+                    Ingredient ingredient = new Ingredient(tokenizer.nextTrimmed(SEPARATOR), tokenizer.nextDouble(SEPARATOR), "");
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, ingredient::addTag);
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, ingredient::addSuggestedAlternative);
+                    if (tokenizer.isFieldEmpty(SEPARATOR)) {
+                        tokenizer.skipField(SEPARATOR);
+                    } else {
+                        ingredient.setCurrentStock(tokenizer.nextInt(SEPARATOR));
+                    }
+                    ingredient.setUnit(tokenizer.nextTrimmed(SEPARATOR));
+                    if (fields > 6 && !tokenizer.isFieldEmpty(SEPARATOR)) {
+                        ingredient.setReorderLevel(tokenizer.nextInt(SEPARATOR));
+                    }
+
+                    // A later record for the same ingredient supersedes the earlier one.
+                    ingredients.put(ingredient.getName(), ingredient);
                 } else {
                     System.err.println("Skipping malformed line in ingredients.txt (expected at least 6 parts): " + line);
                 }
@@ -64,49 +108,186 @@ public class IngredientRepository {
         } catch (IOException | NumberFormatException e) {
             System.err.println("Error loading ingredients: " + e.getMessage());
         }
+        journal.resetRecordCount(recordsRead);
+        return Collections.unmodifiableMap(ingredients);
     }
 
-    public void refreshCache() {
-        loadIngredientsFromFile();
+    public synchronized void refreshCache() {
+        journal.close();
+        publish(loadIngredientsFromFile());
     }
 
-    public Ingredient findIngredientByName(String name) {
-        if (this.ingredientsCache.isEmpty() && new File(FILE_PATH).exists() && new File(FILE_PATH).length() > 0) {
-            loadIngredientsFromFile();
+    // Rebuilding the restock queue here is one pass over ingredients we have just read or written.
+    private void publish(Map<String, Ingredient> ingredients) {
+        restockQueue.clear();
+        for (Ingredient ingredient : ingredients.values()) {
+            ingredient.setLowStockListener(this::queueForRestock);
+            if (ingredient.getCurrentStock() < ingredient.getReorderLevel()) {
+                queueForRestock(ingredient);
+            }
         }
-        return this.ingredientsCache.get(name);
+        this.ingredientsCache = ingredients;
+    }
+
+    private void queueForRestock(Ingredient ingredient) {
+        restockQueue.put(ingredient.getName(), ingredient);
+        Consumer<Ingredient> listener = lowStockListener;
+        if (listener != null) {
+            listener.accept(ingredient);
+        }
+    }
+
+    /**
+     * Told about each ingredient as it is queued for restocking, on the thread whose stock
+     * change queued it; it may hear of the same ingredient more than once.
+     */
+    public void setLowStockListener(Consumer<Ingredient> lowStockListener) {
+        this.lowStockListener = lowStockListener;
+    }
+
+    public Ingredient findIngredientByName(String name) {
+        return currentIngredients().get(name);
     }
 
     public List<Ingredient> getAllIngredients() {
-        if (this.ingredientsCache.isEmpty() && new File(FILE_PATH).exists() && new File(FILE_PATH).length() > 0) {
-            loadIngredientsFromFile();
-        }
-        return new ArrayList<>(this.ingredientsCache.values());
-    }
-
-    public void saveAllIngredients(List<Ingredient> ingredientsToSave) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
-            for (Ingredient ingredient : ingredientsToSave) {
-                String tags = String.join(LIST_SEPARATOR, ingredient.getTags());
-                String alternatives = String.join(LIST_SEPARATOR, ingredient.getSuggestedAlternatives());
-                writer.write(String.join(SEPARATOR,
-                        ingredient.getName(),
-                        String.valueOf(ingredient.getPrice()),
-                        tags,
-                        alternatives,
-                        String.valueOf(ingredient.getCurrentStock()),
-                        ingredient.getUnit(),
-                        String.valueOf(ingredient.getReorderLevel())
-                ));
-                writer.newLine();
+        return new ArrayList<>(currentIngredients().values());
+    }
+
+    // An empty snapshot may just mean the file was filled in after we loaded it.
+    private Map<String, Ingredient> currentIngredients() {
+        Map<String, Ingredient> ingredients = this.ingredientsCache;
+        if (ingredients.isEmpty() && new File(filePath).length() > 0) {
+            synchronized (this) {
+                if (this.ingredientsCache.isEmpty()) {
+                    refreshCache();
+                }
+                ingredients = this.ingredientsCache;
+            }
+        }
+        return ingredients;
+    }
+
+    /**
+     * Writes a complete new file beside the old one, swaps it in, then publishes the saved
+     * ingredients, updating those already held in place. Ingredients left out are dropped.
+     */
+    public synchronized void saveAllIngredients(List<Ingredient> ingredientsToSave) {
+        if (!writeIngredients(ingredientsToSave)) {
+            return;
+        }
+        Map<String, Ingredient> held = currentIngredients();
+        Map<String, Ingredient> ingredients = new HashMap<>();
+        for (Ingredient ingredient : ingredientsToSave) {
+            Ingredient current = held.get(ingredient.getName());
+            if (current != null && current != ingredient) {
+                current.updateFrom(ingredient);
+                ingredient = current;
+            }
+            ingredients.put(ingredient.getName(), ingredient);
+        }
+        publish(Collections.unmodifiableMap(ingredients));
+    }
+
+    /**
+     * The ingredients whose stock is below their reorder level, taken from the restock queue.
+     * Entries for ingredients restocked since, or replaced by a reload, are dropped on the way.
+     */
+    public List<Ingredient> getIngredientsBelowReorderLevel() {
+        Map<String, Ingredient> ingredients = currentIngredients();
+        List<Ingredient> belowReorderLevel = new ArrayList<>(restockQueue.size());
+        for (Map.Entry<String, Ingredient> entry : restockQueue.entrySet()) {
+            Ingredient queued = entry.getValue();
+            Ingredient current = ingredients.get(entry.getKey());
+            if (current != null && current.getCurrentStock() < current.getReorderLevel()) {
+                if (queued != current) {
+                    restockQueue.replace(entry.getKey(), queued, current);
+                }
+                belowReorderLevel.add(current);
+            } else {
+                restockQueue.remove(entry.getKey(), queued);
+                if (current != null && current.getCurrentStock() < current.getReorderLevel()) {
+                    // It dropped below again while we were removing it; that report must not be lost.
+                    queueForRestock(current);
+                    belowReorderLevel.add(current);
+                }
+            }
+        }
+        return belowReorderLevel;
+    }
+
+    /** Records that this held ingredient was changed in place and needs writing. */
+    public void markChanged(Ingredient ingredient) {
+        changedNames.add(ingredient.getName());
+    }
+
+    /** Records that ingredients held by this repository were changed in place, without saying which. */
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    /**
+     * Appends a record for each ingredient marked changed since the last write. Callers arriving
+     * while a write is under way wait for it and then find their change already written, so a
+     * burst of concurrent stock updates costs a few short appends rather than one each.
+     */
+    public synchronized void persistChanges() {
+        if (changed.getAndSet(false)) {
+            changedNames.clear();
+            writeIngredients(currentIngredients().values());
+            return;
+        }
+        if (changedNames.isEmpty()) {
+            return;
+        }
+        Map<String, Ingredient> ingredients = currentIngredients();
+        List<Ingredient> changedIngredients = new ArrayList<>(changedNames.size());
+        // A name marked again after it is taken here is written by the next call.
+        for (String name : changedNames) {
+            changedNames.remove(name);
+            Ingredient ingredient = ingredients.get(name);
+            if (ingredient != null) {
+                changedIngredients.add(ingredient);
             }
-            refreshCache();
+        }
+        try {
+            journal.appendAll(changedIngredients, IngredientRepository::formatIngredient);
         } catch (IOException e) {
             System.err.println("Error saving ingredients: " + e.getMessage());
         }
+        if (journal.needsCompaction(ingredients.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    private synchronized void compact() {
+        writeIngredients(currentIngredients().values());
+    }
+
+    // Replaces the file with one record per ingredient.
+    private boolean writeIngredients(Collection<Ingredient> ingredientsToSave) {
+        try {
+            journal.rewrite(ingredientsToSave, IngredientRepository::formatIngredient);
+        } catch (IOException e) {
+            System.err.println("Error saving ingredients: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static String formatIngredient(Ingredient ingredient) {
+        String listSeparator = String.valueOf(LIST_SEPARATOR);
+        return new StringBuilder()
+                .append(ingredient.getName()).append(SEPARATOR)
+                .append(ingredient.getPrice()).append(SEPARATOR)
+                .append(String.join(listSeparator, ingredient.getTags())).append(SEPARATOR)
+                .append(String.join(listSeparator, ingredient.getSuggestedAlternatives())).append(SEPARATOR)
+                .append(ingredient.getCurrentStock()).append(SEPARATOR)
+                .append(ingredient.getUnit()).append(SEPARATOR)
+                .append(ingredient.getReorderLevel())
+                .toString();
     }
 
-    public void updateIngredient(Ingredient ingredientToUpdate) {
+    public synchronized void updateIngredient(Ingredient ingredientToUpdate) {
         List<Ingredient> allIngredients = getAllIngredients();
         boolean found = false;
         for (int i = 0; i < allIngredients.size(); i++) {
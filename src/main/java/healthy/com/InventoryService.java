@@ -1,8 +1,10 @@
 package healthy.com;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 public class InventoryService {
     private final IngredientRepository ingredientRepository;
@@ -19,29 +21,78 @@ public class InventoryService {
         return ingredientRepository.getAllIngredients();
     }
 
+    /**
+     * Takes every listed quantity out of stock, or none of them, and saves the new levels in
+     * one batched write. See {@link #takeStock(Map)}.
+     */
     public boolean useIngredients(Map<String, Integer> ingredientsUsed) {
         if (ingredientsUsed == null || ingredientsUsed.isEmpty()) {
             return true;
         }
-        // First check if all ingredients are available in sufficient quantity
-        for (Map.Entry<String, Integer> entry : ingredientsUsed.entrySet()) {
+        if (!takeStock(ingredientsUsed)) {
+            return false; // Or throw InsufficientStockException
+        }
+        saveStockChanges(ingredientsUsed.keySet());
+        return true;
+    }
+
+    /**
+     * Takes every listed quantity out of stock, or none of them, without saving. Each ingredient
+     * is taken with an atomic compare-and-set, so concurrent orders cannot oversell; if one
+     * ingredient falls short, what was already taken is put back. Other orders may briefly see
+     * that stock as taken.
+     */
+    boolean takeStock(Map<String, Integer> quantities) {
+        // A fixed order means two orders after the last of the same ingredients don't both lose.
+        Map<String, Integer> ordered = new TreeMap<>(quantities);
+        List<Ingredient> taken = new ArrayList<>(ordered.size());
+        for (Map.Entry<String, Integer> entry : ordered.entrySet()) {
             Ingredient ingredient = ingredientRepository.findIngredientByName(entry.getKey());
-            if (ingredient == null || ingredient.getCurrentStock() < entry.getValue()) {
+            if (ingredient == null || !ingredient.tryDecreaseStock(entry.getValue())) {
                 System.err.println("Not enough stock or ingredient not found for: " + entry.getKey());
-                return false; // Or throw InsufficientStockException
+                for (Ingredient alreadyTaken : taken) {
+                    alreadyTaken.increaseStock(ordered.get(alreadyTaken.getName()));
+                }
+                if (!taken.isEmpty()) {
+                    // A concurrent save may have written the levels while they were taken.
+                    for (Ingredient alreadyTaken : taken) {
+                        ingredientRepository.markChanged(alreadyTaken);
+                    }
+                    ingredientRepository.persistChanges();
+                }
+                return false;
             }
+            taken.add(ingredient);
         }
+        return true;
+    }
 
-        // If all checks pass, then decrease stock
-        for (Map.Entry<String, Integer> entry : ingredientsUsed.entrySet()) {
+    /** Puts quantities taken by {@link #takeStock(Map)} back, without saving. */
+    void returnStock(Map<String, Integer> quantities) {
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
             Ingredient ingredient = ingredientRepository.findIngredientByName(entry.getKey());
-            // ingredient should not be null here due to the check above, but good practice
+            if (ingredient == null) {
+                System.err.println("Cannot return stock, ingredient not found: " + entry.getKey());
+            } else {
+                ingredient.increaseStock(entry.getValue());
+            }
+        }
+    }
+
+    /** Writes the stock of the named ingredients, in one batch with whatever else is waiting. */
+    void saveStockChanges(Collection<String> ingredientNames) {
+        for (String name : ingredientNames) {
+            Ingredient ingredient = ingredientRepository.findIngredientByName(name);
             if (ingredient != null) {
-                ingredient.decreaseStock(entry.getValue());
-                ingredientRepository.updateIngredient(ingredient); // Save changes
+                ingredientRepository.markChanged(ingredient);
             }
         }
-        return true;
+        ingredientRepository.persistChanges();
+    }
+
+    private void saveStockChange(Ingredient ingredient) {
+        ingredientRepository.markChanged(ingredient);
+        ingredientRepository.persistChanges();
     }
 
     public boolean useSingleIngredient(String ingredientName, int quantity) {
@@ -53,27 +104,25 @@ public class InventoryService {
             System.err.println("Ingredient not found: " + ingredientName);
             return false;
         }
-        if (ingredient.getCurrentStock() < quantity) {
+        if (!ingredient.tryDecreaseStock(quantity)) {
             System.err.println("Not enough stock for: " + ingredientName + ". Required: " + quantity + ", Available: " + ingredient.getCurrentStock());
             return false;
         }
-        ingredient.decreaseStock(quantity);
-        ingredientRepository.updateIngredient(ingredient);
+        saveStockChange(ingredient);
         return true;
     }
 
 
+    /** Read from the repository's restock queue, so this does not scan every ingredient. */
     public List<Ingredient> getIngredientsNeedingRestocking() {
-        return ingredientRepository.getAllIngredients().stream()
-                .filter(ingredient -> ingredient.getCurrentStock() < ingredient.getReorderLevel())
-                .collect(Collectors.toList());
+        return ingredientRepository.getIngredientsBelowReorderLevel();
     }
 
     public void updateIngredientStock(String ingredientName, int newStockLevel) {
         Ingredient ingredient = ingredientRepository.findIngredientByName(ingredientName);
         if (ingredient != null) {
             ingredient.setCurrentStock(newStockLevel);
-            ingredientRepository.updateIngredient(ingredient);
+            saveStockChange(ingredient);
         } else {
             System.err.println("Cannot update stock, ingredient not found: " + ingredientName);
         }
@@ -83,7 +132,7 @@ public class InventoryService {
         Ingredient ingredient = ingredientRepository.findIngredientByName(ingredientName);
         if (ingredient != null) {
             ingredient.setReorderLevel(newReorderLevel);
-            ingredientRepository.updateIngredient(ingredient);
+            saveStockChange(ingredient);
         } else {
             System.err.println("Cannot set reorder level, ingredient not found: " + ingredientName);
         }
@@ -12,9 +12,9 @@ public class Invoice {
     private String customerEmail;
     private LocalDate invoiceDate;
     private List<OrderItem> items;
-    private double subtotal;
-    private double taxAmount;
-    private double grandTotal;
+    private long subtotalCents;
+    private long taxCents;
+    private long grandTotalCents;
     private String paymentStatus;
 
     public Invoice(String orderId, String customerEmail, List<OrderItem> orderItems, double orderTotalAmount, String orderPaymentStatus) {
@@ -23,9 +23,9 @@ public class Invoice {
         this.customerEmail = customerEmail;
         this.invoiceDate = LocalDate.now();
         this.items = new ArrayList<>(orderItems);
-        this.subtotal = orderTotalAmount;
-        this.taxAmount = 0.0;
-        this.grandTotal = this.subtotal + this.taxAmount;
+        this.subtotalCents = Money.toCents(orderTotalAmount);
+        this.taxCents = 0;
+        this.grandTotalCents = this.subtotalCents + this.taxCents;
         this.paymentStatus = orderPaymentStatus;
     }
 
@@ -50,15 +50,19 @@ public class Invoice {
     }
 
     public double getSubtotal() {
-        return subtotal;
+        return Money.toDouble(subtotalCents);
     }
 
     public double getTaxAmount() {
-        return taxAmount;
+        return Money.toDouble(taxCents);
     }
 
     public double getGrandTotal() {
-        return grandTotal;
+        return Money.toDouble(grandTotalCents);
+    }
+
+    public long getGrandTotalCents() {
+        return grandTotalCents;
     }
 
     public String getPaymentStatus() {
@@ -89,12 +93,13 @@ public class Invoice {
         sb.append("Payment Status: ").append(paymentStatus).append("\n");
         sb.append("\nItems:\n");
         for (OrderItem item : items) {
-            sb.append(String.format("  - %s (Qty: %d, Unit Price: %.2f, Total: %.2f)\n",
-                    item.getMealName(), item.getQuantity(), item.getUnitPrice(), item.getItemTotalPrice()));
+            sb.append("  - ").append(item.getMealName()).append(" (Qty: ").append(item.getQuantity()).append(", Unit Price: ");
+            Money.appendTo(sb, item.getUnitPriceCents()).append(", Total: ");
+            Money.appendTo(sb, item.getItemTotalCents()).append(")\n");
         }
-        sb.append(String.format("\nSubtotal: %.2f\n", subtotal));
-        sb.append(String.format("Tax: %.2f\n", taxAmount));
-        sb.append(String.format("Grand Total: %.2f\n", grandTotal));
+        Money.appendTo(sb.append("\nSubtotal: "), subtotalCents).append("\n");
+        Money.appendTo(sb.append("Tax: "), taxCents).append("\n");
+        Money.appendTo(sb.append("Grand Total: "), grandTotalCents).append("\n");
         sb.append("----------------\n");
         return sb.toString();
     }
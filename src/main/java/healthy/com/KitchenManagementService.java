@@ -1,17 +1,267 @@
 package healthy.com;
 
+import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class KitchenManagementService {
+    private static final int CHEF_LOCK_STRIPES = 64;
+    public static final int DEFAULT_PREP_MINUTES = 15;
+    private static final long TASK_BOARD_TICK_SECONDS = 30;
+
     private ChefRepository chefRepository;
+    private final SkillRules skillRules;
+    // Assignments to different chefs run in parallel; those to the same chef take turns.
+    private final StripedLocks chefLocks = new StripedLocks(CHEF_LOCK_STRIPES);
+    private final ChefLoadBoard loadBoard = new ChefLoadBoard();
+    private volatile ToIntFunction<String> prepTimeEstimator = mealName -> DEFAULT_PREP_MINUTES;
+    private final KitchenTaskBoard taskBoard;
+    private volatile Consumer<String> orderCompletionListener = orderId -> { };
 
     public KitchenManagementService(ChefRepository chefRepository) {
+        this(chefRepository, SkillRules.load());
+    }
+
+    public KitchenManagementService(ChefRepository chefRepository, SkillRules skillRules) {
         this.chefRepository = chefRepository;
+        this.skillRules = skillRules;
+        this.taskBoard = new KitchenTaskBoard(Clock.systemDefaultZone(), KitchenTaskBoard.DEFAULT_LEAD_MINUTES, this::onTaskDue);
+    }
+
+    /** How many minutes a meal keeps a chef busy, for balancing automatic assignments; 15 by default. */
+    public void setPrepTimeEstimator(ToIntFunction<String> prepTimeEstimator) {
+        this.prepTimeEstimator = prepTimeEstimator;
+        this.loadBoard.invalidate();
     }
 
     public boolean assignTaskToChef(String orderId, String mealName, String chefName) {
+        return assignTaskToChef(orderId, mealName, chefName, null);
+    }
+
+    /**
+     * Called with the order id of each task as it is completed, e.g. to commit the stock reserved
+     * for the order. It runs while the chef's lock is held, so it must not call back into this service.
+     */
+    public void setOrderCompletionListener(Consumer<String> orderCompletionListener) {
+        this.orderCompletionListener = orderCompletionListener;
+    }
+
+    /** Safe to call from many threads at once; see {@link #chefLocks}. A non-null due time puts the task on the task board. */
+    public boolean assignTaskToChef(String orderId, String mealName, String chefName, String dueTime) {
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            return assignTaskUnderLock(orderId, mealName, chefName, dueTime, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Assigns the task to the suitable chef with the fewest open tasks, then the fewest estimated
+     * prep minutes outstanding. Returns the chef's name, or null if no chef can take the meal.
+     */
+    public String autoAssignTask(String orderId, String mealName) {
+        return autoAssignTask(orderId, mealName, null);
+    }
+
+    public String autoAssignTask(String orderId, String mealName, String dueTime) {
+        refreshLoadBoard();
+        int prepMinutes = prepTimeEstimator.applyAsInt(mealName);
+        String chefName = loadBoard.pickAndCharge(skillRules.ruleFor(mealName), () -> findSuitableChefs(mealName), prepMinutes);
+        if (chefName == null) {
+            System.err.println("Auto-assignment failed: no chef is suitable for " + mealName + ".");
+            return null;
+        }
+        boolean assigned;
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            assigned = assignTaskUnderLock(orderId, mealName, chefName, dueTime, false);
+        } finally {
+            lock.unlock();
+        }
+        if (!assigned) {
+            loadBoard.charge(chefName, -1, -prepMinutes);
+            return null;
+        }
+        return chefName;
+    }
+
+    /** Marks the chef's task completed, lowering the chef's workload. Returns false if there is no such open task. */
+    public boolean completeTask(String chefName, String taskId) {
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            Chef chef = chefRepository.findChefByName(chefName);
+            if (chef == null) {
+                System.err.println("Cannot complete task: Chef " + chefName + " not found.");
+                return false;
+            }
+            KitchenTask task = chef.getTask(taskId);
+            if (task == null || !task.isOpen()) {
+                return false;
+            }
+            applyStatusUnderLock(chef, task, "Completed");
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels an open task that will not be cooked, taking it off the chef's workload and the
+     * task board. Returns false if no chef holds the task or it is already closed.
+     */
+    public boolean cancelTask(String taskId) {
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        updateIndexedTask(taskId, (chef, task) -> {
+            if (task.isOpen()) {
+                applyStatusUnderLock(chef, task, "Cancelled");
+                cancelled.set(true);
+            }
+        });
+        return cancelled.get();
+    }
+
+    /**
+     * Moves a task to {@code newStatus}, finding its chef through the kitchen-wide task index.
+     * Completing a task (or reopening one) adjusts the chef's workload. Returns false if no chef holds the task.
+     */
+    public boolean updateTaskStatus(String taskId, String newStatus) {
+        return updateIndexedTask(taskId, (chef, task) -> applyStatusUnderLock(chef, task, newStatus));
+    }
+
+    /** Moves an assigned task to a new due time (or takes it off the task board when null). */
+    public boolean setTaskDueTime(String taskId, String dueTime) {
+        return updateIndexedTask(taskId, (chef, task) -> {
+            task.setDueTime(dueTime);
+            chefRepository.saveTask(chef, task);
+            taskBoard.schedule(task);
+        });
+    }
+
+    private boolean updateIndexedTask(String taskId, BiConsumer<Chef, KitchenTask> change) {
+        KitchenTask indexed = chefRepository.findTaskById(taskId);
+        if (indexed == null || indexed.getAssignedChefName() == null) {
+            System.err.println("Cannot update task: Task " + taskId + " not found.");
+            return false;
+        }
+        String chefName = indexed.getAssignedChefName();
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            Chef chef = chefRepository.findChefByName(chefName);
+            KitchenTask task = chef == null ? null : chef.getTask(taskId);
+            if (task == null) {
+                System.err.println("Cannot update task: Task " + taskId + " is no longer assigned to " + chefName + ".");
+                return false;
+            }
+            change.accept(chef, task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Open tasks by due time: what each chef has coming up and what is already late. */
+    public KitchenTaskBoard getTaskBoard() {
+        return taskBoard;
+    }
+
+    /**
+     * Puts every chef's open tasks on the task board and starts ticking it in the background.
+     * Tasks assigned or changed through this service afterwards are kept on the board as they change.
+     */
+    public void startTaskBoard() {
+        chefLocks.lockAll();
+        try {
+            taskBoard.scheduleAll(chefRepository.getAllChefs());
+        } finally {
+            chefLocks.unlockAll();
+        }
+        taskBoard.start(TASK_BOARD_TICK_SECONDS);
+    }
+
+    public void stopTaskBoard() {
+        taskBoard.stop();
+    }
+
+    // Runs on the task board's ticker; the task may have been completed or reassigned since it was scheduled.
+    private void onTaskDue(KitchenTask task, KitchenTaskBoard.Stage stage) {
+        String chefName = task.getAssignedChefName();
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            Chef chef = chefRepository.findChefByName(chefName);
+            KitchenTask current = chef == null ? null : chef.getTask(task.getTaskId());
+            if (current != task) {
+                return;
+            }
+            if (!task.isOpen()) {
+                taskBoard.unschedule(task.getTaskId());
+            } else if (stage == KitchenTaskBoard.Stage.UPCOMING) {
+                notifyChef(chef, "Task due soon: Prepare " + task.getMealName() + " for " + task.getTaskId() + " by " + task.getDueTime() + ".");
+            } else {
+                notifyChef(chef, "Task overdue: " + task.getMealName() + " for " + task.getTaskId() + " was due at " + task.getDueTime() + ".");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // An order's task is created under the order's id; see assignTaskUnderLock.
+    private static String orderIdOf(KitchenTask task) {
+        return task.getTaskId();
+    }
+
+    public KitchenTask findTask(String taskId) {
+        return chefRepository.findTaskById(taskId);
+    }
+
+    private void applyStatusUnderLock(Chef chef, KitchenTask task, String newStatus) {
+        boolean wasOpen = task.isOpen();
+        task.setStatus(newStatus);
+        if (wasOpen != task.isOpen()) {
+            updateChefWorkload(chef, task.isOpen());
+            int prepMinutes = prepTimeEstimator.applyAsInt(task.getMealName());
+            loadBoard.charge(chef.getName(), task.isOpen() ? 1 : -1, task.isOpen() ? prepMinutes : -prepMinutes);
+        }
+        chefRepository.saveTask(chef, task);
+        if (!task.isOpen()) {
+            taskBoard.unschedule(task.getTaskId());
+            if (wasOpen && task.isCompleted()) {
+                orderCompletionListener.accept(orderIdOf(task));
+            }
+        } else if (!wasOpen) {
+            taskBoard.schedule(task);
+        }
+    }
+
+    // Recounts open work from scratch whenever the brigade or its skills changed since the last count.
+    private void refreshLoadBoard() {
+        long version = chefRepository.getSkillIndexVersion();
+        if (loadBoard.isCurrent(version)) {
+            return;
+        }
+        // Holding every stripe keeps all chefs still while their open tasks are counted.
+        chefLocks.lockAll();
+        try {
+            version = chefRepository.getSkillIndexVersion();
+            if (!loadBoard.isCurrent(version)) {
+                loadBoard.rebuild(version, chefRepository.getAllChefs(), prepTimeEstimator);
+            }
+        } finally {
+            chefLocks.unlockAll();
+        }
+    }
+
+    private boolean assignTaskUnderLock(String orderId, String mealName, String chefName, String dueTime, boolean chargeLoad) {
         Chef chef = chefRepository.findChefByName(chefName);
         if (chef == null) {
             System.err.println("Cannot assign task: Chef " + chefName + " not found.");
@@ -19,6 +269,7 @@ public class KitchenManagementService {
         }
 
         KitchenTask task = new KitchenTask(orderId, mealName);
+        task.setDueTime(dueTime);
 
         if (!isChefSuitableForTask(task, chef)) {
             System.err.println("Assignment failed: Chef " + chefName + " is not suitable for " + mealName + " based on expertise. Chef expertise: " + chef.getExpertise());
@@ -27,33 +278,39 @@ public class KitchenManagementService {
 
         task.setAssignedChefName(chefName);
         task.setStatus("Assigned");
-        chef.addTask(task);
+        boolean added = chef.addTask(task);
+        if (!added && chef.getTask(orderId) == null) {
+            System.err.println("Assignment failed: task " + orderId + " is already assigned to another chef.");
+            return false;
+        }
         updateChefWorkload(chef, true);
         notifyChef(chef, "New task assigned: Prepare " + mealName + " for " + orderId + ".");
 
-        chefRepository.updateChef(chef);
+        chefRepository.saveTask(chef, chef.getTask(orderId));
+        if (added) {
+            taskBoard.schedule(task);
+        }
+        // Re-assigning a task the chef already holds adds no work; undo the auto-assign pre-charge.
+        if (added && chargeLoad) {
+            loadBoard.charge(chefName, 1, prepTimeEstimator.applyAsInt(mealName));
+        } else if (!added && !chargeLoad) {
+            loadBoard.charge(chefName, -1, -prepTimeEstimator.applyAsInt(mealName));
+        }
         return true;
     }
 
     public boolean isChefSuitableForTask(KitchenTask task, Chef chef) {
         if (chef == null || task == null) return false;
-        List<String> chefExpertise = chef.getExpertise();
-        if (chefExpertise == null) chefExpertise = new ArrayList<>();
-
-        String mealNameLower = task.getMealName().toLowerCase();
-        List<String> chefExpertiseLower = chefExpertise.stream().map(String::toLowerCase).collect(Collectors.toList());
+        return skillRules.ruleFor(task.getMealName()).isSatisfiedBy(chef);
+    }
 
-        if (mealNameLower.contains("steak")) {
-            return chefExpertiseLower.contains("grilling") || chefExpertiseLower.contains("meats");
-        }
-        if (mealNameLower.contains("spaghetti") || mealNameLower.contains("pasta") || mealNameLower.contains("carbonara")) {
-            return chefExpertiseLower.contains("italian") || chefExpertiseLower.contains("pastas");
-        }
-        if (mealNameLower.contains("pizza")) {
-            return chefExpertiseLower.contains("italian") || chefExpertiseLower.contains("baking") || !chefExpertiseLower.isEmpty();
+    /** Every chef whose skills satisfy the rule for {@code mealName}, looked up in the skill index. */
+    public List<Chef> findSuitableChefs(String mealName) {
+        SkillRules.Rule rule = skillRules.ruleFor(mealName);
+        if (rule.isUnrestricted()) {
+            return chefRepository.getAllChefs();
         }
-
-        return true;
+        return chefRepository.findChefsWithSkills(rule.getSkills(), rule.acceptsAnySkill());
     }
 
     private void updateChefWorkload(Chef chef, boolean taskAdded) {
@@ -73,17 +330,25 @@ public class KitchenManagementService {
         }
     }
 
+    /** Appends to the chef's notification outbox; the chef record itself is neither changed nor saved. */
     public void notifyChef(Chef chef, String message) {
+        chef.bindNotificationOutbox(chefRepository.getNotificationOutbox());
         chef.addNotification(message);
         System.out.println("Notification for " + chef.getName() + ": " + message);
     }
 
     public List<KitchenTask> getChefTasks(String chefName) {
-        Chef chef = chefRepository.findChefByName(chefName);
-        if (chef != null) {
-            return chef.getAssignedTasks();
+        ReentrantLock lock = chefLocks.lockFor(chefName);
+        lock.lock();
+        try {
+            Chef chef = chefRepository.findChefByName(chefName);
+            if (chef != null) {
+                return chef.getAssignedTasks();
+            }
+            return new ArrayList<>();
+        } finally {
+            lock.unlock();
         }
-        return new ArrayList<>();
     }
 
     public Chef getChefDetails(String chefName){
@@ -0,0 +1,70 @@
+package healthy.com;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Places orders with the kitchen: the stock for the meal is reserved in the
+ * {@link StockReservationLedger} before the order's task is assigned, committed once the
+ * kitchen completes the task, and released if no chef takes the order or it is cancelled.
+ * While the order's task is open its hold is extended rather than timed out.
+ */
+public class KitchenOrderService {
+    private final KitchenManagementService kitchenManagementService;
+    private final StockReservationLedger stockReservationLedger;
+    private final Function<String, Map<String, Integer>> ingredientsForMeal;
+
+    /** {@code ingredientsForMeal} gives the quantity of each ingredient one serving of a meal uses. */
+    public KitchenOrderService(KitchenManagementService kitchenManagementService,
+                               StockReservationLedger stockReservationLedger,
+                               Function<String, Map<String, Integer>> ingredientsForMeal) {
+        this.kitchenManagementService = kitchenManagementService;
+        this.stockReservationLedger = stockReservationLedger;
+        this.ingredientsForMeal = ingredientsForMeal;
+        kitchenManagementService.setOrderCompletionListener(stockReservationLedger::commit);
+        stockReservationLedger.setOrderInProgressCheck(orderId -> {
+            KitchenTask task = kitchenManagementService.findTask(orderId);
+            return task != null && task.isOpen();
+        });
+    }
+
+    /**
+     * Reserves the meal's ingredients for the order and assigns its task to {@code chefName}, or
+     * to the least busy suitable chef when that is null. Returns the chef's name, or null, holding
+     * no stock, if the ingredients are short or no chef takes the task. A meal with no known
+     * ingredients holds no stock.
+     */
+    public String placeOrder(String orderId, String mealName, String chefName, String dueTime) {
+        Map<String, Integer> quantities = ingredientsForMeal.apply(mealName);
+        if (quantities == null) {
+            quantities = Collections.emptyMap();
+        }
+        if (!quantities.isEmpty() && !stockReservationLedger.reserve(orderId, quantities)) {
+            System.err.println("Cannot place order " + orderId + ": not enough stock for " + mealName + ".");
+            return null;
+        }
+        String assignedChef;
+        if (chefName == null) {
+            assignedChef = kitchenManagementService.autoAssignTask(orderId, mealName, dueTime);
+        } else {
+            assignedChef = kitchenManagementService.assignTaskToChef(orderId, mealName, chefName, dueTime) ? chefName : null;
+        }
+        if (assignedChef == null && !quantities.isEmpty()) {
+            stockReservationLedger.release(orderId);
+        }
+        return assignedChef;
+    }
+
+    /**
+     * Cancels the order's kitchen task, taking it off its chef's workload and the task board, then
+     * puts back the stock held for it. Returns false if the order had neither an open task nor
+     * reserved stock, e.g. because it was already cooked.
+     */
+    public boolean cancelOrder(String orderId) {
+        boolean taskCancelled = kitchenManagementService.findTask(orderId) != null
+                && kitchenManagementService.cancelTask(orderId);
+        boolean stockReleased = stockReservationLedger.release(orderId);
+        return taskCancelled || stockReleased;
+    }
+}
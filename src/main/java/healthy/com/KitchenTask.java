@@ -45,6 +45,15 @@ public class KitchenTask {
         this.status = status;
     }
 
+    /** Every task counts as outstanding work until it is completed or cancelled. */
+    public boolean isOpen() {
+        return !isCompleted() && !"Cancelled".equalsIgnoreCase(status);
+    }
+
+    public boolean isCompleted() {
+        return "Completed".equalsIgnoreCase(status);
+    }
+
     public String getDueTime() {
         return dueTime;
     }
@@ -53,6 +62,14 @@ public class KitchenTask {
         this.dueTime = dueTime;
     }
 
+    /** Takes every field but the id from {@code stored}, so holders of this instance see a reloaded task. */
+    void reloadFrom(KitchenTask stored) {
+        this.mealName = stored.mealName;
+        this.assignedChefName = stored.assignedChefName;
+        this.status = stored.status;
+        this.dueTime = stored.dueTime;
+    }
+
     @Override
     public String toString() {
         return mealName + " for " + taskId + (dueTime != null ? " (Due: " + dueTime + ")" : "");
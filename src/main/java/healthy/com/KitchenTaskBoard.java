@@ -0,0 +1,295 @@
+package healthy.com;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Open kitchen tasks arranged by due time on a timing wheel of one-minute slots. Each tick
+ * visits only the slot for the minute that just passed, so the cost of a tick depends on the
+ * tasks falling due in that minute and not on how many tasks are open. A task first becomes
+ * upcoming when it enters the lead window before its due time and then overdue once that time
+ * passes; both changes are handed to the listener and show up in the per-chef views.
+ *
+ * <p>Due times are either a time of day ({@code 18:30}) or a full ISO date-time. A time of day
+ * means its occurrence nearest the board's clock, so {@code 00:15} set at 23:50 is due tomorrow
+ * and {@code 18:30} seen at 19:00 is half an hour overdue. Tasks without a readable due time
+ * are not scheduled.
+ */
+public class KitchenTaskBoard {
+    private static final Logger LOGGER = Logger.getLogger(KitchenTaskBoard.class.getName());
+    // 2048 minutes covers more than a day; tasks due further out stay in their slot for extra turns.
+    private static final int WHEEL_SLOTS = 2048;
+    private static final int SLOT_MASK = WHEEL_SLOTS - 1;
+    public static final int DEFAULT_LEAD_MINUTES = 30;
+
+    public enum Stage { UPCOMING, OVERDUE }
+
+    private static final class Entry {
+        private final KitchenTask task;
+        private final String chefName;
+        private final long dueMinute;
+        private long fireMinute;
+        private Stage nextStage;
+        private boolean cancelled;
+
+        private Entry(KitchenTask task, String chefName, long dueMinute) {
+            this.task = task;
+            this.chefName = chefName;
+            this.dueMinute = dueMinute;
+        }
+    }
+
+    private final Clock clock;
+    private final int leadMinutes;
+    private final BiConsumer<KitchenTask, Stage> listener;
+    private final List<List<Entry>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    // Entries that were already due when scheduled; they fire on the next tick.
+    private final List<Entry> dueNow = new ArrayList<>();
+    private final Map<String, Entry> entriesByTaskId = new HashMap<>();
+    private final Map<String, Map<String, KitchenTask>> upcomingByChef = new HashMap<>();
+    private final Map<String, Map<String, KitchenTask>> overdueByChef = new HashMap<>();
+    private long currentMinute;
+    private ScheduledExecutorService ticker;
+
+    public KitchenTaskBoard(Clock clock, int leadMinutes, BiConsumer<KitchenTask, Stage> listener) {
+        this.clock = clock;
+        this.leadMinutes = Math.max(0, leadMinutes);
+        this.listener = listener;
+        this.currentMinute = toMinute(LocalDateTime.now(clock));
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /** Reads a stored due time as seen at {@code now}; returns null for a missing or unreadable one. */
+    static LocalDateTime parseDueTime(String dueTime, LocalDateTime now) {
+        if (dueTime == null || dueTime.isBlank() || "null".equals(dueTime.trim())) {
+            return null;
+        }
+        String value = dueTime.trim();
+        try {
+            return nearestOccurrence(LocalTime.parse(value), now);
+        } catch (DateTimeParseException notTimeOfDay) {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                LOGGER.log(Level.WARNING, "Ignoring unreadable due time: {0}", dueTime);
+                return null;
+            }
+        }
+    }
+
+    // Today's, tomorrow's or yesterday's, whichever is within twelve hours of now.
+    private static LocalDateTime nearestOccurrence(LocalTime timeOfDay, LocalDateTime now) {
+        LocalDateTime due = now.toLocalDate().atTime(timeOfDay);
+        if (due.isBefore(now.minusHours(12))) {
+            return due.plusDays(1);
+        }
+        if (due.isAfter(now.plusHours(12))) {
+            return due.minusDays(1);
+        }
+        return due;
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Places an open task on the board, replacing any earlier entry under the same task id.
+     * A task whose lead window has already started is reported as upcoming on the next tick,
+     * and one already past its due time as overdue.
+     */
+    public synchronized void schedule(KitchenTask task) {
+        schedule(task, true);
+    }
+
+    /**
+     * Loads the open tasks of every chef, e.g. at start-up. Tasks already past their due time
+     * go straight to the overdue view without a notification, since they may have been
+     * reported before the application last stopped.
+     */
+    public synchronized void scheduleAll(Collection<Chef> chefs) {
+        for (Chef chef : chefs) {
+            for (KitchenTask task : chef.getAssignedTasksView()) {
+                schedule(task, false);
+            }
+        }
+    }
+
+    private void schedule(KitchenTask task, boolean reportPastDue) {
+        unschedule(task.getTaskId());
+        if (!task.isOpen() || task.getAssignedChefName() == null) {
+            return;
+        }
+        LocalDateTime due = parseDueTime(task.getDueTime(), LocalDateTime.now(clock));
+        if (due == null) {
+            return;
+        }
+        Entry entry = new Entry(task, task.getAssignedChefName(), toMinute(due));
+        entriesByTaskId.put(task.getTaskId(), entry);
+        if (!reportPastDue && entry.dueMinute <= currentMinute) {
+            view(overdueByChef, entry.chefName).put(task.getTaskId(), task);
+            return;
+        }
+        entry.nextStage = Stage.UPCOMING;
+        place(entry, entry.dueMinute - leadMinutes);
+    }
+
+    /** Takes the task off the board and out of the per-chef views, e.g. once it is completed. */
+    public synchronized void unschedule(String taskId) {
+        Entry entry = entriesByTaskId.remove(taskId);
+        if (entry == null) {
+            return;
+        }
+        // The wheel slot drops the entry the next time it is visited.
+        entry.cancelled = true;
+        removeFromView(upcomingByChef, entry.chefName, taskId);
+        removeFromView(overdueByChef, entry.chefName, taskId);
+    }
+
+    private void place(Entry entry, long fireMinute) {
+        entry.fireMinute = fireMinute;
+        if (fireMinute <= currentMinute) {
+            dueNow.add(entry);
+        } else {
+            wheel.get((int) (fireMinute & SLOT_MASK)).add(entry);
+        }
+    }
+
+    /** Advances the board to the clock's current minute. */
+    public void tick() {
+        advanceTo(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Visits every minute slot between the last tick and {@code now}, moving tasks whose time
+     * came to the upcoming or overdue view, then reports them to the listener outside the
+     * board's lock so the listener may call back into the board.
+     */
+    public void advanceTo(LocalDateTime now) {
+        List<Entry> fired = new ArrayList<>();
+        List<Stage> stages = new ArrayList<>();
+        synchronized (this) {
+            long target = toMinute(now);
+            List<Entry> ready = new ArrayList<>(dueNow);
+            dueNow.clear();
+            // After a long pause one full turn of the wheel already visits every slot once.
+            long from = Math.max(currentMinute + 1, target - WHEEL_SLOTS + 1);
+            for (long minute = from; minute <= target; minute++) {
+                collectSlot(wheel.get((int) (minute & SLOT_MASK)), target, ready);
+            }
+            currentMinute = Math.max(currentMinute, target);
+            for (Entry entry : ready) {
+                if (entry.cancelled) {
+                    continue;
+                }
+                Stage stage = advance(entry);
+                fired.add(entry);
+                stages.add(stage);
+            }
+        }
+        for (int i = 0; i < fired.size(); i++) {
+            try {
+                listener.accept(fired.get(i).task, stages.get(i));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error reporting due task " + fired.get(i).task.getTaskId(), e);
+            }
+        }
+    }
+
+    // Moves entries due by the target minute out of the slot, keeping those for later turns.
+    private static void collectSlot(List<Entry> slot, long target, List<Entry> ready) {
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            Entry entry = slot.get(i);
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.fireMinute <= target) {
+                ready.add(entry);
+            } else {
+                slot.set(kept++, entry);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+    }
+
+    private Stage advance(Entry entry) {
+        String taskId = entry.task.getTaskId();
+        if (entry.nextStage == Stage.UPCOMING && entry.dueMinute > currentMinute) {
+            view(upcomingByChef, entry.chefName).put(taskId, entry.task);
+            entry.nextStage = Stage.OVERDUE;
+            place(entry, entry.dueMinute);
+            return Stage.UPCOMING;
+        }
+        removeFromView(upcomingByChef, entry.chefName, taskId);
+        view(overdueByChef, entry.chefName).put(taskId, entry.task);
+        entry.nextStage = null;
+        return Stage.OVERDUE;
+    }
+
+    private static Map<String, KitchenTask> view(Map<String, Map<String, KitchenTask>> views, String chefName) {
+        return views.computeIfAbsent(chefName, name -> new LinkedHashMap<>());
+    }
+
+    private static void removeFromView(Map<String, Map<String, KitchenTask>> views, String chefName, String taskId) {
+        Map<String, KitchenTask> tasks = views.get(chefName);
+        if (tasks != null && tasks.remove(taskId) != null && tasks.isEmpty()) {
+            views.remove(chefName);
+        }
+    }
+
+    /** The chef's open tasks due within the lead window, in the order they entered it. */
+    public synchronized List<KitchenTask> getUpcomingTasks(String chefName) {
+        return copyOf(upcomingByChef.get(chefName));
+    }
+
+    /** The chef's open tasks past their due time, in the order they became overdue. */
+    public synchronized List<KitchenTask> getOverdueTasks(String chefName) {
+        return copyOf(overdueByChef.get(chefName));
+    }
+
+    public synchronized int getOverdueCount(String chefName) {
+        Map<String, KitchenTask> tasks = overdueByChef.get(chefName);
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    public synchronized int getScheduledCount() {
+        return entriesByTaskId.size();
+    }
+
+    private static List<KitchenTask> copyOf(Map<String, KitchenTask> tasks) {
+        return tasks == null ? Collections.emptyList() : new ArrayList<>(tasks.values());
+    }
+
+    /** Ticks on a background daemon thread every {@code periodSeconds} until {@link #stop()}. */
+    public synchronized void start(long periodSeconds) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = BackgroundTasks.runPeriodically("kitchen-task-board", periodSeconds, periodSeconds,
+                this::tick, "Error advancing kitchen task board");
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package healthy.com;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 // import java.util.Arrays; // Unused import
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -22,6 +28,8 @@ public class Main {
     private static KitchenManagementService kitchenManagementService;
     private static ChefRepository chefRepository;
     private static InventoryService inventoryService;
+    private static StockReservationLedger stockReservationLedger;
+    private static KitchenOrderService kitchenOrderService;
     private static SupplierRepository supplierRepository;
     private static PurchasingService purchasingService;
     private static RecipeRepository recipeRepository;
@@ -30,21 +38,49 @@ public class Main {
     private static CustomerRepository customerRepository; // Added static field
     private static OrderRepository orderRepository;       // Added static field
 
-    private static final Scanner scanner = new Scanner(System.in);
-    private static String loggedInUserEmail = null;
-    private static String loggedInUserRole = null;
+    private static final int DEFAULT_SERVER_PORT = 5050;
 
-    public static void main(String[] args) {
+    // Per-session state: the console run by main() is one session, each SessionServer connection another.
+    private final Scanner scanner;
+    private final PrintStream out;
+    private String loggedInUserEmail = null;
+    private String loggedInUserRole = null;
+
+    Main(InputStream in, PrintStream out) {
+        this.scanner = new Scanner(in, StandardCharsets.UTF_8);
+        this.out = out;
+    }
+
+    /** Runs the console on standard input, or with {@code --serve [port]} serves sessions over TCP instead. */
+    public static void main(String[] args) throws IOException {
         initializeServices();
-        System.out.println("Welcome to the Special Cook Project Management System!");
+        if (args.length > 0 && "--serve".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT;
+            new SessionServer(port, (in, out) -> new Main(in, out).run()).serve();
+            return;
+        }
+        new Main(System.in, System.out).run();
+    }
+
+    /** Serves one user until they exit or their input ends. */
+    void run() {
+        out.println("Welcome to the Special Cook Project Management System!");
+        try {
+            runMenu();
+        } catch (NoSuchElementException inputClosed) {
+            // The user disconnected (or stdin ended) mid-prompt; nothing is left to serve.
+        }
+        scanner.close();
+    }
 
+    private void runMenu() {
         boolean running = true;
         while (running) {
             printMainMenu();
             int choice = getInputInt();
 
             if (loggedInUserEmail == null && choice != 1 && choice != 0 && choice != 7) {
-                System.out.println("Please login first or choose option 7 for recipe recommendation.");
+                out.println("Please login first or choose option 7 for recipe recommendation.");
                 continue;
             }
 
@@ -75,18 +111,19 @@ public class Main {
                     break;
                 case 0:
                     running = false;
-                    System.out.println("Exiting application. Goodbye!");
+                    out.println("Exiting application. Goodbye!");
                     break;
                 default:
-                    System.out.println("Invalid choice. Please try again.");
+                    out.println("Invalid choice. Please try again.");
             }
         }
-        scanner.close();
     }
 
     private static void initializeServices() {
         customerRepository = new CustomerRepository();
-        orderRepository = new OrderRepository();
+        // -Dorders.readMode=MEMORY_MAPPED for large order histories.
+        orderRepository = new OrderRepository(
+                OrderRepository.ReadMode.fromName(System.getProperty("orders.readMode")));
         ingredientRepository = new IngredientRepository();
         chefRepository = new ChefRepository();
         supplierRepository = new SupplierRepository();
@@ -96,14 +133,35 @@ public class Main {
         orderService = new OrderService(orderRepository, customerRepository);
         customMealService = new CustomMealService(ingredientRepository, customerService);
         kitchenManagementService = new KitchenManagementService(chefRepository);
+        Map<String, Integer> prepMinutesByMeal = new HashMap<>();
+        recipeRepository.getAllRecipes().forEach(recipe -> prepMinutesByMeal.put(recipe.getName(), recipe.getTimeMinutes()));
+        kitchenManagementService.setPrepTimeEstimator(
+                mealName -> prepMinutesByMeal.getOrDefault(mealName, KitchenManagementService.DEFAULT_PREP_MINUTES));
+        kitchenManagementService.startTaskBoard();
         inventoryService = new InventoryService(ingredientRepository);
+        stockReservationLedger = new StockReservationLedger(inventoryService);
+        stockReservationLedger.start(60);
+        // Recipes list their ingredients without amounts, so an order holds one unit of each that is stocked.
+        Map<String, Set<String>> ingredientsByMeal = new HashMap<>();
+        recipeRepository.getAllRecipes().forEach(recipe -> ingredientsByMeal.put(recipe.getName(), recipe.getIngredients()));
+        kitchenOrderService = new KitchenOrderService(kitchenManagementService, stockReservationLedger, mealName -> {
+            Map<String, Integer> quantities = new HashMap<>();
+            for (String ingredient : ingredientsByMeal.getOrDefault(mealName, Collections.emptySet())) {
+                if (inventoryService.getIngredientStock(ingredient) != null) {
+                    quantities.put(ingredient, 1);
+                }
+            }
+            return quantities;
+        });
 
         Map<String, IngredientSupplierLink> initialLinks = new HashMap<>();
-        purchasingService = new PurchasingService(ingredientRepository, supplierRepository, initialLinks);
+        purchasingService = new PurchasingService(ingredientRepository, supplierRepository,
+                new PurchaseOrderRepository(PurchaseOrderRepository.DEFAULT_DATA_FILE), initialLinks);
+        purchasingService.startAutoReorder(PurchasingService.DEFAULT_REORDER_SWEEP_SECONDS);
         recipeSuggestionService = new RecipeSuggestionService(recipeRepository);
     }
 
-    private static void handleOptionTwo() {
+    private void handleOptionTwo() {
         if ("customer".equals(loggedInUserRole)) {
             manageDietaryInfo(loggedInUserEmail);
         } else if ("admin".equals(loggedInUserRole)) {
@@ -112,12 +170,12 @@ public class Main {
             viewCustomerDietaryInfoAsChef();
         }
         else {
-            System.out.println("Invalid option for your role or not logged in.");
+            out.println("Invalid option for your role or not logged in.");
             loginOrPrompt();
         }
     }
 
-    private static void handleOptionThree() {
+    private void handleOptionThree() {
         if ("customer".equals(loggedInUserRole)) {
             viewPastOrders(loggedInUserEmail);
         } else if ("admin".equals(loggedInUserRole)) {
@@ -126,12 +184,12 @@ public class Main {
             assignTaskToChefConsole();
         }
         else {
-            System.out.println("Invalid option for your role or not logged in.");
+            out.println("Invalid option for your role or not logged in.");
             loginOrPrompt();
         }
     }
 
-    private static void handleOptionFour() {
+    private void handleOptionFour() {
         if ("customer".equals(loggedInUserRole)) {
             createCustomMealConsole();
         } else if ("admin".equals(loggedInUserRole)) {
@@ -140,96 +198,96 @@ public class Main {
             viewMyTasksAsChef();
         }
         else {
-            System.out.println("Invalid option for your role or not logged in.");
+            out.println("Invalid option for your role or not logged in.");
             loginOrPrompt();
         }
     }
 
-    private static void handleOptionFive() {
+    private void handleOptionFive() {
         if ("customer".equals(loggedInUserRole)) {
             requestInvoiceConsole();
         } else if ("admin".equals(loggedInUserRole)) {
             manageInventoryConsole();
         }
         else {
-            System.out.println("Invalid option for your role or not logged in.");
+            out.println("Invalid option for your role or not logged in.");
             loginOrPrompt();
         }
     }
 
-    private static void handleOptionSix() {
+    private void handleOptionSix() {
         if ("admin".equals(loggedInUserRole)) {
             manageSuppliersConsole();
         } else {
-            System.out.println("This option is for Administrators only.");
+            out.println("This option is for Administrators only.");
             loginOrPrompt();
         }
     }
 
-    private static void loginOrPrompt(){
+    private void loginOrPrompt(){
         if (loggedInUserEmail == null) {
-            // System.out.println("No user logged in. Please login first."); // Message might be redundant if called after another message
+            // out.println("No user logged in. Please login first."); // Message might be redundant if called after another message
             manageUserLogin();
         }
     }
 
 
-    private static int getInputInt() {
+    private int getInputInt() {
         int choice = -1; // Initializer is not redundant if loop doesn't execute
         while (!scanner.hasNextInt()) {
-            System.out.println("Invalid input. Please enter a number.");
+            out.println("Invalid input. Please enter a number.");
             scanner.nextLine();
-            System.out.print("Enter your choice: ");
+            out.print("Enter your choice: ");
         }
         choice = scanner.nextInt();
         scanner.nextLine();
         return choice;
     }
 
-    private static void printMainMenu() {
-        System.out.println("\n--- Main Menu ---");
+    private void printMainMenu() {
+        out.println("\n--- Main Menu ---");
         if (loggedInUserEmail == null) {
-            System.out.println("1. Login (Customer/Chef/Admin)");
+            out.println("1. Login (Customer/Chef/Admin)");
         } else {
-            System.out.println("Logged in as: " + loggedInUserEmail + " (" + loggedInUserRole + ")");
+            out.println("Logged in as: " + loggedInUserEmail + " (" + loggedInUserRole + ")");
             switch (loggedInUserRole) {
                 case "customer":
-                    System.out.println("2. Manage My Dietary Info");
-                    System.out.println("3. View My Past Orders");
-                    System.out.println("5. Create Custom Meal");
+                    out.println("2. Manage My Dietary Info");
+                    out.println("3. View My Past Orders");
+                    out.println("5. Create Custom Meal");
                     // Add option for Request Invoice if needed, adjust numbering
                     break;
                 case "chef":
-                    System.out.println("2. View Customer Dietary Info");
-                    System.out.println("3. Assign Task to Chef (Simulated)");
-                    System.out.println("4. View My Assigned Tasks");
+                    out.println("2. View Customer Dietary Info");
+                    out.println("3. Assign Task to Chef (Simulated)");
+                    out.println("4. View My Assigned Tasks");
                     break;
                 case "admin":
-                    System.out.println("2. Generate Monthly Revenue Report");
-                    System.out.println("3. Generate Overall Revenue Report");
-                    System.out.println("4. View All Orders");
-                    System.out.println("5. Manage Inventory");
-                    System.out.println("6. Manage Suppliers");
+                    out.println("2. Generate Monthly Revenue Report");
+                    out.println("3. Generate Overall Revenue Report");
+                    out.println("4. View All Orders");
+                    out.println("5. Manage Inventory");
+                    out.println("6. Manage Suppliers");
                     break;
             }
-            System.out.println("7. Get Recipe Recommendation");
-            System.out.println("9. Logout");
+            out.println("7. Get Recipe Recommendation");
+            out.println("9. Logout");
         }
-        System.out.println("0. Exit");
-        System.out.print("Enter your choice: ");
+        out.println("0. Exit");
+        out.print("Enter your choice: ");
     }
 
-    private static void manageUserLogin() {
+    private void manageUserLogin() {
         if (loggedInUserEmail != null) {
-            System.out.println("You are already logged in as " + loggedInUserEmail + ". Please logout first or choose another option.");
+            out.println("You are already logged in as " + loggedInUserEmail + ". Please logout first or choose another option.");
             return;
         }
-        System.out.println("\n--- Login As ---");
-        System.out.println("1. Customer");
-        System.out.println("2. Chef");
-        System.out.println("3. Administrator");
-        System.out.println("0. Back to Main Menu");
-        System.out.print("Enter your role choice: ");
+        out.println("\n--- Login As ---");
+        out.println("1. Customer");
+        out.println("2. Chef");
+        out.println("3. Administrator");
+        out.println("0. Back to Main Menu");
+        out.print("Enter your role choice: ");
         int roleChoice = getInputInt();
 
         switch (roleChoice) {
@@ -245,40 +303,40 @@ public class Main {
             case 0:
                 return;
             default:
-                System.out.println("Invalid role choice.");
+                out.println("Invalid role choice.");
         }
     }
 
-    private static void loginCustomer() {
-        System.out.print("Enter your email to login/register as Customer: ");
+    private void loginCustomer() {
+        out.print("Enter your email to login/register as Customer: ");
         String email = scanner.nextLine();
         if (email.trim().isEmpty()){
-            System.out.println("Email cannot be empty.");
+            out.println("Email cannot be empty.");
             return;
         }
         Customer customer = customerService.registerOrGetCustomer(email);
         if (customer != null) {
             loggedInUserEmail = customer.getEmail();
             loggedInUserRole = "customer";
-            System.out.println("Logged in as Customer: " + loggedInUserEmail);
+            out.println("Logged in as Customer: " + loggedInUserEmail);
         } else {
-            System.out.println("Customer Login/Registration failed.");
+            out.println("Customer Login/Registration failed.");
         }
     }
 
-    private static void loginChef() {
-        System.out.print("Enter Chef username to login (e.g., Chef Alice): ");
+    private void loginChef() {
+        out.print("Enter Chef username to login (e.g., Chef Alice): ");
         String chefName = scanner.nextLine();
         if (chefName.trim().isEmpty()){
-            System.out.println("Chef name cannot be empty.");
+            out.println("Chef name cannot be empty.");
             return;
         }
         Chef chef = chefRepository.findChefByName(chefName);
         if(chef == null) {
-            System.out.println("Chef " + chefName + " not found. Creating for session and saving to chefs.txt.");
-            System.out.print("Enter expertise for " + chefName + " (comma-separated, e.g., Italian,Pastas): ");
+            out.println("Chef " + chefName + " not found. Creating for session and saving to chefs.txt.");
+            out.print("Enter expertise for " + chefName + " (comma-separated, e.g., Italian,Pastas): ");
             String expertise = scanner.nextLine();
-            System.out.print("Enter initial workload for " + chefName + " (Low, Medium, High): ");
+            out.print("Enter initial workload for " + chefName + " (Low, Medium, High): ");
             String workload = scanner.nextLine();
             chef = new Chef(chefName, expertise, workload);
             chefRepository.saveChef(chef);
@@ -286,152 +344,147 @@ public class Main {
         chef.setLoggedIn(true);
         loggedInUserEmail = chef.getName();
         loggedInUserRole = "chef";
-        System.out.println("Logged in as Chef: " + loggedInUserEmail);
+        out.println("Logged in as Chef: " + loggedInUserEmail);
     }
 
-    private static void loginAdmin() {
-        System.out.print("Enter Admin username to login (e.g., AdminFinance): ");
+    private void loginAdmin() {
+        out.print("Enter Admin username to login (e.g., AdminFinance): ");
         String adminName = scanner.nextLine();
         if (adminName.trim().isEmpty()){
-            System.out.println("Admin name cannot be empty.");
+            out.println("Admin name cannot be empty.");
             return;
         }
         loggedInUserEmail = adminName;
         loggedInUserRole = "admin";
-        System.out.println("Logged in as Administrator: " + loggedInUserEmail);
+        out.println("Logged in as Administrator: " + loggedInUserEmail);
     }
 
-    private static void logoutUser() {
+    private void logoutUser() {
         if (loggedInUserEmail != null) {
-            System.out.println("Logging out " + loggedInUserEmail + "...");
+            out.println("Logging out " + loggedInUserEmail + "...");
             loggedInUserEmail = null;
             loggedInUserRole = null;
         } else {
-            System.out.println("No user is currently logged in.");
+            out.println("No user is currently logged in.");
         }
     }
 
-    private static void manageDietaryInfo(String email) {
+    private void manageDietaryInfo(String email) {
         boolean managing = true;
         while (managing) {
-            System.out.println("\n--- Dietary Info Menu for " + email + " ---");
-            System.out.println("1. Add Dietary Preference");
-            System.out.println("2. Add Allergy");
-            System.out.println("3. View Current Dietary Info");
-            System.out.println("0. Back");
-            System.out.print("Enter your choice: ");
+            out.println("\n--- Dietary Info Menu for " + email + " ---");
+            out.println("1. Add Dietary Preference");
+            out.println("2. Add Allergy");
+            out.println("3. View Current Dietary Info");
+            out.println("0. Back");
+            out.print("Enter your choice: ");
 
             int choice = getInputInt();
 
             switch (choice) {
                 case 1:
-                    System.out.print("Enter dietary preference to add: ");
+                    out.print("Enter dietary preference to add: ");
                     String preference = scanner.nextLine();
                     customerService.addDietaryPreference(email, preference);
-                    System.out.println("Dietary preference '" + preference + "' added.");
+                    out.println("Dietary preference '" + preference + "' added.");
                     break;
                 case 2:
-                    System.out.print("Enter allergy to add: ");
+                    out.print("Enter allergy to add: ");
                     String allergy = scanner.nextLine();
                     customerService.addAllergy(email, allergy);
-                    System.out.println("Allergy '" + allergy + "' added.");
+                    out.println("Allergy '" + allergy + "' added.");
                     break;
                 case 3:
                     Customer currentInfo = customerService.getCustomerDietaryInfo(email);
                     if (currentInfo != null) {
-                        System.out.println("Preferences: " + currentInfo.getDietaryPreferences());
-                        System.out.println("Allergies: " + currentInfo.getAllergies());
+                        out.println("Preferences: " + currentInfo.getDietaryPreferences());
+                        out.println("Allergies: " + currentInfo.getAllergies());
                     } else {
-                        System.out.println("Could not retrieve info for " + email);
+                        out.println("Could not retrieve info for " + email);
                     }
                     break;
                 case 0:
                     managing = false;
                     break;
                 default:
-                    System.out.println("Invalid choice. Please try again.");
+                    out.println("Invalid choice. Please try again.");
             }
         }
     }
 
-    private static void viewPastOrders(String customerEmail) {
-        System.out.println("\n--- Your Past Orders ---");
+    private void viewPastOrders(String customerEmail) {
+        out.println("\n--- Your Past Orders ---");
         List<Order> pastOrders = orderService.getPastOrdersForCustomer(customerEmail);
 
         if (pastOrders == null || pastOrders.isEmpty()) {
-            System.out.println("You have no past orders.");
+            out.println("You have no past orders.");
             return;
         }
 
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         for (Order order : pastOrders) {
-            System.out.println("\nOrder ID: " + order.getOrderId());
-            System.out.println("Date: " + order.getOrderDate().format(dateFormatter));
-            System.out.println("Status: " + order.getStatus());
-            System.out.println("Total: " + String.format("%.2f", order.getOrderTotalPrice()));
-            System.out.println("Items:");
+            out.println("\nOrder ID: " + order.getOrderId());
+            out.println("Date: " + order.getOrderDate().format(dateFormatter));
+            out.println("Status: " + order.getStatus());
+            out.println("Total: " + String.format("%.2f", order.getOrderTotalPrice()));
+            out.println("Items:");
             if (order.getItems().isEmpty()) {
-                System.out.println("  (No items listed for this order)");
+                out.println("  (No items listed for this order)");
             } else {
                 for (OrderItem item : order.getItems()) {
-                    System.out.println("  - " + item.getQuantity() + "x " + item.getMealName() +
+                    out.println("  - " + item.getQuantity() + "x " + item.getMealName() +
                             " (Unit Price: " + String.format("%.2f", item.getUnitPrice()) +
                             ", Item Total: " + String.format("%.2f", item.getItemTotalPrice()) + ")");
                 }
             }
         }
-        System.out.println("--- End of Past Orders ---");
+        out.println("--- End of Past Orders ---");
     }
 
-    private static void viewCustomerDietaryInfoAsChef() {
-        System.out.print("Enter customer email to view their dietary info: ");
+    private void viewCustomerDietaryInfoAsChef() {
+        out.print("Enter customer email to view their dietary info: ");
         String customerEmailToView = scanner.nextLine();
         Customer customerInfo = customerService.getCustomerDietaryInfo(customerEmailToView);
 
         if (customerInfo != null) {
-            System.out.println("\n--- Dietary Information for Customer: " + customerEmailToView + " ---");
-            System.out.println("Preferences: " + customerInfo.getDietaryPreferences());
-            System.out.println("Allergies: " + customerInfo.getAllergies());
+            out.println("\n--- Dietary Information for Customer: " + customerEmailToView + " ---");
+            out.println("Preferences: " + customerInfo.getDietaryPreferences());
+            out.println("Allergies: " + customerInfo.getAllergies());
             if (customerInfo.getDietaryPreferences().isEmpty() && customerInfo.getAllergies().isEmpty()) {
-                System.out.println("(No specific dietary information stored for this customer)");
+                out.println("(No specific dietary information stored for this customer)");
             }
-            System.out.println("--- End of Dietary Information ---");
+            out.println("--- End of Dietary Information ---");
         } else {
-            System.out.println("Customer with email '" + customerEmailToView + "' not found.");
+            out.println("Customer with email '" + customerEmailToView + "' not found.");
         }
     }
 
-    private static void generateMonthlyRevenueReport() {
-        System.out.print("Enter month and year for report (e.g., October 2023): ");
+    private void generateMonthlyRevenueReport() {
+        out.print("Enter month and year for report (e.g., October 2023): ");
         String monthYearStr = scanner.nextLine();
         try {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy");
             YearMonth targetMonthYear = YearMonth.parse(monthYearStr, formatter);
             double revenue = orderService.getTotalRevenueForMonth(targetMonthYear);
-            System.out.println("Total revenue for " + monthYearStr + ": " + String.format("%.2f", revenue));
-            if (revenue == 0.0) {
-                List<Order> ordersInMonth = orderService.getAllCompletedOrders().stream()
-                        .filter(order -> order.getOrderDate() != null && YearMonth.from(order.getOrderDate()).equals(targetMonthYear))
-                        .collect(Collectors.toList());
-                if(ordersInMonth.isEmpty()) {
-                    System.out.println("No sales were recorded for " + monthYearStr + ".");
-                }
+            out.println("Total revenue for " + monthYearStr + ": " + String.format("%.2f", revenue));
+            if (revenue == 0.0 && orderService.countCompletedOrdersForMonth(targetMonthYear) == 0) {
+                out.println("No sales were recorded for " + monthYearStr + ".");
             }
         } catch (DateTimeParseException e) {
-            System.out.println("Invalid date format. Please use 'MMMM yyyy' (e.g., October 2023). Error: " + e.getMessage());
+            out.println("Invalid date format. Please use 'MMMM yyyy' (e.g., October 2023). Error: " + e.getMessage());
         }
     }
 
-    private static void generateOverallRevenueReport() {
+    private void generateOverallRevenueReport() {
         double overallRevenue = orderService.getOverallTotalRevenue();
-        System.out.println("\n--- Overall Total Revenue ---");
-        System.out.println("Overall Total Revenue: " + String.format("%.2f", overallRevenue));
-        System.out.println("--- End of Report ---");
+        out.println("\n--- Overall Total Revenue ---");
+        out.println("Overall Total Revenue: " + String.format("%.2f", overallRevenue));
+        out.println("--- End of Report ---");
     }
 
-    private static void createCustomMealConsole() {
-        System.out.println("\n--- Create Custom Meal ---");
-        System.out.print("Enter a name for your custom meal: ");
+    private void createCustomMealConsole() {
+        out.println("\n--- Create Custom Meal ---");
+        out.print("Enter a name for your custom meal: ");
         String mealName = scanner.nextLine();
 
         CustomMealRequest mealRequest = customMealService.startCustomMeal(loggedInUserEmail, mealName);
@@ -439,89 +492,89 @@ public class Main {
 
         List<String> selectedIngredientNames = new ArrayList<>();
         boolean addingIngredients = true;
-        System.out.println("Available ingredients (type 'done' when finished):");
-        ingredientRepository.getAllIngredients().forEach(ing -> System.out.println("- " + ing.getName() + " (Price: " + String.format("%.2f", ing.getPrice()) + ", Tags: " + ing.getTags() + ")"));
+        out.println("Available ingredients (type 'done' when finished):");
+        ingredientRepository.getAllIngredients().forEach(ing -> out.println("- " + ing.getName() + " (Price: " + String.format("%.2f", ing.getPrice()) + ", Tags: " + ing.getTags() + ")"));
 
         while(addingIngredients) {
-            System.out.print("Add ingredient (or 'done'): ");
+            out.print("Add ingredient (or 'done'): ");
             String ingredientInput = scanner.nextLine();
             if ("done".equalsIgnoreCase(ingredientInput)) {
                 addingIngredients = false;
             } else {
                 Ingredient foundIngredient = ingredientRepository.findIngredientByName(ingredientInput);
                 if (foundIngredient == null) {
-                    System.out.println("Ingredient '" + ingredientInput + "' not found. Please choose from the list.");
+                    out.println("Ingredient '" + ingredientInput + "' not found. Please choose from the list.");
                     List<Ingredient> suggestions = customMealService.suggestAlternatives(ingredientInput, loggedInUserEmail);
                     if (suggestions != null && !suggestions.isEmpty()) {
-                        System.out.println("Did you mean one of these (or other alternatives)?");
-                        suggestions.forEach(s -> System.out.println("- " + s.getName()));
+                        out.println("Did you mean one of these (or other alternatives)?");
+                        suggestions.forEach(s -> out.println("- " + s.getName()));
                     }
                     continue;
                 }
 
                 if (customMealService.addIngredientToCustomMeal(mealRequest, ingredientInput)) {
                     selectedIngredientNames.add(ingredientInput);
-                    System.out.println(ingredientInput + " added.");
+                    out.println(ingredientInput + " added.");
                 } else {
-                    System.out.println("Failed to add " + ingredientInput + ". Reason: " + mealRequest.getFailureReason());
+                    out.println("Failed to add " + ingredientInput + ". Reason: " + mealRequest.getFailureReason());
                     List<Ingredient> suggestions = customMealService.suggestAlternatives(ingredientInput, loggedInUserEmail);
                     if(suggestions != null && !suggestions.isEmpty()){
-                        System.out.println("Available alternatives for " + ingredientInput + ":");
-                        suggestions.forEach(s -> System.out.println("- " + s.getName()));
+                        out.println("Available alternatives for " + ingredientInput + ":");
+                        suggestions.forEach(s -> out.println("- " + s.getName()));
                     }
                 }
             }
         }
 
         if (selectedIngredientNames.isEmpty()) {
-            System.out.println("No ingredients selected. Custom meal creation cancelled.");
+            out.println("No ingredients selected. Custom meal creation cancelled.");
             return;
         }
 
-        System.out.println("Finalizing custom meal...");
+        out.println("Finalizing custom meal...");
         mealRequest = customMealService.finalizeCustomMeal(mealRequest);
 
         if (mealRequest.isCreationSuccessful()) {
-            System.out.println("Custom meal '" + mealRequest.getMealName() + "' created successfully!");
-            System.out.println("Selected Ingredients: " + mealRequest.getSelectedIngredients().stream().map(Ingredient::getName).collect(Collectors.joining(", ")));
-            System.out.println("Total Price: " + String.format("%.2f", mealRequest.getTotalPrice()));
-            System.out.println("Meal Tags: " + mealRequest.getMealTags());
+            out.println("Custom meal '" + mealRequest.getMealName() + "' created successfully!");
+            out.println("Selected Ingredients: " + mealRequest.getSelectedIngredients().stream().map(Ingredient::getName).collect(Collectors.joining(", ")));
+            out.println("Total Price: " + String.format("%.2f", mealRequest.getTotalPrice()));
+            out.println("Meal Tags: " + mealRequest.getMealTags());
         } else {
-            System.out.println("Failed to create custom meal. Reason: " + mealRequest.getFailureReason());
+            out.println("Failed to create custom meal. Reason: " + mealRequest.getFailureReason());
         }
     }
 
-    private static void requestInvoiceConsole() {
-        System.out.print("Enter Order ID to get invoice: ");
+    private void requestInvoiceConsole() {
+        out.print("Enter Order ID to get invoice: ");
         String orderId = scanner.nextLine();
         Invoice invoice = orderService.generateInvoiceForOrder(orderId, loggedInUserEmail);
         if (invoice != null) {
-            System.out.println(invoice.toString());
+            out.println(invoice.toString());
         } else {
-            System.out.println("Could not generate invoice for order " + orderId + ".");
+            out.println("Could not generate invoice for order " + orderId + ".");
         }
     }
 
-    private static void viewAllOrdersAsAdmin() {
-        System.out.println("\n--- All Completed Orders ---");
+    private void viewAllOrdersAsAdmin() {
+        out.println("\n--- All Completed Orders ---");
         List<Order> allOrders = orderService.getAllCompletedOrders();
         if (allOrders.isEmpty()) {
-            System.out.println("No completed orders found in the system.");
+            out.println("No completed orders found in the system.");
             return;
         }
         for (Order order : allOrders) {
-            System.out.println(order.toString());
+            out.println(order.toString());
         }
-        System.out.println("--- End of All Orders ---");
+        out.println("--- End of All Orders ---");
     }
 
-    private static void manageInventoryConsole() {
-        System.out.println("\n--- Inventory Management (Admin) ---");
-        System.out.println("1. View All Ingredient Stock Levels");
-        System.out.println("2. View Ingredients Needing Restocking");
-        System.out.println("3. Use Ingredient (Simulate Order Fulfillment)");
-        System.out.println("0. Back to Main Menu");
-        System.out.print("Enter your choice: ");
+    private void manageInventoryConsole() {
+        out.println("\n--- Inventory Management (Admin) ---");
+        out.println("1. View All Ingredient Stock Levels");
+        out.println("2. View Ingredients Needing Restocking");
+        out.println("3. Use Ingredient (Simulate Order Fulfillment)");
+        out.println("0. Back to Main Menu");
+        out.print("Enter your choice: ");
         int choice = getInputInt();
 
         switch (choice) {
@@ -537,70 +590,70 @@ public class Main {
             case 0:
                 return;
             default:
-                System.out.println("Invalid choice.");
+                out.println("Invalid choice.");
         }
     }
 
-    private static void viewAllIngredientStockConsole() {
+    private void viewAllIngredientStockConsole() {
         List<Ingredient> allIngredients = inventoryService.getAllIngredientStockLevels();
         if (allIngredients.isEmpty()) {
-            System.out.println("No ingredients found in inventory.");
+            out.println("No ingredients found in inventory.");
             return;
         }
-        System.out.println("\nCurrent Stock Levels:");
-        System.out.printf("%-25s | %-10s | %-6s | %-15s%n", "Ingredient", "Stock", "Unit", "Reorder Level");
-        System.out.println("--------------------------------------------------------------------");
+        out.println("\nCurrent Stock Levels:");
+        out.printf("%-25s | %-10s | %-6s | %-15s%n", "Ingredient", "Stock", "Unit", "Reorder Level");
+        out.println("--------------------------------------------------------------------");
         for (Ingredient ingredient : allIngredients) {
-            System.out.printf("%-25s | %-10d | %-6s | %-15d%n",
+            out.printf("%-25s | %-10d | %-6s | %-15d%n",
                     ingredient.getName(), ingredient.getCurrentStock(), ingredient.getUnit(), ingredient.getReorderLevel());
         }
     }
 
-    private static void checkRestockingNeedsConsole() {
+    private void checkRestockingNeedsConsole() {
         List<Ingredient> lowStock = inventoryService.getIngredientsNeedingRestocking();
         if (lowStock.isEmpty()) {
-            System.out.println("No ingredients currently need restocking.");
+            out.println("No ingredients currently need restocking.");
         } else {
-            System.out.println("\nIngredients Needing Restocking:");
+            out.println("\nIngredients Needing Restocking:");
             lowStock.forEach(ing ->
-                    System.out.println("- " + ing.getName() + " (Current: " + ing.getCurrentStock() + " " + ing.getUnit() + ", Reorder at: " + ing.getReorderLevel() + ")")
+                    out.println("- " + ing.getName() + " (Current: " + ing.getCurrentStock() + " " + ing.getUnit() + ", Reorder at: " + ing.getReorderLevel() + ")")
             );
         }
     }
 
-    private static void useIngredientConsole() {
-        System.out.print("Enter ingredient name to use: ");
+    private void useIngredientConsole() {
+        out.print("Enter ingredient name to use: ");
         String name = scanner.nextLine();
-        System.out.print("Enter quantity to use: ");
+        out.print("Enter quantity to use: ");
         int qty = getInputInt();
         if (inventoryService.useSingleIngredient(name, qty)) {
-            System.out.println(qty + " of " + name + " used successfully.");
+            out.println(qty + " of " + name + " used successfully.");
         } else {
-            System.out.println("Failed to use " + name + ". Check stock or if ingredient exists.");
+            out.println("Failed to use " + name + ". Check stock or if ingredient exists.");
         }
     }
 
-    private static void manageSuppliersConsole() {
-        System.out.println("\n--- Supplier Management (Admin) ---");
-        System.out.println("1. View All Suppliers");
-        System.out.println("2. Fetch Real-time Price for an Ingredient");
-        System.out.println("3. Auto-generate Purchase Orders for Critical Stock (Simulation)");
-        System.out.println("0. Back to Main Menu");
-        System.out.print("Enter your choice: ");
+    private void manageSuppliersConsole() {
+        out.println("\n--- Supplier Management (Admin) ---");
+        out.println("1. View All Suppliers");
+        out.println("2. Fetch Real-time Price for an Ingredient");
+        out.println("3. Auto-generate Purchase Orders for Critical Stock (Simulation)");
+        out.println("0. Back to Main Menu");
+        out.print("Enter your choice: ");
         int choice = getInputInt();
 
         switch (choice) {
             case 1:
                 List<Supplier> suppliers = supplierRepository.getAllSuppliers();
                 if(suppliers.isEmpty()){
-                    System.out.println("No suppliers found in the system.");
+                    out.println("No suppliers found in the system.");
                     break;
                 }
-                System.out.println("\nAvailable Suppliers:");
+                out.println("\nAvailable Suppliers:");
                 for(Supplier s : suppliers){
-                    System.out.println("- " + s.getName() + " (ID: " + s.getId() + ", Email: " + s.getContactEmail() + ")");
+                    out.println("- " + s.getName() + " (ID: " + s.getId() + ", Email: " + s.getContactEmail() + ")");
                     if(!s.getItemPrices().isEmpty()){
-                        System.out.println("  Known item prices: " + s.getItemPrices());
+                        out.println("  Known item prices: " + s.getItemPrices());
                     }
                 }
                 break;
@@ -608,89 +661,110 @@ public class Main {
                 fetchIngredientPriceConsole();
                 break;
             case 3:
-                System.out.println("Checking for critically low stock items to generate purchase orders...");
+                out.println("Checking for critically low stock items to generate purchase orders...");
                 List<String> poNotifications = purchasingService.checkAndGenerateAutoOrders(inventoryService);
                 if (poNotifications.isEmpty()) {
-                    System.out.println("No purchase orders were automatically generated (either stock is sufficient or prices are missing).");
+                    out.println("No purchase orders were automatically generated (either stock is sufficient or prices are missing).");
                 } else {
-                    System.out.println("The following purchase orders were generated/suggested:");
-                    poNotifications.forEach(System.out::println);
+                    out.println("The following purchase orders were generated/suggested:");
+                    poNotifications.forEach(out::println);
                 }
                 break;
             case 0:
                 return;
             default:
-                System.out.println("Invalid choice.");
+                out.println("Invalid choice.");
         }
     }
 
-    private static void fetchIngredientPriceConsole() {
-        System.out.print("Enter ingredient name: ");
+    private void fetchIngredientPriceConsole() {
+        out.print("Enter ingredient name: ");
         String ingredientName = scanner.nextLine();
-        System.out.print("Enter supplier name: ");
+        out.print("Enter supplier name: ");
         String supplierName = scanner.nextLine();
 
         Double price = purchasingService.fetchRealTimePrice(ingredientName, supplierName);
         if (price != null) {
             Ingredient ing = ingredientRepository.findIngredientByName(ingredientName);
             String unit = (ing != null) ? ing.getUnit() : "units";
-            System.out.println("Real-time price for " + ingredientName + " from " + supplierName + " is: " + String.format("%.2f", price) + " per " + unit);
+            out.println("Real-time price for " + ingredientName + " from " + supplierName + " is: " + String.format("%.2f", price) + " per " + unit);
         } else {
-            System.out.println("Could not fetch price. Supplier or ingredient might not be found, or price not set for it by this supplier.");
+            out.println("Could not fetch price. Supplier or ingredient might not be found, or price not set for it by this supplier.");
         }
     }
 
-    private static void assignTaskToChefConsole() {
-        System.out.println("\n--- Assign Task to Chef (Admin/Manager Action) ---");
-        System.out.print("Enter Order ID for the task: ");
+    private void assignTaskToChefConsole() {
+        out.println("\n--- Assign Task to Chef (Admin/Manager Action) ---");
+        out.print("Enter Order ID for the task: ");
         String orderId = scanner.nextLine();
-        System.out.print("Enter Meal Name for the task: ");
+        out.print("Enter Meal Name for the task: ");
         String mealName = scanner.nextLine();
-        System.out.println("Available Chefs:");
-        chefRepository.getAllChefs().forEach(c -> System.out.println("- " + c.getName() + " (Expertise: " + c.getExpertise() + ", Workload: " + c.getCurrentWorkload() + ")"));
-        System.out.print("Enter Chef Name to assign the task to: ");
+        out.print("Enter Due Time (HH:mm, or leave blank for none): ");
+        String dueTime = scanner.nextLine().trim();
+        if (dueTime.isEmpty()) {
+            dueTime = null;
+        }
+        out.println("Available Chefs:");
+        chefRepository.getAllChefs().forEach(c -> out.println("- " + c.getName() + " (Expertise: " + c.getExpertise() + ", Workload: " + c.getCurrentWorkload() + ")"));
+        out.print("Enter Chef Name to assign the task to (leave blank to pick the least busy suitable chef): ");
         String chefName = scanner.nextLine();
 
-        boolean success = kitchenManagementService.assignTaskToChef(orderId, mealName, chefName);
+        String assignedChef = kitchenOrderService.placeOrder(orderId, mealName, chefName.trim().isEmpty() ? null : chefName, dueTime);
+        boolean success = assignedChef != null;
         if (success) {
-            System.out.println("Task for order " + orderId + " successfully assigned to " + chefName + ".");
+            chefName = assignedChef;
+            out.println("Task for order " + orderId + " successfully assigned to " + chefName + ".");
         } else {
-            System.out.println("Failed to assign task for order " + orderId + " to " + chefName + ".");
+            out.println("Failed to assign task for order " + orderId + " to " + chefName + ".");
         }
     }
 
-    private static void viewMyTasksAsChef(){
+    private void viewMyTasksAsChef(){
         if(loggedInUserEmail == null || !"chef".equals(loggedInUserRole)){
-            System.out.println("You must be logged in as a Chef to view tasks.");
+            out.println("You must be logged in as a Chef to view tasks.");
             return;
         }
-        System.out.println("\n--- Tasks for Chef " + loggedInUserEmail + " ---");
+        out.println("\n--- Tasks for Chef " + loggedInUserEmail + " ---");
         List<KitchenTask> tasks = kitchenManagementService.getChefTasks(loggedInUserEmail);
         if(tasks.isEmpty()){
-            System.out.println("No tasks assigned to you currently.");
+            out.println("No tasks assigned to you currently.");
         } else {
+            int overdue = kitchenManagementService.getTaskBoard().getOverdueCount(loggedInUserEmail);
+            if (overdue > 0) {
+                out.println(overdue + " of your tasks are overdue.");
+            }
             for(KitchenTask task : tasks){
-                System.out.println("- " + task.getMealName() + " for Order: " + task.getTaskId() +
+                out.println("- " + task.getMealName() + " for Order: " + task.getTaskId() +
                         " (Status: " + task.getStatus() +
                         (task.getDueTime() != null ? ", Due: " + task.getDueTime() : "") + ")");
             }
         }
-        System.out.println("--------------------------");
+        NotificationOutbox outbox = chefRepository.getNotificationOutbox();
+        List<NotificationOutbox.Notification> unread = outbox.getUnread(loggedInUserEmail);
+        if (!unread.isEmpty()) {
+            out.println("New notifications:");
+            for (NotificationOutbox.Notification notification : unread) {
+                out.println("* " + notification.getMessage());
+            }
+            // Only what was shown counts as read; anything delivered meanwhile stays unread.
+            outbox.markRead(loggedInUserEmail, unread.get(unread.size() - 1).getSequence());
+        }
+        out.println("--------------------------");
     }
 
-    private static void getRecipeRecommendationConsole() {
-        System.out.println("\n--- AI Recipe Recommendation ---");
-        System.out.print("Enter your dietary restriction (e.g., Vegan, Keto, or leave blank): ");
+    private void getRecipeRecommendationConsole() {
+        out.println("\n--- AI Recipe Recommendation ---");
+        out.print("Enter your dietary restriction (e.g., Vegan, Keto, or leave blank): ");
         String diet = scanner.nextLine();
-        System.out.print("Enter available time in minutes (e.g., 30): ");
+        out.print("Enter available time in minutes (e.g., 30): ");
         int time = getInputInt();
         if(time <=0) {
-            System.out.println("Invalid time. Using default of 30 minutes.");
+            out.println("Invalid time. Using default of 30 minutes.");
             time = 30;
         }
 
         Set<String> availableIngredients = new HashSet<>();
-        System.out.println("Enter available ingredients (one per line, type 'done' when finished):");
+        out.println("Enter available ingredients (one per line, type 'done' when finished):");
         String ingInput;
         while (!(ingInput = scanner.nextLine()).equalsIgnoreCase("done")) {
             if (!ingInput.trim().isEmpty()) {
@@ -704,12 +778,12 @@ public class Main {
         RecipeSuggestionService.RecommendationResult result = recipeSuggestionService.recommendRecipe(prefs);
 
         if (result != null && result.recommendedRecipe != null) {
-            System.out.println("\n--- Recommendation ---");
-            System.out.println(result.explanation);
+            out.println("\n--- Recommendation ---");
+            out.println(result.explanation);
         } else if (result != null) {
-            System.out.println("\n" + result.explanation);
+            out.println("\n" + result.explanation);
         } else {
-            System.out.println("Sorry, an error occurred while generating recommendations.");
+            out.println("Sorry, an error occurred while generating recommendations.");
         }
     }
 }
\ No newline at end of file
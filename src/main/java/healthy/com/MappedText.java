@@ -0,0 +1,50 @@
+package healthy.com;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Read-only {@link CharSequence} view of a (typically memory-mapped) byte buffer holding text
+ * in the platform charset, the one {@code FileReader} and {@code FileWriter} use for the data
+ * files. {@link #charAt(int)} returns the raw byte, which is exact for the ASCII separators,
+ * digits and whitespace a {@link RecordTokenizer} scans for in any ASCII-compatible charset;
+ * other characters only ever show up inside field values, and {@link #subSequence(int, int)}
+ * decodes those properly when a field is materialised. Nothing is copied until a field is
+ * actually read.
+ */
+final class MappedText implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int length;
+
+    MappedText(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.length = buffer.limit();
+    }
+
+    byte byteAt(int index) {
+        return buffer.get(index);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(index) & 0xFF);
+    }
+
+    /** Decodes the range as a buffered read of the file would; the result is a plain {@link String}. */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, Charset.defaultCharset());
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
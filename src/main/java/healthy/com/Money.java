@@ -0,0 +1,80 @@
+package healthy.com;
+
+/**
+ * Money amounts as a {@code long} number of cents. The order, invoice and purchasing models
+ * keep their totals this way, so sums are exact integer additions that allocate nothing, and
+ * the {@code double} getters they still offer are derived only at the edge.
+ *
+ * <p>Formatting writes the plain {@code 12.50} form that {@code String.format("%.2f")} produces
+ * in an English locale, always with a dot, without going through {@link java.util.Formatter}.
+ */
+public final class Money {
+    private Money() {
+    }
+
+    /** Rounds a decimal amount to the nearest cent, halves upwards as {@link Math#round(double)} does. */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(12), cents).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder target, long cents) {
+        if (cents < 0) {
+            if (cents == Long.MIN_VALUE) {
+                return target.append("-92233720368547758.08");
+            }
+            target.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        target.append(cents / 100).append('.');
+        if (fraction < 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+
+    /** Parses {@code "12.5"}, {@code "-3"} or {@code "0.125"} (rounded to 0.13) into cents. */
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    static long parse(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        for (; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+            units = units * 10 + (text.charAt(i) - '0');
+            integerDigits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end && text.charAt(i) == '.') {
+            for (i++; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9' && fractionDigits < 2; i++) {
+                fraction = fraction * 10 + (text.charAt(i) - '0');
+                fractionDigits++;
+            }
+        }
+        if (i != end || integerDigits + fractionDigits == 0 || integerDigits > 16) {
+            // More than two decimals, an exponent or anything unusual: round the exact double.
+            return toCents(Double.parseDouble(text.subSequence(start, end).toString()));
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        long cents = units * 100 + fraction;
+        return negative ? -cents : cents;
+    }
+}
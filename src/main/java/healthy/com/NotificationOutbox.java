@@ -0,0 +1,308 @@
+package healthy.com;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only notification mailboxes for chefs, kept apart from the chef records so that
+ * notifying a chef is one appended line. Each chef's notifications are numbered from 1 and a
+ * read cursor remembers how far the chef has read. Read notifications beyond the retention
+ * limit are dropped, and a mailbox never holds more than its cap: past it the oldest
+ * notifications go even if unread, so a chef who never reads cannot grow the file without bound.
+ *
+ * <p>File records: {@code N;chef;sequence;message} for a notification, {@code R;chef;sequence}
+ * for a read cursor and {@code X;chef;sequence} when a chef's mailbox was emptied.
+ */
+public class NotificationOutbox {
+    private static final Logger LOGGER = Logger.getLogger(NotificationOutbox.class.getName());
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/notifications.txt";
+    private static final char SEPARATOR = ';';
+    private static final String NOTIFICATION = "N";
+    private static final String READ_CURSOR = "R";
+    private static final String DISCARDED = "X";
+    public static final int DEFAULT_RETAINED_READ_NOTIFICATIONS = 100;
+    public static final int DEFAULT_MAX_NOTIFICATIONS_PER_CHEF = 1000;
+
+    private final Map<String, Mailbox> mailboxes = new HashMap<>();
+    private final String filePath;
+    private final ResidentDataFile residentFile;
+    private final RecordJournal journal;
+    private final int retainedReadNotifications;
+    private final int maxNotificationsPerChef;
+    private int retainedCount;
+
+    public NotificationOutbox() {
+        this(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    public NotificationOutbox(Path dataFile) {
+        this(dataFile, DEFAULT_RETAINED_READ_NOTIFICATIONS);
+    }
+
+    /** Keeps at most {@code retainedReadNotifications} already-read notifications per chef. */
+    public NotificationOutbox(Path dataFile, int retainedReadNotifications) {
+        this(dataFile, retainedReadNotifications, DEFAULT_MAX_NOTIFICATIONS_PER_CHEF);
+    }
+
+    /** Also keeps at most {@code maxNotificationsPerChef} notifications per chef, read or not. */
+    public NotificationOutbox(Path dataFile, int retainedReadNotifications, int maxNotificationsPerChef) {
+        this.filePath = dataFile.toString();
+        this.residentFile = new ResidentDataFile(dataFile, SEPARATOR);
+        this.journal = residentFile.journal();
+        this.retainedReadNotifications = retainedReadNotifications;
+        this.maxNotificationsPerChef = maxNotificationsPerChef;
+        reloadMailboxes();
+    }
+
+    /** One delivered notification and its position in the chef's mailbox. */
+    public static class Notification {
+        private final int sequence;
+        private final String message;
+
+        Notification(int sequence, String message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
+
+        public int getSequence() {
+            return sequence;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + sequence + " " + message;
+        }
+    }
+
+    private static final class Mailbox {
+        private final ArrayDeque<Notification> retained = new ArrayDeque<>();
+        private int lastSequence;
+        private int readUpTo;
+    }
+
+    private void reloadMailboxes() {
+        journal.close();
+        mailboxes.clear();
+        retainedCount = 0;
+        File file = new File(filePath);
+        long recordsRead = 0;
+        if (file.exists() && file.length() > 0) {
+            RecordTokenizer tokenizer = new RecordTokenizer();
+            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    tokenizer.reset(line);
+                    if (tokenizer.isBlank()) continue;
+                    recordsRead++;
+                    replayRecord(tokenizer, line);
+                }
+            } catch (IOException | NumberFormatException e) {
+                LOGGER.log(Level.SEVERE, "Error loading notifications: {0}", e.getMessage());
+            }
+        }
+        journal.resetRecordCount(recordsRead);
+        for (Mailbox mailbox : mailboxes.values()) {
+            trim(mailbox);
+        }
+        residentFile.markInSync();
+    }
+
+    private void replayRecord(RecordTokenizer tokenizer, String line) {
+        if (tokenizer.countFields(SEPARATOR) < 3) {
+            LOGGER.log(Level.WARNING, "Skipping malformed notification record: {0}", line);
+            return;
+        }
+        String type = tokenizer.nextString(SEPARATOR);
+        Mailbox mailbox = mailboxes.computeIfAbsent(tokenizer.nextString(SEPARATOR), chef -> new Mailbox());
+        int sequence = tokenizer.nextInt(SEPARATOR);
+        if (NOTIFICATION.equals(type) && tokenizer.hasMoreFields()) {
+            mailbox.retained.addLast(new Notification(sequence, tokenizer.remaining()));
+            retainedCount++;
+            mailbox.lastSequence = Math.max(mailbox.lastSequence, sequence);
+        } else if (READ_CURSOR.equals(type)) {
+            mailbox.readUpTo = Math.max(mailbox.readUpTo, sequence);
+        } else if (DISCARDED.equals(type)) {
+            discardUpTo(mailbox, sequence);
+        } else {
+            LOGGER.log(Level.WARNING, "Skipping malformed notification record: {0}", line);
+        }
+    }
+
+    private void reloadIfFileChanged() {
+        residentFile.reloadIfChanged(this::reloadMailboxes);
+    }
+
+    // Drops read notifications from the front of the mailbox until only the retained number is
+    // left, then the oldest of any kind while the mailbox is over its cap; those count as read.
+    private void trim(Mailbox mailbox) {
+        int read = 0;
+        for (Notification notification : mailbox.retained) {
+            if (notification.sequence > mailbox.readUpTo) {
+                break;
+            }
+            read++;
+        }
+        for (; read > retainedReadNotifications; read--) {
+            mailbox.retained.removeFirst();
+            retainedCount--;
+        }
+        while (mailbox.retained.size() > maxNotificationsPerChef) {
+            Notification dropped = mailbox.retained.removeFirst();
+            retainedCount--;
+            mailbox.readUpTo = Math.max(mailbox.readUpTo, dropped.sequence);
+        }
+    }
+
+    private void discardUpTo(Mailbox mailbox, int sequence) {
+        while (!mailbox.retained.isEmpty() && mailbox.retained.peekFirst().sequence <= sequence) {
+            mailbox.retained.removeFirst();
+            retainedCount--;
+        }
+        mailbox.readUpTo = Math.max(mailbox.readUpTo, sequence);
+        mailbox.lastSequence = Math.max(mailbox.lastSequence, sequence);
+    }
+
+    /** Appends a notification for {@code chefName} and returns its sequence number. */
+    public synchronized int append(String chefName, String message) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.computeIfAbsent(chefName, chef -> new Mailbox());
+        // One record per line: a line break inside a message would split the record.
+        String text = message.replace('\r', ' ').replace('\n', ' ');
+        Notification notification = new Notification(++mailbox.lastSequence, text);
+        mailbox.retained.addLast(notification);
+        retainedCount++;
+        trim(mailbox);
+        appendRecord(NOTIFICATION + SEPARATOR + chefName + SEPARATOR + notification.sequence + SEPARATOR + text);
+        return notification.sequence;
+    }
+
+    /** Every retained notification for the chef, read or not, oldest first. */
+    public synchronized List<String> getMessages(String chefName) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        List<String> messages = new ArrayList<>();
+        if (mailbox != null) {
+            for (Notification notification : mailbox.retained) {
+                messages.add(notification.message);
+            }
+        }
+        return messages;
+    }
+
+    public synchronized List<Notification> getUnread(String chefName) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        List<Notification> unread = new ArrayList<>();
+        if (mailbox != null) {
+            // Unread notifications are the tail of the mailbox, so walk back from the newest one.
+            Iterator<Notification> newestFirst = mailbox.retained.descendingIterator();
+            while (newestFirst.hasNext()) {
+                Notification notification = newestFirst.next();
+                if (notification.sequence <= mailbox.readUpTo) {
+                    break;
+                }
+                unread.add(0, notification);
+            }
+        }
+        return unread;
+    }
+
+    public synchronized int getUnreadCount(String chefName) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        return mailbox == null ? 0 : mailbox.lastSequence - mailbox.readUpTo;
+    }
+
+    /** Moves the chef's read cursor forward to {@code sequence}; it never moves back. */
+    public synchronized void markRead(String chefName, int sequence) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        if (mailbox == null || sequence <= mailbox.readUpTo) {
+            return;
+        }
+        mailbox.readUpTo = Math.min(sequence, mailbox.lastSequence);
+        trim(mailbox);
+        appendRecord(READ_CURSOR + SEPARATOR + chefName + SEPARATOR + mailbox.readUpTo);
+    }
+
+    public synchronized void markAllRead(String chefName) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        if (mailbox != null) {
+            markRead(chefName, mailbox.lastSequence);
+        }
+    }
+
+    /** Empties the chef's mailbox; sequence numbers keep counting from where they were. */
+    public synchronized void discardAll(String chefName) {
+        reloadIfFileChanged();
+        Mailbox mailbox = mailboxes.get(chefName);
+        if (mailbox == null || mailbox.retained.isEmpty()) {
+            return;
+        }
+        discardUpTo(mailbox, mailbox.lastSequence);
+        appendRecord(DISCARDED + SEPARATOR + chefName + SEPARATOR + mailbox.lastSequence);
+    }
+
+    /** True once anything was ever delivered to the chef, even if it has since been dropped. */
+    public synchronized boolean hasMailbox(String chefName) {
+        reloadIfFileChanged();
+        return mailboxes.containsKey(chefName);
+    }
+
+    private void appendRecord(String record) {
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving notifications: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+        // Live records: the retained notifications plus about one cursor record per chef.
+        if (journal.needsCompaction(retainedCount + mailboxes.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    // Rewrites the file as the retained notifications plus one cursor record per chef.
+    private synchronized void compact() {
+        reloadIfFileChanged();
+        List<String> records = new ArrayList<>();
+        for (Map.Entry<String, Mailbox> entry : mailboxes.entrySet()) {
+            String chefName = entry.getKey();
+            Mailbox mailbox = entry.getValue();
+            Notification oldest = mailbox.retained.peekFirst();
+            int discardedUpTo = oldest == null ? mailbox.lastSequence : oldest.sequence - 1;
+            if (discardedUpTo > 0) {
+                records.add(DISCARDED + SEPARATOR + chefName + SEPARATOR + discardedUpTo);
+            }
+            for (Notification notification : mailbox.retained) {
+                records.add(NOTIFICATION + SEPARATOR + chefName + SEPARATOR + notification.sequence + SEPARATOR + notification.message);
+            }
+            if (mailbox.readUpTo > discardedUpTo) {
+                records.add(READ_CURSOR + SEPARATOR + chefName + SEPARATOR + mailbox.readUpTo);
+            }
+        }
+        try {
+            journal.rewrite(records, record -> record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error compacting notifications: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+    }
+}
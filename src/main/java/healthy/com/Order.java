@@ -11,7 +11,7 @@ public class Order {
     private String customerEmail;
     private LocalDate orderDate;
     private List<OrderItem> items;
-    private double orderTotalPrice;
+    private long orderTotalCents;
     private String status; // e.g., "Delivered", "Preparing"
 
     public Order(String orderId, String customerEmail, String orderDateStr, String status) {
@@ -20,7 +20,17 @@ public class Order {
         this.orderDate = LocalDate.parse(orderDateStr, DateTimeFormatter.ISO_LOCAL_DATE);
         this.items = new ArrayList<>();
         this.status = status;
-        this.orderTotalPrice = 0.0; // Will be calculated or set
+        this.orderTotalCents = 0; // Will be calculated or set
+    }
+
+    /** A copy with its own item list; the items themselves are immutable and shared. */
+    Order(Order other) {
+        this.orderId = other.orderId;
+        this.customerEmail = other.customerEmail;
+        this.orderDate = other.orderDate;
+        this.items = new ArrayList<>(other.items);
+        this.orderTotalCents = other.orderTotalCents;
+        this.status = other.status;
     }
 
     public String getOrderId() {
@@ -41,7 +51,7 @@ public class Order {
 
     public void addItem(OrderItem item) {
         this.items.add(item);
-        this.orderTotalPrice += item.getItemTotalPrice();
+        this.orderTotalCents += item.getItemTotalCents();
     }
 
     public void setItems(List<OrderItem> items) {
@@ -51,11 +61,19 @@ public class Order {
 
 
     public double getOrderTotalPrice() {
-        return orderTotalPrice;
+        return Money.toDouble(orderTotalCents);
     }
 
     public void setOrderTotalPrice(double orderTotalPrice) {
-        this.orderTotalPrice = orderTotalPrice;
+        this.orderTotalCents = Money.toCents(orderTotalPrice);
+    }
+
+    public long getOrderTotalCents() {
+        return orderTotalCents;
+    }
+
+    public void setOrderTotalCents(long orderTotalCents) {
+        this.orderTotalCents = orderTotalCents;
     }
 
     public String getStatus() {
@@ -67,9 +85,9 @@ public class Order {
     }
 
     private void recalculateOrderTotalPrice() {
-        this.orderTotalPrice = 0.0;
+        this.orderTotalCents = 0;
         for (OrderItem item : this.items) {
-            this.orderTotalPrice += item.getItemTotalPrice();
+            this.orderTotalCents += item.getItemTotalCents();
         }
     }
 
@@ -77,7 +95,7 @@ public class Order {
     @Override
     public String toString() {
         return "Order ID: " + orderId + ", Date: " + orderDate + ", Customer: " + customerEmail +
-                ", Status: " + status + ", Total: " + String.format("%.2f", orderTotalPrice) +
+                ", Status: " + status + ", Total: " + Money.format(orderTotalCents) +
                 ", Items: " + items.size();
     }
 
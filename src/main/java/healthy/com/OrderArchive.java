@@ -0,0 +1,292 @@
+package healthy.com;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, column-oriented copy of the closed (Paid or Delivered) orders, for analytics that
+ * only need dates, totals and meal names. Rows are sorted by order date and stored as primitive
+ * columns: the epoch day, a dictionary code for the status, the total in cents and the end
+ * offset of the order's items, whose meal names are dictionary codes as well. A month is a
+ * contiguous run of rows found by binary search, and prefix sums make its revenue two lookups.
+ *
+ * <p>The binary file holds the same columns, big-endian, behind a small header and the two
+ * dictionaries, so loading it is a handful of bulk copies with no per-row parsing.
+ */
+public class OrderArchive {
+    private static final int MAGIC = 0x48434F41; // "HCOA"
+    private static final int VERSION = 1;
+
+    private final String[] statuses;
+    private final String[] mealNames;
+    private final int[] epochDays;
+    private final byte[] statusCodes;
+    private final long[] totalCents;
+    private final int[] itemEnds;
+    private final int[] itemMealCodes;
+    private final long[] revenuePrefixCents;
+
+    private OrderArchive(String[] statuses, String[] mealNames, int[] epochDays, byte[] statusCodes,
+                         long[] totalCents, int[] itemEnds, int[] itemMealCodes) {
+        this.statuses = statuses;
+        this.mealNames = mealNames;
+        this.epochDays = epochDays;
+        this.statusCodes = statusCodes;
+        this.totalCents = totalCents;
+        this.itemEnds = itemEnds;
+        this.itemMealCodes = itemMealCodes;
+        this.revenuePrefixCents = new long[totalCents.length + 1];
+        for (int row = 0; row < totalCents.length; row++) {
+            revenuePrefixCents[row + 1] = revenuePrefixCents[row] + totalCents[row];
+        }
+    }
+
+    static boolean isClosed(String status) {
+        return "Paid".equalsIgnoreCase(status) || "Delivered".equalsIgnoreCase(status);
+    }
+
+    /** Builds an archive of the closed orders among {@code orders}; other orders are ignored. */
+    public static OrderArchive of(Collection<Order> orders) {
+        List<Order> closed = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getOrderDate() != null && isClosed(order.getStatus())) {
+                closed.add(order);
+            }
+        }
+        closed.sort(Comparator.comparing(Order::getOrderDate));
+
+        Dictionary statusDictionary = new Dictionary();
+        Dictionary mealDictionary = new Dictionary();
+        int rows = closed.size();
+        int[] epochDays = new int[rows];
+        byte[] statusCodes = new byte[rows];
+        long[] totalCents = new long[rows];
+        int[] itemEnds = new int[rows];
+        int itemCount = 0;
+        for (Order order : closed) {
+            itemCount += order.getItems().size();
+        }
+        int[] itemMealCodes = new int[itemCount];
+
+        int item = 0;
+        for (int row = 0; row < rows; row++) {
+            Order order = closed.get(row);
+            epochDays[row] = (int) order.getOrderDate().toEpochDay();
+            int statusCode = statusDictionary.code(order.getStatus());
+            if (statusCode > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many distinct order statuses for the archive");
+            }
+            statusCodes[row] = (byte) statusCode;
+            totalCents[row] = order.getOrderTotalCents();
+            for (OrderItem orderItem : order.getItems()) {
+                itemMealCodes[item++] = mealDictionary.code(orderItem.getMealName());
+            }
+            itemEnds[row] = item;
+        }
+        return new OrderArchive(statusDictionary.values(), mealDictionary.values(),
+                epochDays, statusCodes, totalCents, itemEnds, itemMealCodes);
+    }
+
+    public void writeTo(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(epochDays.length);
+            out.writeInt(itemMealCodes.length);
+            writeDictionary(out, statuses);
+            writeDictionary(out, mealNames);
+            for (int epochDay : epochDays) {
+                out.writeInt(epochDay);
+            }
+            out.write(statusCodes);
+            for (long cents : totalCents) {
+                out.writeLong(cents);
+            }
+            for (int itemEnd : itemEnds) {
+                out.writeInt(itemEnd);
+            }
+            for (int mealCode : itemMealCodes) {
+                out.writeInt(mealCode);
+            }
+        }
+    }
+
+    /**
+     * Loads an archive written by {@link #writeTo}. The file is mapped in one piece, so archives
+     * larger than 2 GB are rejected; split them by year with {@link #of} on a subset instead.
+     */
+    public static OrderArchive readFrom(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Order archive " + path + " is " + size
+                        + " bytes; archives larger than " + Integer.MAX_VALUE + " bytes cannot be mapped");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(path + " is not an order archive");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported order archive version " + version + " in " + path);
+            }
+            int rows = buffer.getInt();
+            int items = buffer.getInt();
+            String[] statuses = readDictionary(buffer);
+            String[] mealNames = readDictionary(buffer);
+
+            int[] epochDays = new int[rows];
+            buffer.asIntBuffer().get(epochDays);
+            buffer.position(buffer.position() + Integer.BYTES * rows);
+            byte[] statusCodes = new byte[rows];
+            buffer.get(statusCodes);
+            long[] totalCents = new long[rows];
+            buffer.asLongBuffer().get(totalCents);
+            buffer.position(buffer.position() + Long.BYTES * rows);
+            int[] itemEnds = new int[rows];
+            buffer.asIntBuffer().get(itemEnds);
+            buffer.position(buffer.position() + Integer.BYTES * rows);
+            int[] itemMealCodes = new int[items];
+            buffer.asIntBuffer().get(itemMealCodes);
+            return new OrderArchive(statuses, mealNames, epochDays, statusCodes, totalCents, itemEnds, itemMealCodes);
+        }
+    }
+
+    public int getOrderCount() {
+        return epochDays.length;
+    }
+
+    public long getTotalRevenueCents() {
+        return revenuePrefixCents[epochDays.length];
+    }
+
+    public long getRevenueCentsForMonth(YearMonth month) {
+        return revenuePrefixCents[firstRowOnOrAfter(month.plusMonths(1).atDay(1))]
+                - revenuePrefixCents[firstRowOnOrAfter(month.atDay(1))];
+    }
+
+    /** Revenue for one month from orders in the given status, e.g. only "Delivered". */
+    public long getRevenueCentsForMonth(YearMonth month, String status) {
+        int statusCode = indexOf(statuses, status);
+        if (statusCode < 0) {
+            return 0;
+        }
+        long cents = 0;
+        int end = firstRowOnOrAfter(month.plusMonths(1).atDay(1));
+        for (int row = firstRowOnOrAfter(month.atDay(1)); row < end; row++) {
+            if (statusCodes[row] == statusCode) {
+                cents += totalCents[row];
+            }
+        }
+        return cents;
+    }
+
+    /** Number of order lines per meal name over the whole archive, most frequent first. */
+    public Map<String, Long> getMealFrequencies() {
+        return mealFrequencies(0, epochDays.length);
+    }
+
+    /** Number of order lines per meal name in one month, most frequent first. */
+    public Map<String, Long> getMealFrequenciesForMonth(YearMonth month) {
+        return mealFrequencies(firstRowOnOrAfter(month.atDay(1)), firstRowOnOrAfter(month.plusMonths(1).atDay(1)));
+    }
+
+    private Map<String, Long> mealFrequencies(int fromRow, int toRow) {
+        long[] counts = new long[mealNames.length];
+        int firstItem = fromRow == 0 ? 0 : itemEnds[fromRow - 1];
+        int endItem = toRow == 0 ? 0 : itemEnds[toRow - 1];
+        for (int item = firstItem; item < endItem; item++) {
+            counts[itemMealCodes[item]]++;
+        }
+        List<Integer> mealCodes = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                mealCodes.add(code);
+            }
+        }
+        mealCodes.sort((a, b) -> Long.compare(counts[b], counts[a]));
+        Map<String, Long> frequencies = new LinkedHashMap<>();
+        for (int code : mealCodes) {
+            frequencies.put(mealNames[code], counts[code]);
+        }
+        return frequencies;
+    }
+
+    private int firstRowOnOrAfter(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOf(String[] dictionary, String value) {
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeDictionary(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+}
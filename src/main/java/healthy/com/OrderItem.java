@@ -5,14 +5,22 @@ import java.util.Objects;
 public class OrderItem {
     private String mealName;
     private int quantity;
-    private double unitPrice;
-    private double itemTotalPrice;
+    private long unitPriceCents;
+    private long itemTotalCents;
 
     public OrderItem(String mealName, int quantity, double unitPrice, double itemTotalPrice) {
+        this(mealName, quantity, Money.toCents(unitPrice), Money.toCents(itemTotalPrice));
+    }
+
+    private OrderItem(String mealName, int quantity, long unitPriceCents, long itemTotalCents) {
         this.mealName = mealName;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
-        this.itemTotalPrice = itemTotalPrice;
+        this.unitPriceCents = unitPriceCents;
+        this.itemTotalCents = itemTotalCents;
+    }
+
+    public static OrderItem ofCents(String mealName, int quantity, long unitPriceCents, long itemTotalCents) {
+        return new OrderItem(mealName, quantity, unitPriceCents, itemTotalCents);
     }
 
     public String getMealName() {
@@ -24,16 +32,24 @@ public class OrderItem {
     }
 
     public double getUnitPrice() {
-        return unitPrice;
+        return Money.toDouble(unitPriceCents);
     }
 
     public double getItemTotalPrice() {
-        return itemTotalPrice;
+        return Money.toDouble(itemTotalCents);
+    }
+
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    public long getItemTotalCents() {
+        return itemTotalCents;
     }
 
     @Override
     public String toString() {
-        return quantity + " x " + mealName + " @ " + String.format("%.2f", unitPrice) + " = " + String.format("%.2f", itemTotalPrice);
+        return quantity + " x " + mealName + " @ " + Money.format(unitPriceCents) + " = " + Money.format(itemTotalCents);
     }
 
     @Override
@@ -42,13 +58,13 @@ public class OrderItem {
         if (o == null || getClass() != o.getClass()) return false;
         OrderItem orderItem = (OrderItem) o;
         return quantity == orderItem.quantity &&
-                Double.compare(orderItem.unitPrice, unitPrice) == 0 &&
-                Double.compare(orderItem.itemTotalPrice, itemTotalPrice) == 0 &&
+                orderItem.unitPriceCents == unitPriceCents &&
+                orderItem.itemTotalCents == itemTotalCents &&
                 Objects.equals(mealName, orderItem.mealName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(mealName, quantity, unitPrice, itemTotalPrice);
+        return Objects.hash(mealName, quantity, unitPriceCents, itemTotalCents);
     }
 }
\ No newline at end of file
@@ -1,154 +1,395 @@
 package healthy.com;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class OrderRepository {
-    private static final String FILE_PATH = "src/main/resources/orders.txt";
-    private static final String ORDER_SEPARATOR = ";";
-    private static final String ITEMS_SEPARATOR = "\\|";
-    private static final String ITEM_DETAIL_SEPARATOR = ",";
+    private static final Logger LOGGER = Logger.getLogger(OrderRepository.class.getName());
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/orders.txt";
+    private static final char ORDER_SEPARATOR = ';';
+    private static final char ITEMS_SEPARATOR = '|';
+    private static final char ITEM_DETAIL_SEPARATOR = ',';
+    // A mapped window must fit an int-indexed buffer; records never straddle two windows.
+    private static final int MAPPED_WINDOW_BYTES = 256 * 1024 * 1024;
 
-    public OrderRepository() {
-        try {
-            Path path = Paths.get(FILE_PATH);
-            if (!Files.exists(path.getParent())) {
-                Files.createDirectories(path.getParent());
+    // Resident indexes, loaded once and kept in step with the file on every write. The orders in
+    // them never leave the repository: saves store a copy and lookups hand out copies, so callers
+    // on other threads can change what they got without racing readers, the rollup or compaction.
+    private final Map<String, Order> ordersById = new LinkedHashMap<>();
+    private final Map<String, Map<String, Order>> ordersByCustomerEmail = new HashMap<>();
+    private final Map<LocalDate, Map<String, Order>> ordersByDate = new HashMap<>();
+    private final RevenueRollup revenueRollup = new RevenueRollup();
+    private final String filePath;
+    private final ResidentDataFile residentFile;
+    private final RecordJournal journal;
+    private final ReadMode readMode;
+
+    /** How the data file is read when the repository (re)loads it. */
+    public enum ReadMode {
+        /** Line by line through a {@link BufferedReader}; fine for everyday file sizes. */
+        BUFFERED,
+        /**
+         * Maps the file with {@link FileChannel#map} and parses records straight from the mapped
+         * pages, for history files large enough that copying them through a reader dominates.
+         */
+        MEMORY_MAPPED;
+
+        /** The mode called {@code name}, in any case; BUFFERED, with a warning, for an unknown name. */
+        public static ReadMode fromName(String name) {
+            if (name == null || name.isBlank()) {
+                return BUFFERED;
             }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Unknown order read mode {0}; reading orders BUFFERED", name);
+                return BUFFERED;
             }
-        } catch (IOException e) {
-            System.err.println("Error initializing orders data file: " + e.getMessage());
         }
     }
 
-    private List<Order> loadOrders() {
-        List<Order> orders = new ArrayList<>();
-        File file = new File(FILE_PATH);
+    public OrderRepository() {
+        this(ReadMode.BUFFERED);
+    }
+
+    public OrderRepository(ReadMode readMode) {
+        this(Paths.get(DEFAULT_FILE_PATH), readMode);
+    }
+
+    public OrderRepository(Path dataFile, ReadMode readMode) {
+        this.filePath = dataFile.toString();
+        this.residentFile = new ResidentDataFile(dataFile, ORDER_SEPARATOR);
+        this.journal = residentFile.journal();
+        this.readMode = readMode;
+        reloadIndexes();
+    }
+
+    /** Switches record-level debug logging for the order repository on or off; it is off by default. */
+    public static void setDebugLogging(boolean enabled) {
+        RepositoryLogging.setDebugEnabled(LOGGER, enabled);
+    }
+
+    private void reloadIndexes() {
+        journal.close();
+        ordersById.clear();
+        ordersByCustomerEmail.clear();
+        ordersByDate.clear();
+        revenueRollup.clear();
+        for (Order order : loadOrders()) {
+            index(order);
+        }
+        residentFile.markInSync();
+    }
+
+    // Another repository instance (or an external tool) may have rewritten the file since we loaded it.
+    private void reloadIfFileChanged() {
+        residentFile.reloadIfChanged(this::reloadIndexes);
+    }
+
+    private void index(Order order) {
+        Order previous = ordersById.put(order.getOrderId(), order);
+        if (previous != null && previous != order) {
+            unindexSecondary(previous);
+        }
+        ordersByCustomerEmail
+                .computeIfAbsent(order.getCustomerEmail(), email -> new LinkedHashMap<>())
+                .put(order.getOrderId(), order);
+        ordersByDate
+                .computeIfAbsent(order.getOrderDate(), date -> new LinkedHashMap<>())
+                .put(order.getOrderId(), order);
+        revenueRollup.record(order);
+    }
+
+    private void unindexSecondary(Order order) {
+        removeFrom(ordersByCustomerEmail, order.getCustomerEmail(), order.getOrderId());
+        removeFrom(ordersByDate, order.getOrderDate(), order.getOrderId());
+    }
+
+    private static <K> void removeFrom(Map<K, Map<String, Order>> index, K key, String orderId) {
+        Map<String, Order> orders = index.get(key);
+        if (orders != null) {
+            orders.remove(orderId);
+            if (orders.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private Collection<Order> loadOrders() {
+        Map<String, Order> orders = new LinkedHashMap<>();
+        File file = new File(filePath);
         if (!file.exists() || file.length() == 0) {
-            System.out.println("DEBUG OrderRepository: orders.txt does not exist or is empty.");
-            return orders;
+            LOGGER.fine("orders.txt does not exist or is empty.");
+            journal.resetRecordCount(0);
+            return orders.values();
         }
-        System.out.println("DEBUG OrderRepository: Loading orders from " + FILE_PATH);
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        LOGGER.fine(() -> "Loading orders from " + filePath + " (" + readMode + ")");
+        long recordsRead = 0;
+        try {
+            recordsRead = readMode == ReadMode.MEMORY_MAPPED ? replayMapped(orders) : replayBuffered(orders);
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.log(Level.SEVERE, "Error loading orders", e);
+        }
+        journal.resetRecordCount(recordsRead);
+        long records = recordsRead;
+        LOGGER.fine(() -> "Loaded " + orders.size() + " orders from " + records + " journal records.");
+        return orders.values();
+    }
+
+    private long replayBuffered(Map<String, Order> orders) throws IOException {
+        // Checked once per load so the per-record branches cost nothing when tracing is off.
+        boolean traceRecords = LOGGER.isLoggable(Level.FINEST);
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        long recordsRead = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                System.out.println("DEBUG OrderRepository: Reading line: " + line);
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(ORDER_SEPARATOR, -1);
-                if (parts.length >= 6) {
-                    String orderId = parts[0];
-                    String customerEmail = parts[1];
-                    String orderDateStr = parts[2];
-                    String status = parts[3];
-                    double orderTotalPriceFromFile = Double.parseDouble(parts[4]);
-                    String itemsString = parts[5];
-                    System.out.println("DEBUG OrderRepository: Parsed Order ID: " + orderId + ", Total: " + orderTotalPriceFromFile);
-
-
-                    Order order = new Order(orderId, customerEmail, orderDateStr, status);
-
-                    if (!itemsString.isEmpty()) {
-                        String[] itemEntries = itemsString.split(ITEMS_SEPARATOR);
-                        for (String itemEntry : itemEntries) {
-                            String[] itemDetails = itemEntry.split(ITEM_DETAIL_SEPARATOR);
-                            if (itemDetails.length == 4) {
-                                order.addItem(new OrderItem(
-                                        itemDetails[0],
-                                        Integer.parseInt(itemDetails[1]),
-                                        Double.parseDouble(itemDetails[2]),
-                                        Double.parseDouble(itemDetails[3])
-                                ));
-                            }
+                if (replayRecord(tokenizer, line, 0, line.length(), orders, traceRecords)) {
+                    recordsRead++;
+                }
+            }
+        }
+        return recordsRead;
+    }
+
+    /**
+     * Maps the file window by window and tokenizes each line in place. A window always ends on
+     * a line break, so the next one starts at the first record the previous window did not finish.
+     */
+    private long replayMapped(Map<String, Order> orders) throws IOException {
+        boolean traceRecords = LOGGER.isLoggable(Level.FINEST);
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        long recordsRead = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            while (windowStart < size) {
+                int windowLength = (int) Math.min(MAPPED_WINDOW_BYTES, size - windowStart);
+                boolean lastWindow = windowStart + windowLength == size;
+                MappedText text = new MappedText(channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength));
+                int lineStart = 0;
+                for (int i = 0; i < windowLength; i++) {
+                    if (text.byteAt(i) == '\n') {
+                        if (replayRecord(tokenizer, text, lineStart, lineEndBefore(text, lineStart, i), orders, traceRecords)) {
+                            recordsRead++;
                         }
+                        lineStart = i + 1;
                     }
-                    order.setOrderTotalPrice(orderTotalPriceFromFile);
-                    orders.add(order);
-                } else {
-                    System.out.println("DEBUG OrderRepository: Skipped line due to insufficient parts: " + line);
                 }
-            }
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error loading orders: " + e.getMessage());
-            e.printStackTrace();
-        }
-        System.out.println("DEBUG OrderRepository: Loaded " + orders.size() + " orders.");
-        return orders;
-    }
-
-    private void saveAllOrders(List<Order> orders) {
-        System.out.println("DEBUG OrderRepository: Saving " + orders.size() + " orders to " + FILE_PATH);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
-            for (Order order : orders) {
-                StringBuilder itemsString = new StringBuilder();
-                for (int i = 0; i < order.getItems().size(); i++) {
-                    OrderItem item = order.getItems().get(i);
-                    itemsString.append(item.getMealName()).append(ITEM_DETAIL_SEPARATOR)
-                            .append(item.getQuantity()).append(ITEM_DETAIL_SEPARATOR)
-                            .append(String.format("%.2f", item.getUnitPrice())).append(ITEM_DETAIL_SEPARATOR)
-                            .append(String.format("%.2f", item.getItemTotalPrice()));
-                    if (i < order.getItems().size() - 1) {
-                        itemsString.append("|");
+                if (lastWindow) {
+                    if (lineStart < windowLength
+                            && replayRecord(tokenizer, text, lineStart, lineEndBefore(text, lineStart, windowLength), orders, traceRecords)) {
+                        recordsRead++;
                     }
+                    lineStart = windowLength;
+                } else if (lineStart == 0) {
+                    throw new IOException("Order record at byte " + windowStart + " is longer than the mapping window");
                 }
-                String lineToWrite = String.join(ORDER_SEPARATOR,
-                        order.getOrderId(),
-                        order.getCustomerEmail(),
-                        order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                        order.getStatus(),
-                        String.format("%.2f", order.getOrderTotalPrice()),
-                        itemsString.toString()
-                );
-                System.out.println("DEBUG OrderRepository: Writing line: " + lineToWrite);
-                writer.write(lineToWrite);
-                writer.newLine();
+                windowStart += lineStart;
             }
+        }
+        return recordsRead;
+    }
+
+    // Drops the carriage return of a CRLF line ending, as BufferedReader.readLine does.
+    private static int lineEndBefore(MappedText text, int lineStart, int lineBreak) {
+        return lineBreak > lineStart && text.byteAt(lineBreak - 1) == '\r' ? lineBreak - 1 : lineBreak;
+    }
+
+    /** Applies one journal line to {@code orders}; returns false for blank lines, which are not records. */
+    private static boolean replayRecord(RecordTokenizer tokenizer, CharSequence source, int start, int end,
+                                        Map<String, Order> orders, boolean traceRecords) {
+        if (traceRecords) {
+            LOGGER.finest("Reading line: " + source.subSequence(start, end));
+        }
+        tokenizer.reset(source, start, end);
+        if (tokenizer.isBlank()) {
+            return false;
+        }
+        if (RecordJournal.isTombstone(tokenizer, ORDER_SEPARATOR)) {
+            tokenizer.skipField(ORDER_SEPARATOR);
+            orders.remove(tokenizer.nextString(ORDER_SEPARATOR));
+        } else if (tokenizer.countFields(ORDER_SEPARATOR) >= 6) {
+            Order order = parseOrder(tokenizer);
+            if (traceRecords) {
+                LOGGER.finest("Parsed Order ID: " + order.getOrderId() + ", Total: " + order.getOrderTotalPrice());
+            }
+            // A later record for the same id supersedes the earlier one.
+            orders.put(order.getOrderId(), order);
+        } else {
+            LOGGER.log(Level.WARNING, "Skipped line due to insufficient parts: {0}", source.subSequence(start, end));
+        }
+        return true;
+    }
+
+    // orderId;customerEmail;orderDate;status;total;meal,qty,unitPrice,itemTotal|...
+    private static Order parseOrder(RecordTokenizer tokenizer) {
+        String orderId = tokenizer.nextString(ORDER_SEPARATOR);
+        String customerEmail = tokenizer.nextString(ORDER_SEPARATOR);
+        String orderDateStr = tokenizer.nextString(ORDER_SEPARATOR);
+        String status = tokenizer.nextString(ORDER_SEPARATOR);
+        long orderTotalCentsFromFile = tokenizer.nextCents(ORDER_SEPARATOR);
+        Order order = new Order(orderId, customerEmail, orderDateStr, status);
+
+        if (!tokenizer.isFieldEmpty(ORDER_SEPARATOR)) {
+            tokenizer.enter(ORDER_SEPARATOR);
+            while (tokenizer.hasMoreFields()) {
+                tokenizer.enter(ITEMS_SEPARATOR);
+                if (tokenizer.countFields(ITEM_DETAIL_SEPARATOR) == 4) {
+                    order.addItem(OrderItem.ofCents(
+                            tokenizer.nextString(ITEM_DETAIL_SEPARATOR),
+                            tokenizer.nextInt(ITEM_DETAIL_SEPARATOR),
+                            tokenizer.nextCents(ITEM_DETAIL_SEPARATOR),
+                            tokenizer.nextCents(ITEM_DETAIL_SEPARATOR)
+                    ));
+                }
+                tokenizer.exit();
+            }
+            tokenizer.exit();
+        }
+        order.setOrderTotalCents(orderTotalCentsFromFile);
+        return order;
+    }
+
+    private String formatOrder(Order order) {
+        StringBuilder record = new StringBuilder(128)
+                .append(order.getOrderId()).append(ORDER_SEPARATOR)
+                .append(order.getCustomerEmail()).append(ORDER_SEPARATOR)
+                .append(order.getOrderDate().format(DateTimeFormatter.ISO_LOCAL_DATE)).append(ORDER_SEPARATOR)
+                .append(order.getStatus()).append(ORDER_SEPARATOR);
+        Money.appendTo(record, order.getOrderTotalCents()).append(ORDER_SEPARATOR);
+        for (int i = 0; i < order.getItems().size(); i++) {
+            OrderItem item = order.getItems().get(i);
+            if (i > 0) {
+                record.append(ITEMS_SEPARATOR);
+            }
+            record.append(item.getMealName()).append(ITEM_DETAIL_SEPARATOR)
+                    .append(item.getQuantity()).append(ITEM_DETAIL_SEPARATOR);
+            Money.appendTo(record, item.getUnitPriceCents()).append(ITEM_DETAIL_SEPARATOR);
+            Money.appendTo(record, item.getItemTotalCents());
+        }
+        return record.toString();
+    }
+
+    private void appendToJournal(String record) {
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving orders: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+        if (journal.needsCompaction(ordersById.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    private synchronized void compact() {
+        reloadIfFileChanged();
+        LOGGER.fine(() -> "Compacting " + filePath + " to " + ordersById.size() + " orders.");
+        try {
+            journal.rewrite(ordersById.values(), this::formatOrder);
         } catch (IOException e) {
-            System.err.println("Error saving orders: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "Error compacting orders: {0}", e.getMessage());
         }
+        residentFile.markInSync();
     }
 
-    public void saveOrder(Order orderToSave) {
-        List<Order> orders = loadOrders();
-        Optional<Order> existingOrder = orders.stream()
-                .filter(o -> o.getOrderId().equals(orderToSave.getOrderId()))
-                .findFirst();
+    public synchronized void saveOrder(Order orderToSave) {
+        reloadIfFileChanged();
+        Order stored = new Order(orderToSave);
+        index(stored);
+        String record = formatOrder(stored);
+        LOGGER.finest(() -> "Writing line: " + record);
+        appendToJournal(record);
+    }
 
-        if (existingOrder.isPresent()) {
-            orders.remove(existingOrder.get());
+    public synchronized boolean deleteOrder(String orderId) {
+        reloadIfFileChanged();
+        Order removed = ordersById.remove(orderId);
+        if (removed == null) {
+            return false;
         }
-        orders.add(orderToSave);
-        saveAllOrders(orders);
+        unindexSecondary(removed);
+        revenueRollup.remove(orderId);
+        appendToJournal(journal.tombstone(orderId));
+        return true;
+    }
+
+    public synchronized Order findOrderById(String orderId) {
+        reloadIfFileChanged();
+        Order order = ordersById.get(orderId);
+        return order == null ? null : new Order(order);
+    }
+
+    public synchronized List<Order> findOrdersByCustomerEmail(String email) {
+        reloadIfFileChanged();
+        return copyOf(ordersByCustomerEmail.get(email));
+    }
+
+    public synchronized List<Order> findOrdersByDate(LocalDate date) {
+        reloadIfFileChanged();
+        return copyOf(ordersByDate.get(date));
     }
 
-    public Order findOrderById(String orderId) {
-        return loadOrders().stream()
-                .filter(order -> order.getOrderId().equals(orderId))
-                .findFirst()
-                .orElse(null);
+    /** Sum of all order totals for the month, whatever their status, as of the last save. */
+    public synchronized long getRevenueCentsForMonth(YearMonth month) {
+        reloadIfFileChanged();
+        return revenueRollup.monthCents(month);
     }
 
-    public List<Order> findOrdersByCustomerEmail(String email) {
-        return loadOrders().stream()
-                .filter(order -> order.getCustomerEmail().equals(email))
-                .collect(Collectors.toList());
+    public synchronized long getRevenueCentsForMonth(YearMonth month, Predicate<String> statusFilter) {
+        reloadIfFileChanged();
+        return revenueRollup.monthCents(month, statusFilter);
     }
 
-    public List<Order> getAllOrders() {
-        return loadOrders();
+    public synchronized int countOrdersForMonth(YearMonth month, Predicate<String> statusFilter) {
+        reloadIfFileChanged();
+        return revenueRollup.monthOrderCount(month, statusFilter);
+    }
+
+    public synchronized long getTotalRevenueCents() {
+        reloadIfFileChanged();
+        return revenueRollup.totalCents();
+    }
+
+    public synchronized long getTotalRevenueCents(Predicate<String> statusFilter) {
+        reloadIfFileChanged();
+        return revenueRollup.totalCents(statusFilter);
+    }
+
+    public synchronized List<Order> getAllOrders() {
+        reloadIfFileChanged();
+        return copyOf(ordersById);
+    }
+
+    private static List<Order> copyOf(Map<String, Order> orders) {
+        if (orders == null) {
+            return Collections.emptyList();
+        }
+        List<Order> copies = new ArrayList<>(orders.size());
+        for (Order order : orders.values()) {
+            copies.add(new Order(order));
+        }
+        return copies;
     }
-}
\ No newline at end of file
+}
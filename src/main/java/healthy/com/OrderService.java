@@ -1,20 +1,44 @@
 package healthy.com;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate; // Added
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class OrderService {
     private OrderRepository orderRepository;
     private CustomerRepository customerRepository;
+    private OrderArchive orderArchive;
 
     public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
     }
 
+    /**
+     * Routes the completed-order analytics below to a columnar archive instead of the live
+     * orders. The archive is a snapshot: orders closed after it was built are not included.
+     */
+    public void setOrderArchive(OrderArchive orderArchive) {
+        this.orderArchive = orderArchive;
+    }
+
+    /** Builds an archive from the current completed orders, writes it to {@code path} and starts using it. */
+    public OrderArchive archiveCompletedOrders(Path path) throws IOException {
+        OrderArchive archive = OrderArchive.of(orderRepository.getAllOrders());
+        archive.writeTo(path);
+        this.orderArchive = archive;
+        return archive;
+    }
+
     public void addOrderForTesting(Order order) {
         if (orderRepository.findOrderById(order.getOrderId()) == null) {
             orderRepository.saveOrder(order);
@@ -43,16 +67,43 @@ public class OrderService {
     }
 
     public double getTotalRevenueForMonth(YearMonth monthYear) {
-        return orderRepository.getAllOrders().stream()
-                .filter(order -> order.getOrderDate() != null && YearMonth.from(order.getOrderDate()).equals(monthYear))
-                .mapToDouble(Order::getOrderTotalPrice)
-                .sum();
+        return Money.toDouble(orderRepository.getRevenueCentsForMonth(monthYear));
     }
 
     public double getOverallTotalRevenue() {
-        return orderRepository.getAllOrders().stream()
-                .mapToDouble(Order::getOrderTotalPrice)
-                .sum();
+        return Money.toDouble(orderRepository.getTotalRevenueCents());
+    }
+
+    public double getCompletedRevenueForMonth(YearMonth monthYear) {
+        if (orderArchive != null) {
+            return Money.toDouble(orderArchive.getRevenueCentsForMonth(monthYear));
+        }
+        return Money.toDouble(orderRepository.getRevenueCentsForMonth(monthYear, OrderArchive::isClosed));
+    }
+
+    public double getCompletedOverallRevenue() {
+        if (orderArchive != null) {
+            return Money.toDouble(orderArchive.getTotalRevenueCents());
+        }
+        return Money.toDouble(orderRepository.getTotalRevenueCents(OrderArchive::isClosed));
+    }
+
+    public int countCompletedOrdersForMonth(YearMonth monthYear) {
+        return orderRepository.countOrdersForMonth(monthYear, OrderArchive::isClosed);
+    }
+
+    /** Order lines per meal name among the month's completed orders, most frequent first. */
+    public Map<String, Long> getMealFrequenciesForMonth(YearMonth monthYear) {
+        if (orderArchive != null) {
+            return orderArchive.getMealFrequenciesForMonth(monthYear);
+        }
+        Map<String, Long> counts = getAllCompletedOrders().stream()
+                .filter(order -> order.getOrderDate() != null && YearMonth.from(order.getOrderDate()).equals(monthYear))
+                .flatMap(order -> order.getItems().stream())
+                .collect(Collectors.groupingBy(OrderItem::getMealName, Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
     }
 
     public List<Order> getAllCompletedOrders() {
@@ -84,8 +135,30 @@ public class OrderService {
     }
 
     public List<Order> getOrdersScheduledForDeliveryOn(LocalDate date) {
-        return orderRepository.getAllOrders().stream()
-                .filter(order -> order.getOrderDate() != null && order.getOrderDate().equals(date))
-                .collect(Collectors.toList());
+        return orderRepository.findOrdersByDate(date);
+    }
+
+    /**
+     * Customers with {@code allergy} who have at least one order dated {@code date}, e.g. everyone
+     * with a peanut allergy eating today, in the order they were saved. One hash join of the two
+     * index entries, so the cost is linear in their sizes and independent of all other data.
+     */
+    public List<Customer> getCustomersWithAllergyOrderingOn(String allergy, LocalDate date) {
+        List<Customer> allergic = customerRepository.findCustomersWithAllergy(allergy);
+        List<Order> dayOrders = orderRepository.findOrdersByDate(date);
+        if (allergic.isEmpty() || dayOrders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> emailsOrdering = new HashSet<>();
+        for (Order order : dayOrders) {
+            emailsOrdering.add(order.getCustomerEmail());
+        }
+        List<Customer> result = new ArrayList<>();
+        for (Customer customer : allergic) {
+            if (emailsOrdering.contains(customer.getEmail())) {
+                result.add(customer);
+            }
+        }
+        return result;
     }
 }
\ No newline at end of file
@@ -10,8 +10,8 @@ public class PurchaseOrder {
     private String supplierName;
     private int quantity;
     private String unit;
-    private double pricePerUnit;
-    private double totalCost;
+    private double pricePerUnit; // supplier price, which may carry more than two decimals
+    private long totalCostCents;
     private LocalDate orderDate;
     private String status; // e.g., "Generated", "Sent", "Confirmed", "Received"
     private boolean automaticallyGenerated;
@@ -23,7 +23,7 @@ public class PurchaseOrder {
         this.quantity = quantity;
         this.unit = unit;
         this.pricePerUnit = pricePerUnit;
-        this.totalCost = quantity * pricePerUnit;
+        this.totalCostCents = Money.toCents(quantity * pricePerUnit);
         this.orderDate = LocalDate.now();
         this.status = "Generated"; // Default status
         this.automaticallyGenerated = auto;
@@ -58,7 +58,11 @@ public class PurchaseOrder {
     }
 
     public double getTotalCost() {
-        return totalCost;
+        return Money.toDouble(totalCostCents);
+    }
+
+    public long getTotalCostCents() {
+        return totalCostCents;
     }
 
     public LocalDate getOrderDate() {
@@ -77,6 +81,11 @@ public class PurchaseOrder {
         this.status = status;
     }
 
+    /** Still expected from the supplier: neither received nor cancelled. */
+    public boolean isOpen() {
+        return !"Received".equalsIgnoreCase(status) && !"Cancelled".equalsIgnoreCase(status);
+    }
+
     public boolean isAutomaticallyGenerated() {
         return automaticallyGenerated;
     }
@@ -101,8 +110,8 @@ public class PurchaseOrder {
                 ", item='" + ingredientName + '\'' +
                 ", supplier='" + supplierName + '\'' +
                 ", qty=" + quantity + " " + unit +
-                ", price=" + String.format("%.2f", pricePerUnit) +
-                ", total=" + String.format("%.2f", totalCost) +
+                ", price=" + Money.format(Money.toCents(pricePerUnit)) +
+                ", total=" + Money.format(totalCostCents) +
                 ", date=" + orderDate.format(DateTimeFormatter.ISO_LOCAL_DATE) +
                 ", status='" + status + '\'' +
                 ", auto=" + automaticallyGenerated +
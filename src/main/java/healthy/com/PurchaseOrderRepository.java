@@ -0,0 +1,207 @@
+package healthy.com;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Purchase orders, one appended record per save: {@code id;ingredient;supplier;quantity;unit;
+ * pricePerUnit;orderDate;status;auto}, the last record for an id winning. Open orders are
+ * indexed by ingredient and supplier, so checking whether a reorder is already on its way
+ * costs O(1). Built without a data file, the orders are kept in memory only.
+ */
+public class PurchaseOrderRepository {
+    private static final Logger LOGGER = Logger.getLogger(PurchaseOrderRepository.class.getName());
+    /** Where the application keeps its purchase orders. */
+    public static final Path DEFAULT_DATA_FILE = Paths.get("src/main/resources/purchase_orders.txt");
+    private static final char SEPARATOR = ';';
+    private static final int FIELDS = 9;
+
+    private final Map<String, PurchaseOrder> ordersById = new LinkedHashMap<>();
+    private final Map<String, PurchaseOrder> openOrdersByItem = new HashMap<>();
+    // All null when the orders are kept in memory only.
+    private final String filePath;
+    private final ResidentDataFile residentFile;
+    private final RecordJournal journal;
+
+    public PurchaseOrderRepository() {
+        this.filePath = null;
+        this.residentFile = null;
+        this.journal = null;
+    }
+
+    public PurchaseOrderRepository(Path dataFile) {
+        this.filePath = dataFile.toString();
+        this.residentFile = new ResidentDataFile(dataFile, SEPARATOR);
+        this.journal = residentFile.journal();
+        reloadOrders();
+    }
+
+    private static String itemKey(String ingredientName, String supplierName) {
+        return ingredientName + SEPARATOR + supplierName;
+    }
+
+    private void reloadOrders() {
+        journal.close();
+        ordersById.clear();
+        openOrdersByItem.clear();
+        File file = new File(filePath);
+        long recordsRead = 0;
+        if (file.exists() && file.length() > 0) {
+            RecordTokenizer tokenizer = new RecordTokenizer();
+            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    tokenizer.reset(line);
+                    if (tokenizer.isBlank()) continue;
+                    recordsRead++;
+                    if (tokenizer.countFields(SEPARATOR) != FIELDS) {
+                        LOGGER.log(Level.WARNING, "Skipping malformed purchase order record: {0}", line);
+                        continue;
+                    }
+                    String id = tokenizer.nextString(SEPARATOR);
+                    String ingredientName = tokenizer.nextString(SEPARATOR);
+                    String supplierName = tokenizer.nextString(SEPARATOR);
+                    int quantity = tokenizer.nextInt(SEPARATOR);
+                    String unit = tokenizer.nextString(SEPARATOR);
+                    double pricePerUnit = tokenizer.nextDouble(SEPARATOR);
+                    LocalDate orderDate = LocalDate.parse(tokenizer.nextString(SEPARATOR));
+                    String status = tokenizer.nextString(SEPARATOR);
+                    boolean auto = Boolean.parseBoolean(tokenizer.nextString(SEPARATOR));
+                    PurchaseOrder order = new PurchaseOrder(id, ingredientName, supplierName, quantity, unit,
+                            pricePerUnit, auto);
+                    order.setOrderDate(orderDate);
+                    order.setStatus(status);
+                    index(order);
+                }
+            } catch (IOException | NumberFormatException | DateTimeParseException e) {
+                LOGGER.log(Level.SEVERE, "Error loading purchase orders: {0}", e.getMessage());
+            }
+        }
+        journal.resetRecordCount(recordsRead);
+        residentFile.markInSync();
+    }
+
+    private void reloadIfFileChanged() {
+        if (residentFile != null) {
+            residentFile.reloadIfChanged(this::reloadOrders);
+        }
+    }
+
+    private void index(PurchaseOrder order) {
+        PurchaseOrder previous = ordersById.remove(order.getPurchaseOrderId());
+        if (previous != null) {
+            openOrdersByItem.remove(itemKey(previous.getIngredientName(), previous.getSupplierName()), previous);
+        }
+        ordersById.put(order.getPurchaseOrderId(), order);
+        if (order.isOpen()) {
+            openOrdersByItem.put(itemKey(order.getIngredientName(), order.getSupplierName()), order);
+        }
+    }
+
+    private String formatOrder(PurchaseOrder order) {
+        return new StringBuilder()
+                .append(order.getPurchaseOrderId()).append(SEPARATOR)
+                .append(order.getIngredientName()).append(SEPARATOR)
+                .append(order.getSupplierName()).append(SEPARATOR)
+                .append(order.getQuantity()).append(SEPARATOR)
+                .append(order.getUnit()).append(SEPARATOR)
+                .append(order.getPricePerUnit()).append(SEPARATOR)
+                .append(order.getOrderDate()).append(SEPARATOR)
+                .append(order.getStatus()).append(SEPARATOR)
+                .append(order.isAutomaticallyGenerated())
+                .toString();
+    }
+
+    private void appendOrder(PurchaseOrder order) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(formatOrder(order));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving purchase orders: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+        if (journal.needsCompaction(ordersById.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    private synchronized void compact() {
+        reloadIfFileChanged();
+        try {
+            journal.rewrite(ordersById.values(), this::formatOrder);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error compacting purchase orders: {0}", e.getMessage());
+        }
+        residentFile.markInSync();
+    }
+
+    public synchronized void savePurchaseOrder(PurchaseOrder order) {
+        reloadIfFileChanged();
+        index(order);
+        appendOrder(order);
+    }
+
+    /**
+     * Saves the order unless another open order for the same ingredient and supplier exists,
+     * as one step; returns false, saving nothing, in that case.
+     */
+    public synchronized boolean saveIfNoOpenOrder(PurchaseOrder order) {
+        reloadIfFileChanged();
+        PurchaseOrder open = openOrdersByItem.get(itemKey(order.getIngredientName(), order.getSupplierName()));
+        if (open != null && !open.getPurchaseOrderId().equals(order.getPurchaseOrderId())) {
+            return false;
+        }
+        index(order);
+        appendOrder(order);
+        return true;
+    }
+
+    public synchronized PurchaseOrder findOpenOrder(String ingredientName, String supplierName) {
+        reloadIfFileChanged();
+        return openOrdersByItem.get(itemKey(ingredientName, supplierName));
+    }
+
+    public synchronized PurchaseOrder findPurchaseOrderById(String purchaseOrderId) {
+        reloadIfFileChanged();
+        return ordersById.get(purchaseOrderId);
+    }
+
+    /** Records a new status, e.g. "Received", which closes the order and allows the next reorder. */
+    public synchronized boolean updateStatus(String purchaseOrderId, String status) {
+        reloadIfFileChanged();
+        PurchaseOrder order = ordersById.get(purchaseOrderId);
+        if (order == null) {
+            LOGGER.log(Level.WARNING, "Cannot update status, purchase order not found: {0}", purchaseOrderId);
+            return false;
+        }
+        order.setStatus(status);
+        index(order);
+        appendOrder(order);
+        return true;
+    }
+
+    public synchronized List<PurchaseOrder> getAllPurchaseOrders() {
+        reloadIfFileChanged();
+        return new ArrayList<>(ordersById.values());
+    }
+
+    public synchronized List<PurchaseOrder> getOpenPurchaseOrders() {
+        reloadIfFileChanged();
+        return new ArrayList<>(openOrdersByItem.values());
+    }
+}
@@ -7,20 +7,32 @@ import java.util.Map;
 import java.util.UUID;
 
 public class PurchasingService {
+    public static final long DEFAULT_REORDER_SWEEP_SECONDS = 60;
+
     private final IngredientRepository ingredientRepository;
     private final SupplierRepository supplierRepository;
-    private Map<String, IngredientSupplierLink> ingredientLinksData;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final ReorderPipeline reorderPipeline;
+    // Replaced wholesale on load, and read by the reorder pipeline's thread.
+    private volatile Map<String, IngredientSupplierLink> ingredientLinksData;
 
-    public PurchasingService(IngredientRepository ingredientRepository, SupplierRepository supplierRepository, Map<String, IngredientSupplierLink> ingredientLinksData) {
+    public PurchasingService(IngredientRepository ingredientRepository, SupplierRepository supplierRepository,
+                             PurchaseOrderRepository purchaseOrderRepository, Map<String, IngredientSupplierLink> ingredientLinksData) {
         this.ingredientRepository = ingredientRepository;
         this.supplierRepository = supplierRepository;
+        this.purchaseOrderRepository = purchaseOrderRepository;
         this.ingredientLinksData = ingredientLinksData != null ? new HashMap<>(ingredientLinksData) : new HashMap<>();
+        this.reorderPipeline = new ReorderPipeline(ReorderPipeline.DEFAULT_CAPACITY, this::reorderIfStillLow,
+                ingredientRepository::getIngredientsBelowReorderLevel);
+    }
+
+    // Without a purchase order repository the orders placed are kept in memory only.
+    public PurchasingService(IngredientRepository ingredientRepository, SupplierRepository supplierRepository, Map<String, IngredientSupplierLink> ingredientLinksData) {
+        this(ingredientRepository, supplierRepository, new PurchaseOrderRepository(), ingredientLinksData);
     }
 
     public PurchasingService(IngredientRepository ingredientRepository, SupplierRepository supplierRepository) {
-        this.ingredientRepository = ingredientRepository;
-        this.supplierRepository = supplierRepository;
-        this.ingredientLinksData = new HashMap<>();
+        this(ingredientRepository, supplierRepository, new PurchaseOrderRepository(), null);
     }
 
     public Double fetchRealTimePrice(String ingredientName, String supplierName) {
@@ -79,25 +91,7 @@ public class PurchasingService {
         List<Ingredient> lowStockIngredients = inventoryService.getIngredientsNeedingRestocking();
 
         for (Ingredient ingredient : lowStockIngredients) {
-            IngredientSupplierLink linkData = findLinkDataForIngredient(ingredient.getName());
-            if (linkData == null) {
-                System.err.println("No supplier link data found for critically low ingredient: " + ingredient.getName());
-                continue;
-            }
-
-            Supplier supplier = supplierRepository.findSupplierById(linkData.getSupplierId());
-            if (supplier == null) {
-                System.err.println("Supplier with ID " + linkData.getSupplierId() + " not found for ingredient " + ingredient.getName());
-                continue;
-            }
-
-            Double price = supplier.getPriceForItem(ingredient.getName());
-            if (price == null) {
-                System.err.println("Real-time price for " + ingredient.getName() + " from " + supplier.getName() + " not set for auto-ordering.");
-                continue;
-            }
-
-            PurchaseOrder po = generateAutomaticPurchaseOrder(ingredient, supplier, linkData.getDefaultReorderQty(), price);
+            PurchaseOrder po = placeAutomaticReorder(ingredient);
             if (po != null) {
                 notifications.add("Automatically generated purchase order for " + ingredient.getName());
             }
@@ -105,6 +99,76 @@ public class PurchasingService {
         return notifications;
     }
 
+    /**
+     * Generates and stores a purchase order for the ingredient from its linked supplier, unless
+     * an open order for the same ingredient and supplier is already on its way. Returns the new
+     * order, or null if none was placed.
+     */
+    private PurchaseOrder placeAutomaticReorder(Ingredient ingredient) {
+        IngredientSupplierLink linkData = findLinkDataForIngredient(ingredient.getName());
+        if (linkData == null) {
+            System.err.println("No supplier link data found for critically low ingredient: " + ingredient.getName());
+            return null;
+        }
+
+        Supplier supplier = supplierRepository.findSupplierById(linkData.getSupplierId());
+        if (supplier == null) {
+            System.err.println("Supplier with ID " + linkData.getSupplierId() + " not found for ingredient " + ingredient.getName());
+            return null;
+        }
+
+        if (purchaseOrderRepository.findOpenOrder(ingredient.getName(), supplier.getName()) != null) {
+            return null;
+        }
+
+        Double price = supplier.getPriceForItem(ingredient.getName());
+        if (price == null) {
+            System.err.println("Real-time price for " + ingredient.getName() + " from " + supplier.getName() + " not set for auto-ordering.");
+            return null;
+        }
+
+        PurchaseOrder po = generateAutomaticPurchaseOrder(ingredient, supplier, linkData.getDefaultReorderQty(), price);
+        // A concurrent check may have ordered the same item since we looked.
+        if (po == null || !purchaseOrderRepository.saveIfNoOpenOrder(po)) {
+            return null;
+        }
+        return po;
+    }
+
+    // Runs on the pipeline's thread; the stock may have been topped up since it was reported.
+    private PurchaseOrder reorderIfStillLow(String ingredientName) {
+        Ingredient ingredient = ingredientRepository.findIngredientByName(ingredientName);
+        if (ingredient == null || ingredient.getCurrentStock() >= ingredient.getReorderLevel()
+                || findLinkDataForIngredient(ingredientName) == null) {
+            return null;
+        }
+        return placeAutomaticReorder(ingredient);
+    }
+
+    /**
+     * Reorders low-stock ingredients as they cross their reorder level rather than when
+     * {@link #checkAndGenerateAutoOrders} is called, with a sweep every {@code sweepSeconds}
+     * for anything the pipeline could not take at the time. Ingredients without supplier link
+     * data are skipped quietly.
+     */
+    public void startAutoReorder(long sweepSeconds) {
+        ingredientRepository.setLowStockListener(ingredient -> reorderPipeline.submit(ingredient.getName()));
+        reorderPipeline.start(sweepSeconds);
+    }
+
+    public void stopAutoReorder() {
+        ingredientRepository.setLowStockListener(null);
+        reorderPipeline.stop();
+    }
+
+    public ReorderPipeline getReorderPipeline() {
+        return reorderPipeline;
+    }
+
+    public PurchaseOrderRepository getPurchaseOrderRepository() {
+        return purchaseOrderRepository;
+    }
+
     public void loadIngredientLinksData(Map<String, IngredientSupplierLink> links) {
         if (links != null) {
             this.ingredientLinksData = new HashMap<>(links);
@@ -42,6 +42,25 @@ public class Recipe {
         }
     }
 
+    // Used by RecipeRepository, which fills in the fields as it reads them from the data file.
+    Recipe(String name) {
+        this.name = name;
+        this.ingredients = new HashSet<>();
+        this.tags = new HashSet<>();
+    }
+
+    void addIngredient(String ingredient) {
+        this.ingredients.add(ingredient);
+    }
+
+    void setTimeMinutes(int timeMinutes) {
+        this.timeMinutes = timeMinutes;
+    }
+
+    void addTag(String tag) {
+        this.tags.add(tag);
+    }
+
     public String getName() {
         return name;
     }
@@ -14,22 +14,29 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class RecipeRepository {
-    private static final String FILE_PATH = "src/main/resources/recipes.txt";
-    private static final String SEPARATOR = ";";
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/recipes.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+    private final String filePath;
 
     private List<Recipe> recipesCache;
 
     public RecipeRepository() {
+        this(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    public RecipeRepository(Path dataFile) {
+        this.filePath = dataFile.toString();
         this.recipesCache = new ArrayList<>();
         loadRecipesFromFile();
     }
 
     private void loadRecipesFromFile() {
         this.recipesCache.clear();
-        File file = new File(FILE_PATH);
+        File file = new File(filePath);
         if (!file.exists()) {
             try {
-                Path path = Paths.get(FILE_PATH);
+                Path path = Paths.get(filePath);
                 if (!Files.exists(path.getParent())) {
                     Files.createDirectories(path.getParent());
                 }
@@ -40,18 +47,19 @@ public class RecipeRepository {
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(SEPARATOR, -1);
-                if (parts.length == 4) {
-                    String name = parts[0].trim();
-                    String ingredientsString = parts[1].trim();
-                    String timeString = parts[2].trim();
-                    String tagsString = parts[3].trim();
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                if (tokenizer.countFields(SEPARATOR) == 4) { // name;ingredients;time;tags
+                    Recipe recipe = new Recipe(tokenizer.nextTrimmed(SEPARATOR));
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, recipe::addIngredient);
+                    recipe.setTimeMinutes(readMinutes(tokenizer, recipe.getName()));
+                    tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, recipe::addTag);
 
-                    this.recipesCache.add(new Recipe(name, ingredientsString, timeString, tagsString));
+                    this.recipesCache.add(recipe);
                 } else {
                     System.err.println("Skipping malformed line in recipes.txt: " + line);
                 }
@@ -61,30 +69,38 @@ public class RecipeRepository {
         }
     }
 
-    public void refreshCache() {
+    private static int readMinutes(RecordTokenizer tokenizer, String recipeName) {
+        if (tokenizer.isFieldBlank(SEPARATOR)) {
+            tokenizer.skipField(SEPARATOR);
+            return 0;
+        }
+        try {
+            return tokenizer.nextDigits(SEPARATOR);
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: Could not parse time for recipe '" + recipeName + "': " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public synchronized void refreshCache() {
         loadRecipesFromFile();
     }
 
-    public List<Recipe> getAllRecipes() {
-        if (this.recipesCache.isEmpty() && new File(FILE_PATH).exists() && new File(FILE_PATH).length() > 0) {
+    public synchronized List<Recipe> getAllRecipes() {
+        if (this.recipesCache.isEmpty() && new File(filePath).exists() && new File(filePath).length() > 0) {
             loadRecipesFromFile();
         }
         return new ArrayList<>(this.recipesCache); // Return a copy
     }
 
-    public void saveAllRecipes(List<Recipe> recipesToSave) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
+    public synchronized void saveAllRecipes(List<Recipe> recipesToSave) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, false))) {
             for (Recipe recipe : recipesToSave) {
                 String ingredients = String.join(",", recipe.getIngredients());
                 String tags = String.join(",", recipe.getTags());
                 String time = recipe.getTimeMinutes() + " minutes";
 
-                writer.write(String.join(SEPARATOR,
-                        recipe.getName(),
-                        ingredients,
-                        time,
-                        tags
-                ));
+                writer.write(recipe.getName() + SEPARATOR + ingredients + SEPARATOR + time + SEPARATOR + tags);
                 writer.newLine();
             }
             refreshCache();
@@ -0,0 +1,129 @@
+package healthy.com;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only, line-oriented data file. Every save appends one record; when the same key is
+ * written more than once the last record wins, and a {@code DELETED;<key>} line is a tombstone.
+ * Once dead records outnumber live ones the owner rewrites the file as a compact snapshot on a
+ * shared background thread.
+ */
+class RecordJournal {
+    private static final Logger LOGGER = Logger.getLogger(RecordJournal.class.getName());
+    static final String TOMBSTONE_MARKER = "DELETED";
+    private static final int MIN_RECORDS_BEFORE_COMPACTION = 1024;
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "record-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path path;
+    private final char separator;
+    private final AtomicBoolean compactionPending = new AtomicBoolean(false);
+    private BufferedWriter appender;
+    private long recordCount;
+
+    RecordJournal(Path path, char separator) {
+        this.path = path;
+        this.separator = separator;
+    }
+
+    /** Checks, without consuming anything, whether the tokenizer's current line is a tombstone. */
+    static boolean isTombstone(RecordTokenizer tokenizer, char separator) {
+        return tokenizer.countFields(separator) == 2 && tokenizer.fieldEquals(separator, TOMBSTONE_MARKER);
+    }
+
+    void append(String record) throws IOException {
+        if (appender == null) {
+            appender = new BufferedWriter(new FileWriter(path.toFile(), true));
+        }
+        appender.write(record);
+        appender.newLine();
+        appender.flush();
+        recordCount++;
+    }
+
+    /** Appends one record per entry and flushes once, for bulk saves. */
+    <T> void appendAll(Collection<T> entries, Function<T, String> formatter) throws IOException {
+        if (appender == null) {
+            appender = new BufferedWriter(new FileWriter(path.toFile(), true));
+        }
+        for (T entry : entries) {
+            appender.write(formatter.apply(entry));
+            appender.newLine();
+        }
+        appender.flush();
+        recordCount += entries.size();
+    }
+
+    String tombstone(String key) {
+        return TOMBSTONE_MARKER + separator + key;
+    }
+
+    /** Called by the owner after replaying the file, with the number of records it read. */
+    void resetRecordCount(long recordsOnDisk) {
+        this.recordCount = recordsOnDisk;
+    }
+
+    boolean needsCompaction(int liveRecords) {
+        return recordCount > MIN_RECORDS_BEFORE_COMPACTION && recordCount > 2L * liveRecords;
+    }
+
+    /** Runs the owner's compaction on the background thread, at most one pending run per journal. */
+    void scheduleCompaction(Runnable compaction) {
+        if (compactionPending.compareAndSet(false, true)) {
+            COMPACTOR.execute(() -> {
+                try {
+                    compaction.run();
+                } finally {
+                    compactionPending.set(false);
+                }
+            });
+        }
+    }
+
+    /** Replaces the journal with a snapshot holding one record per live entry. */
+    <T> void rewrite(Collection<T> liveEntries, Function<T, String> formatter) throws IOException {
+        close();
+        Path snapshot = path.resolveSibling(path.getFileName() + ".compacting");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(snapshot.toFile(), false))) {
+            for (T entry : liveEntries) {
+                writer.write(formatter.apply(entry));
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(snapshot, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(snapshot, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        recordCount = liveEntries.size();
+    }
+
+    /** Releases the append handle; the next append reopens the file, which may have been replaced. */
+    void close() {
+        if (appender != null) {
+            try {
+                appender.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error closing journal {0}: {1}", new Object[]{path, e.getMessage()});
+            }
+            appender = null;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package healthy.com;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-pass cursor over one line of a data file. Fields are read left to right with the
+ * separator for the current level ({@code ;}, {@code |}, {@code ,}, {@code ~} or {@code :});
+ * {@link #enter(char)} narrows the cursor to one field so its nested list can be read with the
+ * next separator, and {@link #exit()} returns to the enclosing level. Separators are found by a
+ * plain character scan and numbers are parsed in place, so no regex, split array or numeric
+ * substring is created per line.
+ *
+ * <p>Field semantics match {@code String.split(separator, -1)}: {@code "a;;b;"} holds the four
+ * fields {@code "a"}, {@code ""}, {@code "b"} and {@code ""}. One instance is meant to be reset
+ * and reused for every line of a load.
+ */
+final class RecordTokenizer {
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private CharSequence source = "";
+    private int position;
+    private int limit;
+    private final int[] enclosingLimits = new int[MAX_DEPTH];
+    private int depth;
+
+    RecordTokenizer reset(CharSequence source) {
+        return reset(source, 0, source.length());
+    }
+
+    RecordTokenizer reset(CharSequence source, int start, int end) {
+        this.source = source;
+        this.position = start;
+        this.limit = end;
+        this.depth = 0;
+        return this;
+    }
+
+    /** True while at least one field (possibly empty) remains at the current level. */
+    boolean hasMoreFields() {
+        return position <= limit;
+    }
+
+    /** True if the rest of the current level is empty or whitespace only. */
+    boolean isBlank() {
+        for (int i = position; i < limit; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Number of fields left at the current level, without moving the cursor. */
+    int countFields(char separator) {
+        if (position > limit) {
+            return 0;
+        }
+        int fields = 1;
+        for (int i = position; i < limit; i++) {
+            if (source.charAt(i) == separator) {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    boolean isFieldEmpty(char separator) {
+        return fieldEnd(separator) == position;
+    }
+
+    boolean isFieldBlank(char separator) {
+        int end = fieldEnd(separator);
+        for (int i = position; i < end; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Compares the next field with {@code literal} without consuming it. */
+    boolean fieldEquals(char separator, String literal) {
+        int end = fieldEnd(separator);
+        if (end - position != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (source.charAt(position + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void skipField(char separator) {
+        position = fieldEnd(separator) + 1;
+    }
+
+    String nextString(char separator) {
+        int end = fieldEnd(separator);
+        String value = source.subSequence(position, end).toString();
+        position = end + 1;
+        return value;
+    }
+
+    /** Everything left at the current level, separators included, for a free-text last field. */
+    String remaining() {
+        String value = source.subSequence(position, limit).toString();
+        position = limit + 1;
+        return value;
+    }
+
+    /** Like {@link #nextString(char)} with the same whitespace trimming as {@link String#trim()}. */
+    String nextTrimmed(char separator) {
+        int end = fieldEnd(separator);
+        int start = skipLeadingWhitespace(position, end);
+        int trimmedEnd = skipTrailingWhitespace(start, end);
+        String value = source.subSequence(start, trimmedEnd).toString();
+        position = end + 1;
+        return value;
+    }
+
+    int nextInt(char separator) {
+        int end = fieldEnd(separator);
+        int start = skipLeadingWhitespace(position, end);
+        int trimmedEnd = skipTrailingWhitespace(start, end);
+        position = end + 1;
+        return parseInt(start, trimmedEnd);
+    }
+
+    double nextDouble(char separator) {
+        int end = fieldEnd(separator);
+        int start = skipLeadingWhitespace(position, end);
+        int trimmedEnd = skipTrailingWhitespace(start, end);
+        position = end + 1;
+        return parseDouble(start, trimmedEnd);
+    }
+
+    /** Reads a money amount such as {@code 12.50} straight into cents; see {@link Money#parse(CharSequence)}. */
+    long nextCents(char separator) {
+        int end = fieldEnd(separator);
+        int start = skipLeadingWhitespace(position, end);
+        int trimmedEnd = skipTrailingWhitespace(start, end);
+        position = end + 1;
+        return Money.parse(source, start, trimmedEnd);
+    }
+
+    /**
+     * Reads only the digits of the next field, ignoring any other characters, so
+     * {@code "25 minutes"} yields 25. Throws {@link NumberFormatException} if there are none.
+     */
+    int nextDigits(char separator) {
+        int start = position;
+        int end = fieldEnd(separator);
+        position = end + 1;
+        long value = 0;
+        boolean sawDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Value out of range: \"" + source.subSequence(start, end) + "\"");
+                }
+            }
+        }
+        if (!sawDigit) {
+            throw new NumberFormatException("No digits in: \"" + source.subSequence(start, end) + "\"");
+        }
+        return (int) value;
+    }
+
+    /** Hands every trimmed, non-empty item of the next field's list to {@code consumer}. */
+    void forEachListItem(char fieldSeparator, char itemSeparator, Consumer<String> consumer) {
+        enter(fieldSeparator);
+        while (hasMoreFields()) {
+            if (isFieldBlank(itemSeparator)) {
+                skipField(itemSeparator);
+            } else {
+                consumer.accept(nextTrimmed(itemSeparator));
+            }
+        }
+        exit();
+    }
+
+    /** Narrows the cursor to the next field so its contents can be read with a nested separator. */
+    void enter(char separator) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Record nesting deeper than " + MAX_DEPTH);
+        }
+        enclosingLimits[depth++] = limit;
+        limit = fieldEnd(separator);
+    }
+
+    /** Skips whatever is left of the entered field and continues after its separator. */
+    void exit() {
+        position = limit + 1;
+        limit = enclosingLimits[--depth];
+    }
+
+    private int fieldEnd(char separator) {
+        for (int i = position; i < limit; i++) {
+            if (source.charAt(i) == separator) {
+                return i;
+            }
+        }
+        return Math.max(position, limit);
+    }
+
+    private int skipLeadingWhitespace(int start, int end) {
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int skipTrailingWhitespace(int start, int end) {
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private int parseInt(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            // Empty, or long enough to overflow: let the JDK produce the value or the exception.
+            return Integer.parseInt(source.subSequence(start, end).toString());
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.parseInt(source.subSequence(start, end).toString());
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Plain decimals of up to 15 significant digits are exact as a long mantissa, and dividing
+     * by an exactly representable power of ten rounds once, so the result is identical to
+     * {@link Double#parseDouble}. Anything else (exponents, NaN, long inputs) falls back to it.
+     */
+    private double parseDouble(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        boolean sawDigit = false;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (inFraction) {
+                    fractionDigits++;
+                }
+                if (digits > MAX_FAST_PATH_DIGITS) {
+                    return Double.parseDouble(source.subSequence(start, end).toString());
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                return Double.parseDouble(source.subSequence(start, end).toString());
+            }
+        }
+        if (!sawDigit || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(source.subSequence(start, end).toString());
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+}
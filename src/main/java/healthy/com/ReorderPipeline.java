@@ -0,0 +1,130 @@
+package healthy.com;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Turns low-stock events into purchase orders on a background thread. Events wait in a
+ * bounded queue holding at most one entry per ingredient, so a burst of stock use that keeps
+ * reporting the same ingredient costs one reorder. When the queue is full the report is
+ * dropped at once and the periodic sweep picks it up, so a slow supplier lookup never holds
+ * back the thread whose stock change made the report.
+ */
+public class ReorderPipeline {
+    private static final Logger LOGGER = Logger.getLogger(ReorderPipeline.class.getName());
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final BlockingQueue<String> queue;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Function<String, PurchaseOrder> reorder;
+    private final Supplier<? extends Collection<Ingredient>> lowStock;
+    private final AtomicLong ordersPlaced = new AtomicLong();
+    private final AtomicLong eventsDropped = new AtomicLong();
+    // Set while the queue is overflowing, so a burst of drops logs one warning.
+    private final AtomicBoolean saturated = new AtomicBoolean(false);
+    private Thread worker;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * {@code reorder} places the order for one ingredient, returning null when none is needed;
+     * {@code lowStock} lists the ingredients currently below their reorder level for the sweep.
+     */
+    public ReorderPipeline(int capacity, Function<String, PurchaseOrder> reorder,
+                           Supplier<? extends Collection<Ingredient>> lowStock) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.reorder = reorder;
+        this.lowStock = lowStock;
+    }
+
+    /**
+     * Queues a reorder check for the ingredient. Returns true if it is queued, including when
+     * it already was, and false if the queue is full. Never blocks.
+     */
+    public boolean submit(String ingredientName) {
+        if (!pending.add(ingredientName)) {
+            return true;
+        }
+        if (queue.offer(ingredientName)) {
+            return true;
+        }
+        pending.remove(ingredientName);
+        eventsDropped.incrementAndGet();
+        if (saturated.compareAndSet(false, true)) {
+            LOGGER.log(Level.WARNING, "Reorder queue full; low-stock reports will wait for the next sweep");
+        }
+        return false;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            String ingredientName;
+            try {
+                ingredientName = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            // Cleared first, so a report arriving while we order is queued again, not lost.
+            pending.remove(ingredientName);
+            if (queue.isEmpty()) {
+                saturated.set(false);
+            }
+            try {
+                if (reorder.apply(ingredientName) != null) {
+                    ordersPlaced.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error reordering " + ingredientName, e);
+            }
+        }
+    }
+
+    /** Queues every ingredient currently below its reorder level. */
+    public void sweep() {
+        for (Ingredient ingredient : lowStock.get()) {
+            submit(ingredient.getName());
+        }
+    }
+
+    /** Starts the worker, and a sweep every {@code sweepSeconds} on a background daemon thread. */
+    public synchronized void start(long sweepSeconds) {
+        if (worker != null) {
+            return;
+        }
+        worker = new Thread(this::drain, "reorder-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+        sweeper = BackgroundTasks.runPeriodically("reorder-sweeper", 0, sweepSeconds,
+                this::sweep, "Error sweeping for low stock");
+    }
+
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getOrdersPlaced() {
+        return ordersPlaced.get();
+    }
+
+    public long getEventsDropped() {
+        return eventsDropped.get();
+    }
+}
@@ -0,0 +1,40 @@
+package healthy.com;
+
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runtime switch for a repository's record-level debug output. Repositories log through
+ * {@link java.util.logging} at FINE/FINEST, which the default INFO configuration discards
+ * before any message is built; enabling debug attaches a console handler to that one logger.
+ */
+final class RepositoryLogging {
+    private RepositoryLogging() {
+    }
+
+    static void setDebugEnabled(Logger logger, boolean enabled) {
+        synchronized (logger) {
+            for (Handler handler : logger.getHandlers()) {
+                if (handler instanceof DebugConsoleHandler) {
+                    logger.removeHandler(handler);
+                }
+            }
+            if (enabled) {
+                logger.setLevel(Level.FINEST);
+                logger.addHandler(new DebugConsoleHandler());
+                logger.setUseParentHandlers(false);
+            } else {
+                logger.setLevel(null);
+                logger.setUseParentHandlers(true);
+            }
+        }
+    }
+
+    private static final class DebugConsoleHandler extends ConsoleHandler {
+        DebugConsoleHandler() {
+            setLevel(Level.FINEST);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package healthy.com;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The data file behind a resident repository: created on first use, written through a
+ * {@link RecordJournal}, and stamped after every load and write so the owner notices when
+ * another writer has changed the file and reloads it.
+ */
+final class ResidentDataFile {
+    private static final Logger LOGGER = Logger.getLogger(ResidentDataFile.class.getName());
+
+    private final Path path;
+    private final RecordJournal journal;
+    private final DataFileStamp stamp;
+
+    ResidentDataFile(Path path, char separator) {
+        this.path = path;
+        this.journal = new RecordJournal(path, separator);
+        this.stamp = new DataFileStamp(path);
+        createIfMissing(path);
+    }
+
+    /** Creates {@code path} and its parent directories if they do not exist yet. */
+    static void createIfMissing(Path path) {
+        try {
+            if (path.getParent() != null && !Files.exists(path.getParent())) {
+                Files.createDirectories(path.getParent());
+            }
+            if (!Files.exists(path)) {
+                Files.createFile(path);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error initializing data file {0}: {1}", new Object[]{path, e.getMessage()});
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    RecordJournal journal() {
+        return journal;
+    }
+
+    /** Marks the file as it is now as the one the owner's resident state matches. */
+    void markInSync() {
+        stamp.record();
+    }
+
+    /** Runs {@code reload} if the file was changed by someone else since the last {@link #markInSync()}. */
+    void reloadIfChanged(Runnable reload) {
+        if (stamp.isStale()) {
+            reload.run();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package healthy.com;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Order totals pre-aggregated by month and status, kept in step with the repository's writes.
+ * Each order's last recorded contribution is remembered by id, so re-saving an order whose
+ * status, date or total changed (the caller may have mutated the very same instance) moves its
+ * amount from the old bucket to the new one. Amounts are the orders' own cents, so repeated adds
+ * and removes never leave rounding residue behind.
+ */
+final class RevenueRollup {
+    private final Map<String, Contribution> contributionsByOrderId = new HashMap<>();
+    private final Map<YearMonth, Map<String, Totals>> totalsByMonth = new HashMap<>();
+    private final Map<String, Totals> totalsByStatus = new HashMap<>();
+    private long totalCents;
+
+    void record(Order order) {
+        Contribution contribution = new Contribution(YearMonth.from(order.getOrderDate()), order.getStatus(),
+                order.getOrderTotalCents());
+        Contribution previous = contributionsByOrderId.put(order.getOrderId(), contribution);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(contribution, 1);
+    }
+
+    void remove(String orderId) {
+        Contribution previous = contributionsByOrderId.remove(orderId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    void clear() {
+        contributionsByOrderId.clear();
+        totalsByMonth.clear();
+        totalsByStatus.clear();
+        totalCents = 0;
+    }
+
+    long totalCents() {
+        return totalCents;
+    }
+
+    long totalCents(Predicate<String> statusFilter) {
+        long cents = 0;
+        for (Map.Entry<String, Totals> entry : totalsByStatus.entrySet()) {
+            if (statusFilter.test(entry.getKey())) {
+                cents += entry.getValue().cents;
+            }
+        }
+        return cents;
+    }
+
+    long monthCents(YearMonth month) {
+        return monthCents(month, status -> true);
+    }
+
+    long monthCents(YearMonth month, Predicate<String> statusFilter) {
+        long cents = 0;
+        for (Map.Entry<String, Totals> entry : totalsByMonth.getOrDefault(month, Map.of()).entrySet()) {
+            if (statusFilter.test(entry.getKey())) {
+                cents += entry.getValue().cents;
+            }
+        }
+        return cents;
+    }
+
+    int monthOrderCount(YearMonth month, Predicate<String> statusFilter) {
+        int orders = 0;
+        for (Map.Entry<String, Totals> entry : totalsByMonth.getOrDefault(month, Map.of()).entrySet()) {
+            if (statusFilter.test(entry.getKey())) {
+                orders += entry.getValue().orders;
+            }
+        }
+        return orders;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        Map<String, Totals> monthTotals = totalsByMonth.computeIfAbsent(contribution.month, month -> new HashMap<>());
+        if (monthTotals.computeIfAbsent(contribution.status, status -> new Totals()).add(contribution.cents, sign)) {
+            monthTotals.remove(contribution.status);
+            if (monthTotals.isEmpty()) {
+                totalsByMonth.remove(contribution.month);
+            }
+        }
+        if (totalsByStatus.computeIfAbsent(contribution.status, status -> new Totals()).add(contribution.cents, sign)) {
+            totalsByStatus.remove(contribution.status);
+        }
+        totalCents += sign * contribution.cents;
+    }
+
+    private static final class Contribution {
+        final YearMonth month;
+        final String status;
+        final long cents;
+
+        Contribution(YearMonth month, String status, long cents) {
+            this.month = month;
+            this.status = status;
+            this.cents = cents;
+        }
+    }
+
+    private static final class Totals {
+        long cents;
+        int orders;
+
+        /** Returns true once the bucket no longer holds any order. */
+        boolean add(long amount, int sign) {
+            cents += sign * amount;
+            orders += sign;
+            return orders == 0;
+        }
+    }
+}
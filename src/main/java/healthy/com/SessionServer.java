@@ -0,0 +1,148 @@
+package healthy.com;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves console sessions over plain-text TCP on the loopback interface, one session per
+ * connection, e.g. {@code nc localhost 5050}. Every session shares the same services. On Java
+ * 21+ each session runs on its own virtual thread, so thousands of mostly idle sessions cost
+ * little; older runtimes fall back to a pooled platform thread per session, up to a fixed
+ * number of sessions, and turn away connections beyond that with a busy message.
+ */
+public class SessionServer {
+    private static final Logger LOGGER = Logger.getLogger(SessionServer.class.getName());
+    private static final int ACCEPT_BACKLOG = 1024;
+    // A session left idle this long is closed, as if the user had disconnected.
+    private static final int IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    public static final int DEFAULT_MAX_PLATFORM_SESSIONS = 200;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final int port;
+    private final BiConsumer<InputStream, PrintStream> session;
+    private final ExecutorService sessions;
+    private final boolean virtualThreads;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private volatile ServerSocket serverSocket;
+
+    /** {@code session} serves one connection, reading the user's lines and writing the replies. */
+    public SessionServer(int port, BiConsumer<InputStream, PrintStream> session) {
+        this(port, session, DEFAULT_MAX_PLATFORM_SESSIONS);
+    }
+
+    /** {@code maxPlatformSessions} caps concurrent sessions only when virtual threads are unavailable. */
+    public SessionServer(int port, BiConsumer<InputStream, PrintStream> session, int maxPlatformSessions) {
+        this.port = port;
+        this.session = session;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.sessions = virtual != null ? virtual : newPlatformThreadExecutor(maxPlatformSessions);
+    }
+
+    // Looked up reflectively so the project still builds and runs on Java 17.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    // Grows a thread per session up to the cap and hands a connection over only to a free thread,
+    // so a session beyond the cap is rejected at once rather than left waiting unseen.
+    private static ExecutorService newPlatformThreadExecutor(int maxSessions) {
+        AtomicInteger sessionNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Math.max(1, maxSessions), IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> new Thread(runnable, "session-" + sessionNumber.incrementAndGet()));
+    }
+
+    /** Accepts connections until {@link #close()} is called; blocks the calling thread. */
+    public void serve() throws IOException {
+        try (ServerSocket server = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress())) {
+            serverSocket = server;
+            LOGGER.log(Level.INFO, "Serving sessions on {0} with {1}", new Object[]{server.getLocalSocketAddress(),
+                    virtualThreads ? "virtual threads" : "a platform thread per session"});
+            while (!server.isClosed()) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketException e) {
+                    if (server.isClosed()) {
+                        break;
+                    }
+                    throw e;
+                }
+                try {
+                    sessions.execute(() -> handle(socket));
+                } catch (RejectedExecutionException e) {
+                    refuse(socket);
+                }
+            }
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    private void handle(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (Socket connection = socket) {
+            connection.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            // Unbuffered underneath, so prompts that end without a newline still reach the user.
+            PrintStream out = new PrintStream(connection.getOutputStream(), true, StandardCharsets.UTF_8);
+            session.accept(connection.getInputStream(), out);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Session from " + socket.getRemoteSocketAddress() + " ended with an error", e);
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    private static void refuse(Socket socket) {
+        LOGGER.log(Level.WARNING, "Turning away session from {0}: all session threads are busy", socket.getRemoteSocketAddress());
+        try (Socket connection = socket) {
+            PrintStream out = new PrintStream(connection.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println("The server is busy. Please try again later.");
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not tell a turned-away session the server is busy", e);
+        }
+    }
+
+    /** The port being listened on, once {@link #serve()} has bound it; useful when constructed with port 0. */
+    public int getLocalPort() {
+        ServerSocket server = serverSocket;
+        return server == null ? -1 : server.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** Stops accepting connections; sessions already running finish on their own. */
+    public void close() throws IOException {
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            server.close();
+        }
+    }
+}
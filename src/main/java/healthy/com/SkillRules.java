@@ -0,0 +1,149 @@
+package healthy.com;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Meal keyword to required skill rules, read from {@code skill_rules.txt}. Each meal name is
+ * matched against the keywords once and the resulting rule is cached, so a suitability check
+ * is a map lookup plus a few set probes on the chef's skills.
+ */
+public final class SkillRules {
+    private static final Logger LOGGER = Logger.getLogger(SkillRules.class.getName());
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/skill_rules.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+    private static final String ANY_SKILL = "*";
+    // Meal names come from a menu, but keep the cache bounded in case they come from free text.
+    private static final int MAX_CACHED_MEALS = 10_000;
+    private static final Rule UNRESTRICTED = new Rule(Collections.emptyList(), Collections.emptySet(), true, true);
+
+    private final List<Rule> rules;
+    private final Map<String, Rule> rulesByMeal = new ConcurrentHashMap<>();
+
+    private SkillRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /** The skills a meal calls for. */
+    public static final class Rule {
+        private final List<String> keywords;
+        private final Set<String> skills;
+        private final boolean anySkill;
+        private final boolean unrestricted;
+
+        private Rule(List<String> keywords, Set<String> skills, boolean anySkill, boolean unrestricted) {
+            this.keywords = keywords;
+            this.skills = skills;
+            this.anySkill = anySkill;
+            this.unrestricted = unrestricted;
+        }
+
+        /** Lower-cased skills, any one of which qualifies a chef. */
+        public Set<String> getSkills() {
+            return skills;
+        }
+
+        /** True if any chef with at least one skill qualifies. */
+        public boolean acceptsAnySkill() {
+            return anySkill;
+        }
+
+        /** True if no rule matched the meal, so every chef qualifies. */
+        public boolean isUnrestricted() {
+            return unrestricted;
+        }
+
+        boolean isSatisfiedBy(Chef chef) {
+            if (unrestricted) {
+                return true;
+            }
+            if (anySkill && chef.hasAnyExpertise()) {
+                return true;
+            }
+            for (String skill : skills) {
+                if (chef.hasExpertise(skill)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Reads the rules from src/main/resources/skill_rules.txt. */
+    public static SkillRules load() {
+        return load(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    /** Reads the rules from {@code rulesFile}; without one there are no restrictions at all. */
+    public static SkillRules load(Path rulesFile) {
+        List<Rule> rules = new ArrayList<>();
+        if (!Files.exists(rulesFile)) {
+            LOGGER.log(Level.WARNING, "Skill rules file not found, every chef can prepare every meal: {0}", rulesFile);
+            return new SkillRules(rules);
+        }
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(rulesFile.toFile()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                tokenizer.reset(line);
+                if (tokenizer.isBlank() || line.trim().startsWith("#")) continue;
+                if (tokenizer.countFields(SEPARATOR) < 2) {
+                    LOGGER.log(Level.WARNING, "Skipping malformed skill rule (expected keywords;skills): {0}", line);
+                    continue;
+                }
+                List<String> keywords = new ArrayList<>();
+                tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, keyword -> keywords.add(normalize(keyword)));
+                Set<String> skills = new LinkedHashSet<>();
+                tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, skill -> skills.add(normalize(skill)));
+                boolean anySkill = skills.remove(ANY_SKILL);
+                rules.add(new Rule(keywords, Collections.unmodifiableSet(skills), anySkill, false));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error loading skill rules: {0}", e.getMessage());
+        }
+        return new SkillRules(rules);
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** The first rule whose keyword occurs in {@code mealName}, or an unrestricted rule if none does. */
+    public Rule ruleFor(String mealName) {
+        Rule rule = rulesByMeal.get(mealName);
+        if (rule == null) {
+            rule = match(normalize(mealName));
+            if (rulesByMeal.size() >= MAX_CACHED_MEALS) {
+                rulesByMeal.clear();
+            }
+            rulesByMeal.put(mealName, rule);
+        }
+        return rule;
+    }
+
+    private Rule match(String mealName) {
+        for (Rule rule : rules) {
+            for (String keyword : rule.keywords) {
+                if (mealName.contains(keyword)) {
+                    return rule;
+                }
+            }
+        }
+        return UNRESTRICTED;
+    }
+}
@@ -0,0 +1,339 @@
+package healthy.com;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stock held aside for orders between placing them and cooking them. Reserving takes the
+ * ingredients out of the free stock straight away, all or nothing, so nothing else can use
+ * them; committing (when the order's kitchen task completes) makes that final, while
+ * releasing (on cancellation, or when the hold times out) puts the stock back. A hold that
+ * runs out while its order is still being cooked is extended instead.
+ *
+ * <p>Every step is one appended record: {@code R;order;expiresAt;ingredient:quantity,...}
+ * for a reservation, {@code C;order} for a commit and {@code X;order} for a release. The
+ * amount reserved per ingredient is kept in memory, so checking it costs O(1) however
+ * many orders are in flight.
+ */
+public class StockReservationLedger {
+    private static final Logger LOGGER = Logger.getLogger(StockReservationLedger.class.getName());
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/reservations.txt";
+    private static final char SEPARATOR = ';';
+    private static final char LIST_SEPARATOR = ',';
+    private static final char QUANTITY_SEPARATOR = ':';
+    private static final String RESERVED = "R";
+    private static final String COMMITTED = "C";
+    private static final String RELEASED = "X";
+    public static final Duration DEFAULT_HOLD = Duration.ofHours(2);
+
+    private static final class Reservation {
+        private final String orderId;
+        private final Instant expiresAt;
+        private final Map<String, Integer> quantities;
+
+        private Reservation(String orderId, Instant expiresAt, Map<String, Integer> quantities) {
+            this.orderId = orderId;
+            this.expiresAt = expiresAt;
+            this.quantities = quantities;
+        }
+    }
+
+    private final InventoryService inventoryService;
+    private final Clock clock;
+    private final String filePath;
+    private final RecordJournal journal;
+    private final Map<String, Reservation> openReservations = new LinkedHashMap<>();
+    private final PriorityQueue<Reservation> byExpiry =
+            new PriorityQueue<>(Comparator.comparing((Reservation reservation) -> reservation.expiresAt));
+    private final Map<String, AtomicInteger> reservedByIngredient = new ConcurrentHashMap<>();
+    // Orders whose hold ran out, kept so that completing one of them later is not silently ignored.
+    private final Set<String> expiredOrders = ConcurrentHashMap.newKeySet();
+    private volatile Predicate<String> orderInProgress = orderId -> false;
+    private ScheduledExecutorService sweeper;
+
+    public StockReservationLedger(InventoryService inventoryService) {
+        this(Paths.get(DEFAULT_FILE_PATH), inventoryService, Clock.systemUTC());
+    }
+
+    public StockReservationLedger(Path dataFile, InventoryService inventoryService, Clock clock) {
+        this.inventoryService = inventoryService;
+        this.clock = clock;
+        this.filePath = dataFile.toString();
+        this.journal = new RecordJournal(dataFile, SEPARATOR);
+        ResidentDataFile.createIfMissing(dataFile);
+        loadReservations();
+    }
+
+    // The stock levels on file already exclude open reservations, so replay only rebuilds the ledger.
+    private void loadReservations() {
+        long recordsRead = 0;
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                recordsRead++;
+                replayRecord(tokenizer, line);
+            }
+        } catch (IOException | NumberFormatException | DateTimeParseException e) {
+            LOGGER.log(Level.SEVERE, "Error loading reservations: {0}", e.getMessage());
+        }
+        journal.resetRecordCount(recordsRead);
+    }
+
+    private void replayRecord(RecordTokenizer tokenizer, String line) {
+        int fields = tokenizer.countFields(SEPARATOR);
+        String type = tokenizer.nextString(SEPARATOR);
+        if (RESERVED.equals(type) && fields == 4) {
+            String orderId = tokenizer.nextString(SEPARATOR);
+            Instant expiresAt = Instant.parse(tokenizer.nextString(SEPARATOR));
+            Map<String, Integer> quantities = new TreeMap<>();
+            tokenizer.forEachListItem(SEPARATOR, LIST_SEPARATOR, item -> {
+                int split = item.lastIndexOf(QUANTITY_SEPARATOR);
+                quantities.merge(item.substring(0, split), Integer.parseInt(item.substring(split + 1)), Integer::sum);
+            });
+            close(orderId);
+            open(new Reservation(orderId, expiresAt, quantities));
+        } else if ((COMMITTED.equals(type) || RELEASED.equals(type)) && fields == 2) {
+            close(tokenizer.nextString(SEPARATOR));
+        } else {
+            LOGGER.log(Level.WARNING, "Skipping malformed reservation record: {0}", line);
+        }
+    }
+
+    private void open(Reservation reservation) {
+        openReservations.put(reservation.orderId, reservation);
+        byExpiry.add(reservation);
+        reservation.quantities.forEach((ingredient, quantity) ->
+                reservedByIngredient.computeIfAbsent(ingredient, name -> new AtomicInteger()).addAndGet(quantity));
+    }
+
+    // The expiry queue drops closed reservations lazily, when they reach its head.
+    private Reservation close(String orderId) {
+        Reservation reservation = openReservations.remove(orderId);
+        if (reservation != null) {
+            reservation.quantities.forEach((ingredient, quantity) ->
+                    reservedByIngredient.get(ingredient).addAndGet(-quantity));
+        }
+        return reservation;
+    }
+
+    /**
+     * Tells the ledger whether an order is still being cooked, so its hold is extended rather
+     * than released when it runs out. Called with the ledger's lock held.
+     */
+    public void setOrderInProgressCheck(Predicate<String> orderInProgress) {
+        this.orderInProgress = orderInProgress;
+    }
+
+    public boolean reserve(String orderId, Map<String, Integer> quantities) {
+        return reserve(orderId, quantities, DEFAULT_HOLD);
+    }
+
+    /**
+     * Takes the quantities out of free stock and holds them for the order for up to
+     * {@code holdFor}. Returns false, taking nothing, if any ingredient is short or the order
+     * already holds a reservation. The new stock levels are written before the reservation, so a
+     * crash in between can only leave stock unused, never hand it back a second time.
+     */
+    public boolean reserve(String orderId, Map<String, Integer> quantities, Duration holdFor) {
+        if (orderId == null || quantities == null || quantities.isEmpty()) {
+            return false;
+        }
+        synchronized (this) {
+            if (openReservations.containsKey(orderId)) {
+                LOGGER.log(Level.WARNING, "Cannot reserve stock: order {0} already holds a reservation", orderId);
+                return false;
+            }
+            if (!inventoryService.takeStock(quantities)) {
+                return false;
+            }
+            inventoryService.saveStockChanges(quantities.keySet());
+            Reservation reservation = new Reservation(orderId, clock.instant().plus(holdFor), new TreeMap<>(quantities));
+            expiredOrders.remove(orderId);
+            open(reservation);
+            appendRecord(format(reservation));
+        }
+        return true;
+    }
+
+    /**
+     * Makes the order's reservation final, e.g. once its kitchen task is completed. Returns false
+     * if the order holds no reservation; that is logged when its hold had already run out, as the
+     * stock it was cooked with was handed back.
+     */
+    public boolean commit(String orderId) {
+        synchronized (this) {
+            if (close(orderId) == null) {
+                if (expiredOrders.remove(orderId)) {
+                    LOGGER.log(Level.WARNING, "Order {0} was completed after its stock reservation ran out; "
+                            + "the stock it used had already been returned", orderId);
+                }
+                return false;
+            }
+            appendRecord(COMMITTED + SEPARATOR + orderId);
+        }
+        return true;
+    }
+
+    /** Puts the order's reserved stock back, e.g. when the order is cancelled. */
+    public boolean release(String orderId) {
+        Reservation reservation;
+        synchronized (this) {
+            reservation = close(orderId);
+            if (reservation == null) {
+                return false;
+            }
+            inventoryService.returnStock(reservation.quantities);
+            appendRecord(RELEASED + SEPARATOR + orderId);
+        }
+        // Written after the release record, so a crash in between cannot return the stock twice.
+        inventoryService.saveStockChanges(reservation.quantities.keySet());
+        return true;
+    }
+
+    /**
+     * Releases every reservation whose hold has run out, except those of orders still in
+     * progress, whose holds are extended by {@link #DEFAULT_HOLD}; returns the released order ids.
+     */
+    public List<String> releaseExpired() {
+        List<String> released = new ArrayList<>();
+        List<String> extended = new ArrayList<>();
+        Set<String> returned = new HashSet<>();
+        synchronized (this) {
+            Instant now = clock.instant();
+            List<Reservation> renewed = new ArrayList<>();
+            while (!byExpiry.isEmpty() && !byExpiry.peek().expiresAt.isAfter(now)) {
+                Reservation expired = byExpiry.poll();
+                if (openReservations.get(expired.orderId) != expired) {
+                    continue;
+                }
+                close(expired.orderId);
+                if (orderInProgress.test(expired.orderId)) {
+                    renewed.add(new Reservation(expired.orderId, now.plus(DEFAULT_HOLD), expired.quantities));
+                    continue;
+                }
+                expiredOrders.add(expired.orderId);
+                inventoryService.returnStock(expired.quantities);
+                returned.addAll(expired.quantities.keySet());
+                appendRecord(RELEASED + SEPARATOR + expired.orderId);
+                released.add(expired.orderId);
+            }
+            // Opened after the loop, so a renewed hold is not polled again by this sweep.
+            for (Reservation reservation : renewed) {
+                open(reservation);
+                appendRecord(format(reservation));
+                extended.add(reservation.orderId);
+            }
+        }
+        if (!extended.isEmpty()) {
+            LOGGER.log(Level.INFO, "Extended stock reservations for orders still in the kitchen: {0}", extended);
+        }
+        if (!released.isEmpty()) {
+            LOGGER.log(Level.INFO, "Released expired stock reservations: {0}", released);
+            inventoryService.saveStockChanges(returned);
+        }
+        return released;
+    }
+
+    /** How much of the ingredient is held for open orders; O(1) and lock-free. */
+    public int getReservedStock(String ingredientName) {
+        AtomicInteger reserved = reservedByIngredient.get(ingredientName);
+        return reserved == null ? 0 : reserved.get();
+    }
+
+    /** How much of the ingredient is free to use or reserve. */
+    public int getAvailableStock(String ingredientName) {
+        Ingredient ingredient = inventoryService.getIngredientStock(ingredientName);
+        return ingredient == null ? 0 : ingredient.getCurrentStock();
+    }
+
+    public synchronized Map<String, Integer> getReservation(String orderId) {
+        Reservation reservation = openReservations.get(orderId);
+        return reservation == null ? null : Collections.unmodifiableMap(reservation.quantities);
+    }
+
+    public synchronized int getOpenReservationCount() {
+        return openReservations.size();
+    }
+
+    private static String format(Reservation reservation) {
+        StringBuilder line = new StringBuilder()
+                .append(RESERVED).append(SEPARATOR)
+                .append(reservation.orderId).append(SEPARATOR)
+                .append(reservation.expiresAt).append(SEPARATOR);
+        boolean first = true;
+        for (Map.Entry<String, Integer> entry : reservation.quantities.entrySet()) {
+            if (!first) {
+                line.append(LIST_SEPARATOR);
+            }
+            first = false;
+            line.append(entry.getKey()).append(QUANTITY_SEPARATOR).append(entry.getValue());
+        }
+        return line.toString();
+    }
+
+    private void appendRecord(String record) {
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving reservations: {0}", e.getMessage());
+        }
+        if (journal.needsCompaction(openReservations.size())) {
+            journal.scheduleCompaction(this::compact);
+        }
+    }
+
+    // Rewrites the file as one record per open reservation.
+    private synchronized void compact() {
+        List<String> records = new ArrayList<>(openReservations.size());
+        for (Reservation reservation : openReservations.values()) {
+            records.add(format(reservation));
+        }
+        try {
+            journal.rewrite(records, record -> record);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error compacting reservations: {0}", e.getMessage());
+        }
+    }
+
+    /** Releases expired reservations on a background daemon thread every {@code periodSeconds}. */
+    public synchronized void start(long periodSeconds) {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = BackgroundTasks.runPeriodically("stock-reservation-sweeper", periodSeconds, periodSeconds,
+                this::releaseExpired, "Error releasing expired stock reservations");
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package healthy.com;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared out by key hash, so work on different keys (chefs, ingredients)
+ * proceeds in parallel while work on the same key is serialized, without keeping a lock per key.
+ */
+final class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /** {@code stripes} is rounded up to a power of two. */
+    StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /** Takes every stripe, always in the same order, for the rare operation that spans all keys. */
+    void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    ReentrantLock lockFor(Object key) {
+        int hash = key.hashCode();
+        // Spread the high bits down, as HashMap does, so similar keys land on different stripes.
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+}
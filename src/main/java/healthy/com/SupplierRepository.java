@@ -16,14 +16,20 @@ import java.util.Map;
 import java.util.Optional;
 
 public class SupplierRepository {
-    private static final String FILE_PATH = "src/main/resources/suppliers.txt";
-    private static final String SEPARATOR = ";";
-    private static final String PRICE_SEPARATOR = ":";
-    private static final String PRICE_LIST_SEPARATOR = ",";
+    private static final String DEFAULT_FILE_PATH = "src/main/resources/suppliers.txt";
+    private static final char SEPARATOR = ';';
+    private static final char PRICE_SEPARATOR = ':';
+    private static final char PRICE_LIST_SEPARATOR = ',';
+    private final String filePath;
 
     public SupplierRepository() {
+        this(Paths.get(DEFAULT_FILE_PATH));
+    }
+
+    public SupplierRepository(Path dataFile) {
+        this.filePath = dataFile.toString();
         try {
-            Path path = Paths.get(FILE_PATH);
+            Path path = Paths.get(filePath);
             if (!Files.exists(path.getParent())) {
                 Files.createDirectories(path.getParent());
             }
@@ -37,26 +43,31 @@ public class SupplierRepository {
 
     private List<Supplier> loadSuppliers() {
         List<Supplier> suppliers = new ArrayList<>();
-        File file = new File(FILE_PATH);
+        File file = new File(filePath);
         if (!file.exists() || file.length() == 0) {
             return suppliers;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(SEPARATOR, -1);
-                if (parts.length >= 3) { // id;name;contactEmail;item1:price1,item2:price2
-                    Supplier supplier = new Supplier(parts[0].trim(), parts[1].trim(), parts[2].trim());
-                    if (parts.length >= 4 && !parts[3].isEmpty()) {
-                        String[] priceEntries = parts[3].split(PRICE_LIST_SEPARATOR);
-                        for (String priceEntry : priceEntries) {
-                            String[] itemPricePair = priceEntry.split(PRICE_SEPARATOR);
-                            if (itemPricePair.length == 2) {
-                                supplier.setItemPrice(itemPricePair[0].trim(), Double.parseDouble(itemPricePair[1].trim()));
+                tokenizer.reset(line);
+                if (tokenizer.isBlank()) continue;
+                int fields = tokenizer.countFields(SEPARATOR);
+                if (fields >= 3) { // id;name;contactEmail;item1:price1,item2:price2
+                    Supplier supplier = new Supplier(tokenizer.nextTrimmed(SEPARATOR), tokenizer.nextTrimmed(SEPARATOR),
+                            tokenizer.nextTrimmed(SEPARATOR));
+                    if (fields >= 4 && !tokenizer.isFieldEmpty(SEPARATOR)) {
+                        tokenizer.enter(SEPARATOR);
+                        while (tokenizer.hasMoreFields()) {
+                            tokenizer.enter(PRICE_LIST_SEPARATOR);
+                            if (tokenizer.countFields(PRICE_SEPARATOR) == 2) {
+                                supplier.setItemPrice(tokenizer.nextTrimmed(PRICE_SEPARATOR), tokenizer.nextDouble(PRICE_SEPARATOR));
                             }
+                            tokenizer.exit();
                         }
+                        tokenizer.exit();
                     }
                     suppliers.add(supplier);
                 }
@@ -68,21 +79,21 @@ public class SupplierRepository {
     }
 
     private void saveAllSuppliers(List<Supplier> suppliers) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_PATH, false))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, false))) {
             for (Supplier supplier : suppliers) {
-                StringBuilder pricesString = new StringBuilder();
-                List<String> priceEntries = new ArrayList<>();
+                StringBuilder line = new StringBuilder()
+                        .append(supplier.getId()).append(SEPARATOR)
+                        .append(supplier.getName()).append(SEPARATOR)
+                        .append(supplier.getContactEmail()).append(SEPARATOR);
+                boolean first = true;
                 for (Map.Entry<String, Double> entry : supplier.getItemPrices().entrySet()) {
-                    priceEntries.add(entry.getKey() + PRICE_SEPARATOR + String.format("%.2f", entry.getValue()));
+                    if (!first) {
+                        line.append(PRICE_LIST_SEPARATOR);
+                    }
+                    line.append(entry.getKey()).append(PRICE_SEPARATOR).append(Money.format(Money.toCents(entry.getValue())));
+                    first = false;
                 }
-                pricesString.append(String.join(PRICE_LIST_SEPARATOR, priceEntries));
-
-                writer.write(String.join(SEPARATOR,
-                        supplier.getId(),
-                        supplier.getName(),
-                        supplier.getContactEmail(),
-                        pricesString.toString()
-                ));
+                writer.write(line.toString());
                 writer.newLine();
             }
         } catch (IOException e) {
@@ -90,7 +101,7 @@ public class SupplierRepository {
         }
     }
 
-    public void saveSupplier(Supplier supplierToSave) {
+    public synchronized void saveSupplier(Supplier supplierToSave) {
         List<Supplier> suppliers = loadSuppliers();
         Optional<Supplier> existingSupplier = suppliers.stream()
                 .filter(s -> s.getId().equals(supplierToSave.getId()))
@@ -103,14 +114,14 @@ public class SupplierRepository {
         saveAllSuppliers(suppliers);
     }
 
-    public Supplier findSupplierById(String id) {
+    public synchronized Supplier findSupplierById(String id) {
         return loadSuppliers().stream()
                 .filter(supplier -> supplier.getId().equals(id))
                 .findFirst()
                 .orElse(null);
     }
 
-    public Supplier findSupplierByName(String name) {
+    public synchronized Supplier findSupplierByName(String name) {
         return loadSuppliers().stream()
                 .filter(supplier -> supplier.getName().equals(name))
                 .findFirst()
@@ -118,11 +129,11 @@ public class SupplierRepository {
     }
 
 
-    public List<Supplier> getAllSuppliers() {
+    public synchronized List<Supplier> getAllSuppliers() {
         return loadSuppliers();
     }
 
-    public void updateSupplier(Supplier supplier) {
+    public synchronized void updateSupplier(Supplier supplier) {
         saveSupplier(supplier);
     }
 }
\ No newline at end of file
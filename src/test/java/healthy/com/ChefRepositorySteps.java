@@ -0,0 +1,152 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChefRepositorySteps {
+
+    private Path dataDirectory;
+    private Path dataFile;
+    private ChefRepository chefRepository;
+    private Chef heldChef;
+    private KitchenTask heldTask;
+
+    @Given("an empty chef store")
+    public void an_empty_chef_store() throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("chef-store");
+        dataFile = dataDirectory.resolve("chefs.txt");
+        chefRepository = new ChefRepository(dataFile);
+    }
+
+    @Given("the chef store holds the following chefs:")
+    public void the_chef_store_holds_the_following_chefs(DataTable chefsTable) {
+        for (Map<String, String> columns : chefsTable.asMaps(String.class, String.class)) {
+            chefRepository.saveChef(new Chef(columns.get("Name"), columns.get("Expertise"), columns.get("Workload")));
+        }
+    }
+
+    @When("the chef store marks {string} as changed with workload {string}")
+    public void the_chef_store_marks_as_changed_with_workload(String chefName, String workload) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        chef.setCurrentWorkload(workload);
+        chefRepository.markChanged(chef);
+    }
+
+    @When("the chef store marks {string} as changed with expertise {string}")
+    public void the_chef_store_marks_as_changed_with_expertise(String chefName, String expertise) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        chef.setExpertiseFromString(expertise);
+        chefRepository.markChanged(chef);
+    }
+
+    @When("the chef store persists its changes")
+    public void the_chef_store_persists_its_changes() {
+        chefRepository.persistChanges();
+    }
+
+    @When("{string} is given task {string} for {string} in the chef store")
+    public void is_given_task_for_in_the_chef_store(String chefName, String taskId, String mealName) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        KitchenTask task = new KitchenTask(taskId, mealName, chefName, "Assigned", null);
+        chef.addTask(task);
+        chefRepository.saveTask(chef, task);
+    }
+
+    @When("task {string} of {string} is marked {string} in the chef store")
+    public void task_of_is_marked_in_the_chef_store(String taskId, String chefName, String status) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        KitchenTask task = chef.getTask(taskId);
+        task.setStatus(status);
+        chefRepository.saveTask(chef, task);
+    }
+
+    @Then("giving task {string} for {string} to {string} in the chef store should be refused")
+    public void giving_task_to_in_the_chef_store_should_be_refused(String taskId, String mealName, String chefName) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        assertThat(chef.addTask(new KitchenTask(taskId, mealName, chefName, "Assigned", null))).isFalse();
+        assertThat(chef.getTask(taskId)).isNull();
+    }
+
+    @Given("{string} and task {string} are held from the chef store")
+    public void and_task_are_held_from_the_chef_store(String chefName, String taskId) {
+        heldChef = chefRepository.findChefByName(chefName);
+        heldTask = heldChef.getTask(taskId);
+    }
+
+    @When("another writer completes task {string} of {string} and sets the workload to {string}")
+    public void another_writer_completes_task_of_and_sets_the_workload_to(String taskId, String chefName, String workload) {
+        ChefRepository otherWriter = new ChefRepository(dataFile);
+        Chef chef = otherWriter.findChefByName(chefName);
+        chef.getTask(taskId).setStatus("Completed");
+        chef.setCurrentWorkload(workload);
+        otherWriter.saveChef(chef);
+    }
+
+    @Then("the held chef should still be the chef store's {string} with workload {string}")
+    public void the_held_chef_should_still_be_the_chef_stores_with_workload(String chefName, String workload) {
+        assertThat(chefRepository.findChefByName(chefName)).isSameAs(heldChef);
+        assertThat(heldChef.getCurrentWorkload()).isEqualTo(workload);
+    }
+
+    @Then("the held task should still be the chef store's task with status {string}")
+    public void the_held_task_should_still_be_the_chef_stores_task_with_status(String status) {
+        assertThat(chefRepository.findTaskById(heldTask.getTaskId())).isSameAs(heldTask);
+        assertThat(heldTask.getStatus()).isEqualTo(status);
+    }
+
+    @When("the held chef's workload is set to {string} and saved in the chef store")
+    public void the_held_chefs_workload_is_set_to_and_saved_in_the_chef_store(String workload) {
+        heldChef.setCurrentWorkload(workload);
+        chefRepository.saveChef(heldChef);
+    }
+
+    @Then("{string} should have workload {string} in the chef store")
+    public void should_have_workload_in_the_chef_store(String chefName, String workload) {
+        assertThat(chefRepository.findChefByName(chefName).getCurrentWorkload()).isEqualTo(workload);
+    }
+
+    @When("the chef store is opened again from its data file")
+    public void the_chef_store_is_opened_again_from_its_data_file() {
+        chefRepository = new ChefRepository(dataFile);
+    }
+
+    @Then("the chef data file should hold {int} records")
+    public void the_chef_data_file_should_hold_records(int records) throws IOException {
+        assertThat(Files.readAllLines(dataFile)).hasSize(records);
+    }
+
+    @Then("the last chef record should start with {string}")
+    public void the_last_chef_record_should_start_with(String prefix) throws IOException {
+        List<String> lines = Files.readAllLines(dataFile);
+        assertThat(lines.get(lines.size() - 1)).startsWith(prefix);
+    }
+
+    @Then("the chef store should find task {string} held by {string} with status {string}")
+    public void the_chef_store_should_find_task_held_by_with_status(String taskId, String chefName, String status) {
+        KitchenTask task = chefRepository.findTaskById(taskId);
+        assertThat(task).isNotNull();
+        assertThat(task.getAssignedChefName()).isEqualTo(chefName);
+        assertThat(task.getStatus()).isEqualTo(status);
+        assertThat(chefRepository.findChefByName(chefName).getTask(taskId)).isSameAs(task);
+    }
+
+    @Then("the chef store should list {string} for skill {string}")
+    public void the_chef_store_should_list_for_skill(String chefNames, String skill) {
+        List<String> names = chefRepository.findChefsWithSkills(Collections.singletonList(skill), false).stream()
+                .map(Chef::getName)
+                .collect(Collectors.toList());
+        assertThat(names).isEqualTo(TestSupport.split(chefNames));
+    }
+}
@@ -0,0 +1,196 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentKitchenSteps {
+
+    private Path dataDirectory;
+    private Path dataFile;
+    private ChefRepository chefRepository;
+    private KitchenManagementService kitchen;
+    private final List<String> chefNames = new ArrayList<>();
+    private final Set<String> assignedTaskIds = new HashSet<>();
+    private StripedLocks stripedLocks;
+
+    @Given("a kitchen with the following chefs:")
+    public void a_kitchen_with_the_following_chefs(DataTable chefsTable) throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("kitchen");
+        dataFile = dataDirectory.resolve("chefs.txt");
+        chefRepository = new ChefRepository(dataFile);
+        for (Map<String, String> columns : chefsTable.asMaps(String.class, String.class)) {
+            chefRepository.saveChef(new Chef(columns.get("Name"), columns.get("Expertise"), columns.get("Workload")));
+            chefNames.add(columns.get("Name"));
+        }
+        kitchen = new KitchenManagementService(chefRepository);
+    }
+
+    @When("{int} intake threads each assign {int} {string} tasks to the kitchen's chefs in turn")
+    public void intake_threads_each_assign_tasks_to_the_kitchens_chefs_in_turn(int threads, int tasksPerThread, String mealName) throws Exception {
+        runConcurrently(threads, thread -> {
+            for (int i = 0; i < tasksPerThread; i++) {
+                String taskId = "ORD-" + thread + "-" + i;
+                assertThat(kitchen.assignTaskToChef(taskId, mealName, chefNames.get(i % chefNames.size()))).isTrue();
+            }
+        });
+        for (int thread = 0; thread < threads; thread++) {
+            for (int i = 0; i < tasksPerThread; i++) {
+                assignedTaskIds.add("ORD-" + thread + "-" + i);
+            }
+        }
+    }
+
+    @When("{int} intake threads each assign task {string} for {string} to {string}")
+    public void intake_threads_each_assign_task_for_to(int threads, String taskId, String mealName, String chefName) throws Exception {
+        runConcurrently(threads, thread -> kitchen.assignTaskToChef(taskId, mealName, chefName));
+    }
+
+    @When("{int} intake threads each auto-assign {int} {string} tasks")
+    public void intake_threads_each_auto_assign_tasks(int threads, int tasksPerThread, String mealName) throws Exception {
+        runConcurrently(threads, thread -> {
+            for (int i = 0; i < tasksPerThread; i++) {
+                assertThat(kitchen.autoAssignTask("AUTO-" + thread + "-" + i, mealName)).isNotNull();
+            }
+        });
+    }
+
+    @Given("the kitchen estimates {string} at {int} minutes and {string} at {int} minutes")
+    public void the_kitchen_estimates_at_minutes_and_at_minutes(String firstMeal, int firstMinutes, String secondMeal, int secondMinutes) {
+        kitchen.setPrepTimeEstimator(mealName -> mealName.equals(firstMeal) ? firstMinutes
+                : mealName.equals(secondMeal) ? secondMinutes : KitchenManagementService.DEFAULT_PREP_MINUTES);
+    }
+
+    @When("task {string} for {string} is assigned to {string} in the kitchen")
+    public void task_for_is_assigned_to_in_the_kitchen(String taskId, String mealName, String chefName) {
+        assertThat(kitchen.assignTaskToChef(taskId, mealName, chefName)).isTrue();
+    }
+
+    @When("{string} completes task {string} in the kitchen")
+    public void completes_task_in_the_kitchen(String chefName, String taskId) {
+        assertThat(kitchen.completeTask(chefName, taskId)).isTrue();
+    }
+
+    @Then("auto-assigning task {string} for {string} should pick {string}")
+    public void auto_assigning_task_for_should_pick(String taskId, String mealName, String chefName) {
+        assertThat(kitchen.autoAssignTask(taskId, mealName)).isEqualTo(chefName);
+    }
+
+    @Then("every chef in the kitchen should hold {int} open tasks")
+    public void every_chef_in_the_kitchen_should_hold_open_tasks(int tasks) {
+        for (String chefName : chefNames) {
+            should_hold_open_tasks_in_the_kitchen(chefName, tasks);
+        }
+    }
+
+    @When("the kitchen is opened again from its data file")
+    public void the_kitchen_is_opened_again_from_its_data_file() {
+        chefRepository = new ChefRepository(dataFile);
+        kitchen = new KitchenManagementService(chefRepository);
+    }
+
+    @Then("the kitchen should hold {int} open tasks in total")
+    public void the_kitchen_should_hold_open_tasks_in_total(int tasks) {
+        int open = 0;
+        for (String chefName : chefNames) {
+            open += (int) kitchen.getChefTasks(chefName).stream().filter(KitchenTask::isOpen).count();
+        }
+        assertThat(open).isEqualTo(tasks);
+    }
+
+    @Then("every task should be found through the kitchen's task index")
+    public void every_task_should_be_found_through_the_kitchens_task_index() {
+        for (String taskId : assignedTaskIds) {
+            KitchenTask task = kitchen.findTask(taskId);
+            assertThat(task).as(taskId).isNotNull();
+            assertThat(chefRepository.findChefByName(task.getAssignedChefName()).getTask(taskId)).isSameAs(task);
+        }
+    }
+
+    @Then("{string} should hold {int} open tasks in the kitchen")
+    public void should_hold_open_tasks_in_the_kitchen(String chefName, int tasks) {
+        assertThat(kitchen.getChefTasks(chefName).stream().filter(KitchenTask::isOpen).count()).isEqualTo(tasks);
+    }
+
+    @Given("striped locks with {int} stripes")
+    public void striped_locks_with_stripes(int stripes) {
+        stripedLocks = new StripedLocks(stripes);
+    }
+
+    @Then("the striped locks should have {int} stripes")
+    public void the_striped_locks_should_have_stripes(int stripes) {
+        Set<ReentrantLock> distinct = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            distinct.add(stripedLocks.lockFor("key-" + i));
+        }
+        assertThat(distinct).hasSize(stripes);
+    }
+
+    @Then("key {string} should always get the same stripe")
+    public void key_should_always_get_the_same_stripe(String key) {
+        assertThat(stripedLocks.lockFor(key)).isSameAs(stripedLocks.lockFor(new String(key)));
+    }
+
+    @Then("while every stripe is held another thread cannot lock key {string}")
+    public void while_every_stripe_is_held_another_thread_cannot_lock_key(String key) throws Exception {
+        stripedLocks.lockAll();
+        try {
+            assertThat(CompletableFuture.supplyAsync(() -> stripedLocks.lockFor(key).tryLock()).get(5, TimeUnit.SECONDS)).isFalse();
+        } finally {
+            stripedLocks.unlockAll();
+        }
+        assertThat(CompletableFuture.supplyAsync(() -> {
+            ReentrantLock lock = stripedLocks.lockFor(key);
+            boolean locked = lock.tryLock();
+            if (locked) {
+                lock.unlock();
+            }
+            return locked;
+        }).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+    /** Starts {@code threads} threads together and waits for all of them, rethrowing the first failure. */
+    static void runConcurrently(int threads, ThreadBody body) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int threadNumber = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    body.run(threadNumber);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
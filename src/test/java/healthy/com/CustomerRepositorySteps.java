@@ -0,0 +1,136 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CustomerRepositorySteps {
+
+    private Path dataFile;
+    private CustomerRepository customerRepository;
+    private int importedCustomers;
+    private OrderRepository orderRepository;
+
+    @Given("an empty customer store")
+    public void an_empty_customer_store() throws IOException {
+        dataFile = TestSupport.createDataDirectory("customer-store").resolve("customers.txt");
+        customerRepository = new CustomerRepository(dataFile);
+    }
+
+    @Given("the customer store holds the following customers:")
+    public void the_customer_store_holds_the_following_customers(DataTable customersTable) {
+        for (Map<String, String> columns : customersTable.asMaps(String.class, String.class)) {
+            Customer customer = new Customer(columns.get("Email"));
+            for (String preference : TestSupport.split(nullToEmpty(columns.get("Preferences")))) {
+                customer.addDietaryPreference(preference);
+            }
+            for (String allergy : TestSupport.split(nullToEmpty(columns.get("Allergies")))) {
+                customer.addAllergy(allergy);
+            }
+            customerRepository.saveCustomer(customer);
+        }
+    }
+
+    @When("customer {string} drops allergy {string}, adds allergy {string} and is saved")
+    public void customer_drops_allergy_adds_allergy_and_is_saved(String email, String droppedAllergy, String addedAllergy) {
+        Customer customer = customerRepository.findCustomerByEmail(email);
+        customer.getAllergies().remove(droppedAllergy);
+        customer.addAllergy(addedAllergy);
+        customerRepository.saveCustomer(customer);
+    }
+
+    @When("customer {string} is looked up and given allergy {string} without saving")
+    public void customer_is_looked_up_and_given_allergy_without_saving(String email, String allergy) {
+        customerRepository.findCustomerByEmail(email).addAllergy(allergy);
+    }
+
+    @Then("customer {string} in the customer store should not have allergy {string}")
+    public void customer_in_the_customer_store_should_not_have_allergy(String email, String allergy) {
+        assertThat(customerRepository.findCustomerByEmail(email).getAllergies()).doesNotContain(allergy);
+    }
+
+    @When("the customer store is opened again from its data file")
+    public void the_customer_store_is_opened_again_from_its_data_file() {
+        customerRepository = new CustomerRepository(dataFile);
+    }
+
+    @When("another customer store saves customer {string} with allergy {string}")
+    public void another_customer_store_saves_customer_with_allergy(String email, String allergy) {
+        Customer customer = new Customer(email);
+        customer.addAllergy(allergy);
+        new CustomerRepository(dataFile).saveCustomer(customer);
+    }
+
+    @When("the following dietary profiles are imported:")
+    public void the_following_dietary_profiles_are_imported(DataTable profilesTable) {
+        List<CustomerService.DietaryProfile> profiles = profilesTable.asMaps(String.class, String.class).stream()
+                .map(columns -> new CustomerService.DietaryProfile(columns.get("Email"),
+                        TestSupport.split(nullToEmpty(columns.get("Preferences"))),
+                        TestSupport.split(nullToEmpty(columns.get("Allergies")))))
+                .collect(Collectors.toList());
+        importedCustomers = new CustomerService(customerRepository).importDietaryProfiles(profiles.stream());
+    }
+
+    @Given("the orders for {string} were placed by {string}")
+    public void the_orders_for_were_placed_by(String orderDate, String emails) {
+        if (orderRepository == null) {
+            orderRepository = new OrderRepository(dataFile.resolveSibling("orders.txt"), OrderRepository.ReadMode.BUFFERED);
+        }
+        for (String email : TestSupport.split(emails)) {
+            orderRepository.saveOrder(new Order(orderDate + "-" + email, email, orderDate, "Pending"));
+        }
+    }
+
+    @Then("the customers with allergy {string} ordering on {string} should be {string}")
+    public void the_customers_with_allergy_ordering_on_should_be(String allergy, String orderDate, String emails) {
+        OrderService orderService = new OrderService(orderRepository, customerRepository);
+        assertThat(emailsOf(orderService.getCustomersWithAllergyOrderingOn(allergy, LocalDate.parse(orderDate))))
+                .isEqualTo(TestSupport.split(emails));
+    }
+
+    @Then("{int} customers should have been updated by the import")
+    public void customers_should_have_been_updated_by_the_import(int customers) {
+        assertThat(importedCustomers).isEqualTo(customers);
+    }
+
+    @Then("the customer store should list {string} for preference {string}")
+    public void the_customer_store_should_list_for_preference(String emails, String preference) {
+        assertThat(emailsOf(customerRepository.findCustomersWithDietaryPreference(preference)))
+                .isEqualTo(TestSupport.split(emails));
+    }
+
+    @Then("the customer store should list {string} for allergy {string}")
+    public void the_customer_store_should_list_for_allergy(String emails, String allergy) {
+        assertThat(emailsOf(customerRepository.findCustomersWithAllergy(allergy)))
+                .isEqualTo(TestSupport.split(emails));
+    }
+
+    @Then("the customer store should list {string} as all customers")
+    public void the_customer_store_should_list_as_all_customers(String emails) {
+        assertThat(emailsOf(customerRepository.getAllCustomers())).isEqualTo(TestSupport.split(emails));
+    }
+
+    @Then("the customer data file should hold {int} records")
+    public void the_customer_data_file_should_hold_records(int records) throws IOException {
+        assertThat(Files.readAllLines(dataFile)).hasSize(records);
+    }
+
+    private static List<String> emailsOf(List<Customer> customers) {
+        return customers.stream().map(Customer::getEmail).collect(Collectors.toList());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
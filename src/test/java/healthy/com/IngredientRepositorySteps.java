@@ -0,0 +1,221 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IngredientRepositorySteps {
+
+    private Path dataDirectory;
+    private Path dataFile;
+    private IngredientRepository ingredientRepository;
+    private Ingredient heldIngredient;
+    private double lastEditedPrice;
+    private int lastEditedStock;
+    private int unitsTaken;
+    private final List<String> reportedLowStock = new CopyOnWriteArrayList<>();
+
+    @Given("an empty ingredient store")
+    public void an_empty_ingredient_store() throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("ingredient-store");
+        dataFile = dataDirectory.resolve("ingredients.txt");
+        ingredientRepository = new IngredientRepository(dataFile);
+    }
+
+    @Given("the ingredient store holds the following ingredients:")
+    public void the_ingredient_store_holds_the_following_ingredients(DataTable ingredientsTable) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (Map<String, String> columns : ingredientsTable.asMaps(String.class, String.class)) {
+            ingredients.add(new Ingredient(columns.get("Name"), Double.parseDouble(columns.get("Price")), "", "",
+                    Integer.parseInt(columns.get("Stock")), columns.get("Unit"), Integer.parseInt(columns.get("Reorder Level"))));
+        }
+        ingredientRepository.saveAllIngredients(ingredients);
+    }
+
+    @Given("ingredient {string} is held from the ingredient store")
+    public void ingredient_is_held_from_the_ingredient_store(String name) {
+        heldIngredient = ingredientRepository.findIngredientByName(name);
+        assertThat(heldIngredient).isNotNull();
+    }
+
+    @When("an edited copy of {string} priced {double} with stock {int} is saved to the ingredient store")
+    public void an_edited_copy_of_priced_with_stock_is_saved_to_the_ingredient_store(String name, double price, int stock) {
+        ingredientRepository.updateIngredient(editedCopy(ingredientRepository.findIngredientByName(name), price, stock));
+    }
+
+    @When("{int} units of the held {string} are taken")
+    public void units_of_the_held_are_taken(int units, String name) {
+        assertThat(heldIngredient.getName()).isEqualTo(name);
+        assertThat(heldIngredient.tryDecreaseStock(units)).isTrue();
+    }
+
+    @When("{int} threads each take 1 unit of the held {string} {int} times while {int} edited copies of it are saved with stock {int}")
+    public void threads_each_take_unit_of_the_held_times_while_edited_copies_of_it_are_saved(
+            int threads, String name, int takes, int saves, int stock) throws Exception {
+        assertThat(heldIngredient.getName()).isEqualTo(name);
+        // Units taken after the latest save, which sets the stock back to the copy's. The read-write
+        // lock only keeps this count exact; takes still run concurrently with one another.
+        AtomicInteger takenSinceSave = new AtomicInteger();
+        ReadWriteLock counting = new ReentrantReadWriteLock();
+        ConcurrentKitchenSteps.runConcurrently(threads + 1, thread -> {
+            if (thread == 0) {
+                for (int i = 1; i <= saves; i++) {
+                    double price = 1.00 + i / 100.0;
+                    counting.writeLock().lock();
+                    try {
+                        ingredientRepository.updateIngredient(editedCopy(heldIngredient, price, stock));
+                        takenSinceSave.set(0);
+                    } finally {
+                        counting.writeLock().unlock();
+                    }
+                    lastEditedPrice = price;
+                }
+                return;
+            }
+            for (int i = 0; i < takes; i++) {
+                counting.readLock().lock();
+                try {
+                    if (heldIngredient.tryDecreaseStock(1)) {
+                        takenSinceSave.incrementAndGet();
+                    }
+                } finally {
+                    counting.readLock().unlock();
+                }
+            }
+        });
+        lastEditedStock = stock;
+        unitsTaken = takenSinceSave.get();
+    }
+
+    @Then("the ingredient store's {string} should be the held one with price {double} and stock {int}")
+    public void the_ingredient_stores_should_be_the_held_one_with_price_and_stock(String name, double price, int stock) {
+        Ingredient stored = ingredientRepository.findIngredientByName(name);
+        assertThat(stored).isSameAs(heldIngredient);
+        assertThat(stored.getPrice()).isEqualTo(price);
+        assertThat(stored.getCurrentStock()).isEqualTo(stock);
+    }
+
+    @Then("the ingredient store's {string} should still be the held one with the price of the last edited copy")
+    public void the_ingredient_stores_should_still_be_the_held_one_with_the_price_of_the_last_edited_copy(String name) {
+        Ingredient stored = ingredientRepository.findIngredientByName(name);
+        assertThat(stored).isSameAs(heldIngredient);
+        assertThat(stored.getPrice()).isEqualTo(lastEditedPrice);
+    }
+
+    @Then("the held {string} should have lost exactly the units taken since the last edited copy was saved")
+    public void the_held_should_have_lost_exactly_the_units_taken_since_the_last_edited_copy_was_saved(String name) {
+        assertThat(heldIngredient.getName()).isEqualTo(name);
+        assertThat(ingredientRepository.findIngredientByName(name).getCurrentStock()).isEqualTo(lastEditedStock - unitsTaken);
+    }
+
+    @When("{int} units of {string} are used through the inventory service")
+    public void units_of_are_used_through_the_inventory_service(int units, String name) {
+        assertThat(new InventoryService(ingredientRepository).useSingleIngredient(name, units)).isTrue();
+    }
+
+    @When("{string} and {string} are each used {int} units in place and marked changed")
+    public void and_are_each_used_units_in_place_and_marked_changed(String first, String second, int units) {
+        for (String name : new String[]{first, second}) {
+            Ingredient ingredient = ingredientRepository.findIngredientByName(name);
+            assertThat(ingredient.tryDecreaseStock(units)).isTrue();
+            ingredientRepository.markChanged(ingredient);
+        }
+    }
+
+    @Given("the ingredient store reports low stock to a listener")
+    public void the_ingredient_store_reports_low_stock_to_a_listener() {
+        ingredientRepository.setLowStockListener(ingredient -> reportedLowStock.add(ingredient.getName()));
+    }
+
+    @When("the reorder level of {string} is set to {int} through the inventory service")
+    public void the_reorder_level_of_is_set_to_through_the_inventory_service(String name, int reorderLevel) {
+        new InventoryService(ingredientRepository).setIngredientReorderLevel(name, reorderLevel);
+    }
+
+    @When("{int} threads each use 1 unit of {string} through the inventory service {int} times")
+    public void threads_each_use_unit_of_through_the_inventory_service_times(int threads, String name, int times) throws Exception {
+        InventoryService inventoryService = new InventoryService(ingredientRepository);
+        ConcurrentKitchenSteps.runConcurrently(threads, thread -> {
+            for (int i = 0; i < times; i++) {
+                assertThat(inventoryService.useSingleIngredient(name, 1)).isTrue();
+            }
+        });
+    }
+
+    @Then("the ingredients below their reorder level should be {string}")
+    public void the_ingredients_below_their_reorder_level_should_be(String names) {
+        assertThat(ingredientRepository.getIngredientsBelowReorderLevel())
+                .extracting(Ingredient::getName)
+                .containsExactlyInAnyOrderElementsOf(TestSupport.split(names));
+    }
+
+    @Then("the low stock listener should have heard of {string} only")
+    public void the_low_stock_listener_should_have_heard_of_only(String name) {
+        assertThat(reportedLowStock).containsExactly(name);
+    }
+
+    @When("the ingredient store persists its changes")
+    public void the_ingredient_store_persists_its_changes() {
+        ingredientRepository.persistChanges();
+    }
+
+    @When("the stock of {string} is set through the inventory service to every level from {int} to {int}")
+    public void the_stock_of_is_set_through_the_inventory_service_to_every_level_from_to(String name, int from, int to) {
+        InventoryService inventoryService = new InventoryService(ingredientRepository);
+        for (int level = from; level <= to; level++) {
+            inventoryService.updateIngredientStock(name, level);
+        }
+    }
+
+    @When("the ingredient store is opened again from its data file")
+    public void the_ingredient_store_is_opened_again_from_its_data_file() {
+        ingredientRepository = new IngredientRepository(dataFile);
+    }
+
+    @Then("the ingredient data file should hold {int} records")
+    public void the_ingredient_data_file_should_hold_records(int records) throws IOException {
+        assertThat(Files.readAllLines(dataFile)).hasSize(records);
+    }
+
+    @Then("the last ingredient record should be {string}")
+    public void the_last_ingredient_record_should_be(String record) throws IOException {
+        List<String> lines = Files.readAllLines(dataFile);
+        assertThat(lines.get(lines.size() - 1)).isEqualTo(record);
+    }
+
+    @Then("the ingredient data file should be compacted to at most {int} records")
+    public void the_ingredient_data_file_should_be_compacted_to_at_most_records(int records) throws Exception {
+        // Compaction runs on a background thread shortly after the write that triggered it; the
+        // writes that land after it stay appended until the next threshold is crossed.
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Files.readAllLines(dataFile).size() > records && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(Files.readAllLines(dataFile).size()).isLessThanOrEqualTo(records);
+    }
+
+    @Then("the ingredient store should have {int} of {string} and {int} of {string}")
+    public void the_ingredient_store_should_have_of_and_of(int firstStock, String first, int secondStock, String second) {
+        assertThat(ingredientRepository.findIngredientByName(first).getCurrentStock()).isEqualTo(firstStock);
+        assertThat(ingredientRepository.findIngredientByName(second).getCurrentStock()).isEqualTo(secondStock);
+    }
+
+    private static Ingredient editedCopy(Ingredient ingredient, double price, int stock) {
+        return new Ingredient(ingredient.getName(), price, String.join(",", ingredient.getTags()),
+                String.join(",", ingredient.getSuggestedAlternatives()), stock, ingredient.getUnit(), ingredient.getReorderLevel());
+    }
+}
@@ -0,0 +1,73 @@
+package healthy.com;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KitchenTaskBoardSteps {
+
+    private TestSupport.SettableClock clock;
+    private KitchenTaskBoard taskBoard;
+    private final List<String> reports = Collections.synchronizedList(new ArrayList<>());
+
+    @Given("a kitchen task board whose clock reads {string} with a {int} minute lead")
+    public void a_kitchen_task_board_whose_clock_reads_with_a_minute_lead(String time, int leadMinutes) {
+        clock = new TestSupport.SettableClock(LocalDateTime.parse(time));
+        taskBoard = new KitchenTaskBoard(clock, leadMinutes, (task, stage) -> reports.add(task.getTaskId() + " " + stage));
+    }
+
+    @When("task {string} of {string} due {string} is put on the task board")
+    public void task_of_due_is_put_on_the_task_board(String taskId, String chefName, String dueTime) {
+        taskBoard.schedule(new KitchenTask(taskId, "Steak", chefName, "Assigned", dueTime));
+    }
+
+    @When("task {string} is taken off the task board")
+    public void task_is_taken_off_the_task_board(String taskId) {
+        taskBoard.unschedule(taskId);
+    }
+
+    @When("the task board loads {string} holding task {string} due {string}")
+    public void the_task_board_loads_holding_task_due(String chefName, String taskId, String dueTime) {
+        Chef chef = new Chef(chefName);
+        chef.addTask(new KitchenTask(taskId, "Steak", chefName, "Assigned", dueTime));
+        taskBoard.scheduleAll(Collections.singletonList(chef));
+    }
+
+    @Given("the task board clock moves to {string}")
+    public void the_task_board_clock_moves_to(String time) {
+        clock.set(LocalDateTime.parse(time));
+        taskBoard.tick();
+    }
+
+    @Then("the task board should have reported {string}")
+    public void the_task_board_should_have_reported(String expected) {
+        assertThat(reports).isEqualTo(TestSupport.split(expected));
+    }
+
+    @Then("the task board should show {string} upcoming and {string} overdue for {string}")
+    public void the_task_board_should_show_upcoming_and_overdue_for(String upcoming, String overdue, String chefName) {
+        assertThat(taskIdsOf(taskBoard.getUpcomingTasks(chefName))).isEqualTo(TestSupport.split(upcoming));
+        assertThat(taskIdsOf(taskBoard.getOverdueTasks(chefName))).isEqualTo(TestSupport.split(overdue));
+        assertThat(taskBoard.getOverdueCount(chefName)).isEqualTo(TestSupport.split(overdue).size());
+    }
+
+    @Then("the task board should hold {int} scheduled tasks")
+    public void the_task_board_should_hold_scheduled_tasks(int count) {
+        assertThat(taskBoard.getScheduledCount()).isEqualTo(count);
+    }
+
+    private static List<String> taskIdsOf(List<KitchenTask> tasks) {
+        List<String> ids = new ArrayList<>();
+        for (KitchenTask task : tasks) {
+            ids.add(task.getTaskId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,82 @@
+package healthy.com;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoneySteps {
+
+    private long parsedCents;
+    private PurchaseOrder purchaseOrder;
+    private Path purchaseOrderFile;
+
+    @After
+    public void tearDown() throws IOException {
+        if (purchaseOrderFile != null) {
+            Files.deleteIfExists(purchaseOrderFile);
+        }
+    }
+
+    @When("the amount {string} is parsed")
+    public void the_amount_is_parsed(String text) {
+        parsedCents = Money.parse(text);
+    }
+
+    @Then("the amount should be {long} cents")
+    public void the_amount_should_be_cents(long cents) {
+        assertThat(parsedCents).isEqualTo(cents);
+    }
+
+    @Then("{long} cents should be formatted as {string}")
+    public void cents_should_be_formatted_as(long cents, String text) {
+        assertThat(Money.format(cents)).isEqualTo(text);
+    }
+
+    @Then("the decimal amount {double} should be {long} cents")
+    public void the_decimal_amount_should_be_cents(double amount, long cents) {
+        assertThat(Money.toCents(amount)).isEqualTo(cents);
+    }
+
+    @Then("the decimal amount {double} plus {double} should be {long} cents")
+    public void the_decimal_amount_plus_should_be_cents(double first, double second, long cents) {
+        assertThat(Money.toCents(first + second)).isEqualTo(cents);
+    }
+
+    @When("a purchase order for {int} units at {double} each is generated")
+    public void a_purchase_order_for_units_at_each_is_generated(int quantity, double pricePerUnit) {
+        purchaseOrder = new PurchaseOrder("PO-MONEY", "Saffron", "Spice Co", quantity, "g", pricePerUnit, false);
+    }
+
+    @When("a purchase order for {int} units at {double} each is saved in a purchase order store")
+    public void a_purchase_order_for_units_at_each_is_saved_in_a_purchase_order_store(int quantity, double pricePerUnit) throws IOException {
+        purchaseOrderFile = Files.createTempFile("purchase_orders", ".txt");
+        a_purchase_order_for_units_at_each_is_generated(quantity, pricePerUnit);
+        new PurchaseOrderRepository(purchaseOrderFile).savePurchaseOrder(purchaseOrder);
+    }
+
+    @When("the purchase order store is opened again")
+    public void the_purchase_order_store_is_opened_again() {
+        purchaseOrder = new PurchaseOrderRepository(purchaseOrderFile).findPurchaseOrderById(purchaseOrder.getPurchaseOrderId());
+    }
+
+    @Then("the purchase order total should be {long} cents")
+    public void the_purchase_order_total_should_be_cents(long cents) {
+        assertThat(purchaseOrder.getTotalCostCents()).isEqualTo(cents);
+    }
+
+    @Then("the purchase order unit price should be {double}")
+    public void the_purchase_order_unit_price_should_be(double pricePerUnit) {
+        assertThat(purchaseOrder.getPricePerUnit()).isEqualTo(pricePerUnit);
+    }
+
+    @Then("the purchase order should print {string}")
+    public void the_purchase_order_should_print(String text) {
+        assertThat(purchaseOrder.toString()).contains(text);
+    }
+}
@@ -0,0 +1,72 @@
+package healthy.com;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NotificationOutboxSteps {
+
+    private Path dataFile;
+    private int retainedRead;
+    private int maxPerChef;
+    private NotificationOutbox outbox;
+
+    @Given("a notification outbox keeping {int} read and at most {int} notifications per chef")
+    public void a_notification_outbox_keeping_read_and_at_most_notifications_per_chef(int retainedRead, int maxPerChef) throws IOException {
+        this.dataFile = TestSupport.createDataDirectory("outbox").resolve("notifications.txt");
+        this.retainedRead = retainedRead;
+        this.maxPerChef = maxPerChef;
+        outbox = new NotificationOutbox(dataFile, retainedRead, maxPerChef);
+    }
+
+    @When("{int} notifications are sent to {string}")
+    public void notifications_are_sent_to(int count, String chefName) {
+        for (int i = 1; i <= count; i++) {
+            outbox.append(chefName, "message " + i);
+        }
+    }
+
+    @When("{string} reads up to notification {int}")
+    public void reads_up_to_notification(String chefName, int sequence) {
+        outbox.markRead(chefName, sequence);
+    }
+
+    @When("{string} reads every notification")
+    public void reads_every_notification(String chefName) {
+        outbox.markAllRead(chefName);
+    }
+
+    @When("the notification outbox is opened again from its data file")
+    public void the_notification_outbox_is_opened_again_from_its_data_file() {
+        outbox = new NotificationOutbox(dataFile, retainedRead, maxPerChef);
+    }
+
+    @Then("{string} should have {int} unread notifications")
+    public void should_have_unread_notifications(String chefName, int count) {
+        assertThat(outbox.getUnreadCount(chefName)).isEqualTo(count);
+        assertThat(outbox.getUnread(chefName)).hasSize(count);
+    }
+
+    @Then("{string} should have unread notifications {string}")
+    public void should_have_unread_notifications(String chefName, String messages) {
+        assertThat(outbox.getUnread(chefName).stream().map(NotificationOutbox.Notification::getMessage).collect(Collectors.toList()))
+                .isEqualTo(TestSupport.split(messages));
+        assertThat(outbox.getUnreadCount(chefName)).isEqualTo(TestSupport.split(messages).size());
+    }
+
+    @Then("the outbox should retain {string} for {string}")
+    public void the_outbox_should_retain_for(String messages, String chefName) {
+        assertThat(outbox.getMessages(chefName)).isEqualTo(TestSupport.split(messages));
+    }
+
+    @Then("notification {int} should be the next one sent to {string}")
+    public void notification_should_be_the_next_one_sent_to(int sequence, String chefName) {
+        assertThat(outbox.append(chefName, "next")).isEqualTo(sequence);
+    }
+}
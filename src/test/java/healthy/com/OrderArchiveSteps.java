@@ -0,0 +1,111 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderArchiveSteps {
+
+    private final List<Order> orders = new ArrayList<>();
+    private Path archiveFile;
+    private OrderArchive archive;
+    private IOException readFailure;
+
+    @After
+    public void tearDown() throws IOException {
+        if (archiveFile != null) {
+            Files.deleteIfExists(archiveFile);
+        }
+    }
+
+    @Given("the following orders are ready for archiving:")
+    public void the_following_orders_are_ready_for_archiving(DataTable ordersTable) {
+        for (Map<String, String> columns : ordersTable.asMaps(String.class, String.class)) {
+            Order order = new Order(columns.get("Order ID"), "archive@example.com", columns.get("Order Date"), columns.get("Status"));
+            for (String meal : columns.get("Meals").split(",")) {
+                order.addItem(new OrderItem(meal, 1, 0.0, 0.0));
+            }
+            order.setOrderTotalPrice(Double.parseDouble(columns.get("Total")));
+            orders.add(order);
+        }
+    }
+
+    @When("the orders are archived in memory")
+    public void the_orders_are_archived_in_memory() {
+        archive = OrderArchive.of(orders);
+    }
+
+    @When("the orders are archived to a file and read back")
+    public void the_orders_are_archived_to_a_file_and_read_back() throws IOException {
+        archiveFile = Files.createTempFile("orders", ".archive");
+        OrderArchive.of(orders).writeTo(archiveFile);
+        archive = OrderArchive.readFrom(archiveFile);
+    }
+
+    @When("a plain text file is read as an order archive")
+    public void a_plain_text_file_is_read_as_an_order_archive() throws IOException {
+        archiveFile = Files.createTempFile("orders", ".txt");
+        Files.write(archiveFile, "ARC-1,archive@example.com,2024-01-15,Delivered\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            OrderArchive.readFrom(archiveFile);
+        } catch (IOException e) {
+            readFailure = e;
+        }
+    }
+
+    @Then("the archive should hold {int} orders")
+    public void the_archive_should_hold_orders(int count) {
+        assertThat(archive.getOrderCount()).isEqualTo(count);
+    }
+
+    @Then("the archive total revenue should be {long} cents")
+    public void the_archive_total_revenue_should_be_cents(long cents) {
+        assertThat(archive.getTotalRevenueCents()).isEqualTo(cents);
+    }
+
+    @Then("the archive revenue for {string} should be {long} cents")
+    public void the_archive_revenue_for_should_be_cents(String month, long cents) {
+        assertThat(archive.getRevenueCentsForMonth(YearMonth.parse(month))).isEqualTo(cents);
+    }
+
+    @Then("the archive revenue for {string} in status {string} should be {long} cents")
+    public void the_archive_revenue_for_in_status_should_be_cents(String month, String status, long cents) {
+        assertThat(archive.getRevenueCentsForMonth(YearMonth.parse(month), status)).isEqualTo(cents);
+    }
+
+    @Then("the archive meal frequencies for {string} should be {string}")
+    public void the_archive_meal_frequencies_for_should_be(String month, String expected) {
+        assertThat(format(archive.getMealFrequenciesForMonth(YearMonth.parse(month)))).isEqualTo(expected);
+    }
+
+    @Then("the archive meal frequencies overall should be {string}")
+    public void the_archive_meal_frequencies_overall_should_be(String expected) {
+        assertThat(format(archive.getMealFrequencies())).isEqualTo(expected);
+    }
+
+    @Then("reading the archive should fail with {string}")
+    public void reading_the_archive_should_fail_with(String message) {
+        assertThat(readFailure).isNotNull();
+        assertThat(readFailure.getMessage()).contains(message);
+    }
+
+    private static String format(Map<String, Long> frequencies) {
+        return frequencies.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
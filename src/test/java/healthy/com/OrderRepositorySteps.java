@@ -0,0 +1,201 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderRepositorySteps {
+
+    private Path dataDirectory;
+    private Path dataFile;
+    private OrderRepository orderRepository;
+
+    @Given("an empty order store")
+    public void an_empty_order_store() throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("order-store");
+        dataFile = dataDirectory.resolve("orders.txt");
+        orderRepository = new OrderRepository(dataFile, OrderRepository.ReadMode.BUFFERED);
+    }
+
+    @Given("an order data file containing:")
+    public void an_order_data_file_containing(String contents) throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("order-store");
+        dataFile = dataDirectory.resolve("orders.txt");
+        Files.write(dataFile, (contents + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Given("the order data file uses Windows line endings without a final line break")
+    public void the_order_data_file_uses_windows_line_endings_without_a_final_line_break() throws IOException {
+        String contents = new String(Files.readAllBytes(dataFile), StandardCharsets.UTF_8).trim();
+        Files.write(dataFile, contents.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Given("the order store holds the following orders:")
+    public void the_order_store_holds_the_following_orders(DataTable ordersTable) {
+        for (Map<String, String> columns : ordersTable.asMaps(String.class, String.class)) {
+            Order order = new Order(columns.get("Order ID"), columns.get("Customer"), columns.get("Order Date"), columns.get("Status"));
+            double total = Double.parseDouble(columns.get("Total"));
+            order.addItem(new OrderItem("Meal for " + columns.get("Order ID"), 1, total, total));
+            order.setOrderTotalPrice(total);
+            orderRepository.saveOrder(order);
+        }
+    }
+
+    @When("order {string} is saved again for customer {string} on {string}")
+    public void order_is_saved_again_for_customer_on(String orderId, String customerEmail, String orderDate) {
+        Order previous = orderRepository.findOrderById(orderId);
+        Order order = new Order(orderId, customerEmail, orderDate, previous.getStatus());
+        order.setItems(previous.getItems());
+        order.setOrderTotalCents(previous.getOrderTotalCents());
+        orderRepository.saveOrder(order);
+    }
+
+    @When("order {string} is deleted from the order store")
+    public void order_is_deleted_from_the_order_store(String orderId) {
+        assertThat(orderRepository.deleteOrder(orderId)).isTrue();
+    }
+
+    @When("the order store is opened again from its data file")
+    public void the_order_store_is_opened_again_from_its_data_file() {
+        orderRepository = new OrderRepository(dataFile, OrderRepository.ReadMode.BUFFERED);
+    }
+
+    @When("order {string} is saved again {int} times")
+    public void order_is_saved_again_times(String orderId, int times) {
+        Order order = orderRepository.findOrderById(orderId);
+        for (int i = 0; i < times; i++) {
+            orderRepository.saveOrder(order);
+        }
+    }
+
+    @When("order {string} is marked {string} in place and saved")
+    public void order_is_marked_in_place_and_saved(String orderId, String status) {
+        Order order = orderRepository.findOrderById(orderId);
+        order.setStatus(status);
+        orderRepository.saveOrder(order);
+    }
+
+    @When("order {string} is looked up and marked {string} without saving")
+    public void order_is_looked_up_and_marked_without_saving(String orderId, String status) {
+        orderRepository.findOrderById(orderId).setStatus(status);
+    }
+
+    @Then("order {string} in the order store should have status {string}")
+    public void order_in_the_order_store_should_have_status(String orderId, String status) {
+        assertThat(orderRepository.findOrderById(orderId).getStatus()).isEqualTo(status);
+        assertThat(orderRepository.getAllOrders())
+                .filteredOn(order -> order.getOrderId().equals(orderId))
+                .extracting(Order::getStatus)
+                .containsExactly(status);
+    }
+
+    @Then("the order read mode named {string} should be {word}")
+    public void the_order_read_mode_named_should_be(String name, String mode) {
+        assertThat(OrderRepository.ReadMode.fromName(name)).isEqualTo(OrderRepository.ReadMode.valueOf(mode));
+    }
+
+    @Then("the order data file should hold {int} records")
+    public void the_order_data_file_should_hold_records(int records) throws IOException {
+        assertThat(Files.readAllLines(dataFile)).hasSize(records);
+    }
+
+    @Then("the last order record should start with {string}")
+    public void the_last_order_record_should_start_with(String prefix) throws IOException {
+        List<String> lines = Files.readAllLines(dataFile);
+        assertThat(lines.get(lines.size() - 1)).startsWith(prefix);
+    }
+
+    @Then("the order data file should be compacted to at most {int} records")
+    public void the_order_data_file_should_be_compacted_to_at_most_records(int records) throws Exception {
+        // Compaction runs on a background thread shortly after the save that triggered it.
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (Files.readAllLines(dataFile).size() > records && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(Files.readAllLines(dataFile).size()).isLessThanOrEqualTo(records);
+    }
+
+    @Then("the order store should find order {string} for customer {string}")
+    public void the_order_store_should_find_order_for_customer(String orderId, String customerEmail) {
+        Order order = orderRepository.findOrderById(orderId);
+        assertThat(order).isNotNull();
+        assertThat(order.getCustomerEmail()).isEqualTo(customerEmail);
+    }
+
+    @Then("the order store should not find order {string}")
+    public void the_order_store_should_not_find_order(String orderId) {
+        assertThat(orderRepository.findOrderById(orderId)).isNull();
+    }
+
+    @Then("the order store should list orders {string} for customer {string}")
+    public void the_order_store_should_list_orders_for_customer(String orderIds, String customerEmail) {
+        assertThat(idsOf(orderRepository.findOrdersByCustomerEmail(customerEmail))).isEqualTo(TestSupport.split(orderIds));
+    }
+
+    @Then("the order store should list orders {string} for date {string}")
+    public void the_order_store_should_list_orders_for_date(String orderIds, String orderDate) {
+        assertThat(idsOf(orderRepository.findOrdersByDate(LocalDate.parse(orderDate)))).isEqualTo(TestSupport.split(orderIds));
+    }
+
+    @Then("the order store revenue for {string} should be {long} cents")
+    public void the_order_store_revenue_for_should_be_cents(String month, long cents) {
+        assertThat(orderRepository.getRevenueCentsForMonth(YearMonth.parse(month))).isEqualTo(cents);
+    }
+
+    @Then("the order store closed revenue for {string} should be {long} cents over {int} orders")
+    public void the_order_store_closed_revenue_for_should_be_cents_over_orders(String month, long cents, int orders) {
+        assertThat(orderRepository.getRevenueCentsForMonth(YearMonth.parse(month), OrderArchive::isClosed)).isEqualTo(cents);
+        assertThat(orderRepository.countOrdersForMonth(YearMonth.parse(month), OrderArchive::isClosed)).isEqualTo(orders);
+    }
+
+    @Then("the order store closed revenue overall should be {long} cents")
+    public void the_order_store_closed_revenue_overall_should_be_cents(long cents) {
+        assertThat(orderRepository.getTotalRevenueCents(OrderArchive::isClosed)).isEqualTo(cents);
+    }
+
+    @Then("the order store revenue overall should be {long} cents")
+    public void the_order_store_revenue_overall_should_be_cents(long cents) {
+        assertThat(orderRepository.getTotalRevenueCents()).isEqualTo(cents);
+    }
+
+    @Then("the buffered and memory-mapped order stores should hold the same orders")
+    public void the_buffered_and_memory_mapped_order_stores_should_hold_the_same_orders() {
+        List<Order> buffered = new OrderRepository(dataFile, OrderRepository.ReadMode.BUFFERED).getAllOrders();
+        List<Order> mapped = new OrderRepository(dataFile, OrderRepository.ReadMode.MEMORY_MAPPED).getAllOrders();
+        assertThat(mapped).hasSameSizeAs(buffered);
+        for (int i = 0; i < buffered.size(); i++) {
+            assertThat(mapped.get(i).toString()).isEqualTo(buffered.get(i).toString());
+            assertThat(mapped.get(i).getItems()).isEqualTo(buffered.get(i).getItems());
+        }
+    }
+
+    @Then("the memory-mapped order store should hold orders {string}")
+    public void the_memory_mapped_order_store_should_hold_orders(String orderIds) {
+        orderRepository = new OrderRepository(dataFile, OrderRepository.ReadMode.MEMORY_MAPPED);
+        assertThat(idsOf(orderRepository.getAllOrders())).isEqualTo(TestSupport.split(orderIds));
+    }
+
+    @Then("the memory-mapped order {string} should have meal {string} and total {long} cents")
+    public void the_memory_mapped_order_should_have_meal_and_total_cents(String orderId, String mealName, long totalCents) {
+        Order order = new OrderRepository(dataFile, OrderRepository.ReadMode.MEMORY_MAPPED).findOrderById(orderId);
+        assertThat(order.getItems().get(0).getMealName()).isEqualTo(mealName);
+        assertThat(order.getOrderTotalCents()).isEqualTo(totalCents);
+    }
+
+    static List<String> idsOf(List<Order> orders) {
+        return orders.stream().map(Order::getOrderId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package healthy.com;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RecordParsingSteps {
+
+    private final RecordTokenizer tokenizer = new RecordTokenizer();
+    private String line;
+
+    @Given("the record line {string}")
+    public void the_record_line(String line) {
+        this.line = line;
+        tokenizer.reset(line);
+    }
+
+    @Then("splitting it on {string} should give the fields {string}")
+    public void splitting_it_on_should_give_the_fields(String separator, String fields) {
+        List<String> actual = new ArrayList<>();
+        while (tokenizer.hasMoreFields()) {
+            actual.add(tokenizer.nextString(separator.charAt(0)));
+        }
+        assertThat(actual.toString()).isEqualTo(fields);
+        assertThat(actual).containsExactly(line.split(Pattern.quote(separator), -1));
+    }
+
+    @Then("its first field should read as the int {int} and its second as the same double as {string}")
+    public void its_first_field_should_read_as_the_int_and_its_second_as_the_same_double_as(int expectedInt, String text) {
+        assertThat(tokenizer.nextInt(';')).isEqualTo(expectedInt);
+        assertThat(tokenizer.nextDouble(';')).isEqualTo(Double.parseDouble(text));
+    }
+
+    @Then("its first field should read as {long} cents")
+    public void its_first_field_should_read_as_cents(long cents) {
+        assertThat(tokenizer.nextCents(';')).isEqualTo(cents);
+    }
+
+    @Then("reading its items with {string} and {string} should give {string}")
+    public void reading_its_items_with_and_should_give(String itemSeparator, String detailSeparator, String expected) {
+        char items = itemSeparator.charAt(0);
+        char details = detailSeparator.charAt(0);
+        tokenizer.skipField(';');
+        List<String> actual = new ArrayList<>();
+        tokenizer.enter(';');
+        while (tokenizer.hasMoreFields()) {
+            tokenizer.enter(items);
+            actual.add(tokenizer.nextString(details) + " x" + tokenizer.nextInt(details) + " @" + tokenizer.nextCents(details));
+            tokenizer.exit();
+        }
+        tokenizer.exit();
+        assertThat(String.join(", ", actual)).isEqualTo(expected);
+    }
+
+    @Then("the field after the items should be {string}")
+    public void the_field_after_the_items_should_be(String expected) {
+        assertThat(tokenizer.nextString(';')).isEqualTo(expected);
+        assertThat(tokenizer.hasMoreFields()).isFalse();
+    }
+
+    @Then("the list in its second field should be {string}")
+    public void the_list_in_its_second_field_should_be(String expected) {
+        tokenizer.skipField(';');
+        List<String> items = new ArrayList<>();
+        tokenizer.forEachListItem(';', ',', items::add);
+        assertThat(items.toString()).isEqualTo(expected);
+        assertThat(tokenizer.nextString(';')).isEqualTo("rest");
+    }
+
+    @Then("reading its first field as an int should fail")
+    public void reading_its_first_field_as_an_int_should_fail() {
+        assertThatThrownBy(() -> tokenizer.nextInt(';')).isInstanceOf(NumberFormatException.class);
+    }
+}
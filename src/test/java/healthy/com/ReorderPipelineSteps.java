@@ -0,0 +1,153 @@
+package healthy.com;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReorderPipelineSteps {
+
+    private Path dataDirectory;
+    private ReorderPipeline pipeline;
+    private PurchasingService purchasingService;
+    private IngredientRepository ingredientRepository;
+    private boolean purchaseOrderFileExisted;
+    private final Set<String> reordered = ConcurrentHashMap.newKeySet();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private volatile List<Ingredient> lowStock = Collections.emptyList();
+
+    @After
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        if (purchasingService != null) {
+            purchasingService.stopAutoReorder();
+        }
+    }
+
+    @Given("a reorder pipeline holding {int} reports that is not running")
+    public void a_reorder_pipeline_holding_reports_that_is_not_running(int capacity) {
+        pipeline = new ReorderPipeline(capacity, ingredientName -> {
+            if (failing.contains(ingredientName)) {
+                throw new IllegalStateException("Supplier lookup failed for " + ingredientName);
+            }
+            reordered.add(ingredientName);
+            return new PurchaseOrder("PO-" + ingredientName, ingredientName, "Mill Co", 1, "kg", 1.00, true);
+        }, () -> lowStock);
+    }
+
+    @Given("the ingredients below their reorder level are {string}")
+    public void the_ingredients_below_their_reorder_level_are(String names) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (String name : TestSupport.split(names)) {
+            ingredients.add(new Ingredient(name, 1.00, "", "", 0, "kg", 10));
+        }
+        lowStock = ingredients;
+    }
+
+    @Given("reordering {string} fails")
+    public void reordering_fails(String ingredientName) {
+        failing.add(ingredientName);
+    }
+
+    @When("the pipeline is told {string} is low {int} times")
+    public void the_pipeline_is_told_is_low_times(String ingredientName, int times) {
+        for (int i = 0; i < times; i++) {
+            pipeline.submit(ingredientName);
+        }
+    }
+
+    @When("the pipeline is started")
+    public void the_pipeline_is_started() {
+        pipeline.start(1);
+    }
+
+    @Then("telling the pipeline {string} is low should be refused at once")
+    public void telling_the_pipeline_is_low_should_be_refused_at_once(String ingredientName) {
+        // With nothing draining the queue, a blocking offer would sit out its whole timeout here.
+        long started = System.nanoTime();
+        assertThat(pipeline.submit(ingredientName)).isFalse();
+        assertThat(System.nanoTime() - started).isLessThan(40_000_000L);
+    }
+
+    @Then("the pipeline should have {int} queued reports and {int} dropped")
+    public void the_pipeline_should_have_queued_reports_and_dropped(int queued, int dropped) {
+        assertThat(pipeline.getQueuedCount()).isEqualTo(queued);
+        assertThat(pipeline.getEventsDropped()).isEqualTo(dropped);
+    }
+
+    @Then("the pipeline should eventually have reordered {string}")
+    public void the_pipeline_should_eventually_have_reordered(String names) throws InterruptedException {
+        Set<String> expected = new HashSet<>(TestSupport.split(names));
+        waitFor(() -> reordered.containsAll(expected));
+        assertThat(reordered).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Given("a purchasing service that keeps its orders in memory, reordering {string} from {string}")
+    public void a_purchasing_service_that_keeps_its_orders_in_memory_reordering_from(String ingredientName, String supplierName) throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("reorder-pipeline");
+        purchaseOrderFileExisted = Files.exists(Paths.get("src/main/resources/purchase_orders.txt"));
+        ingredientRepository = new IngredientRepository(dataDirectory.resolve("ingredients.txt"));
+        ingredientRepository.saveAllIngredients(Collections.singletonList(
+                new Ingredient(ingredientName, 1.20, "", "", 1000, "kg", 100)));
+        SupplierRepository supplierRepository = new SupplierRepository(dataDirectory.resolve("suppliers.txt"));
+        Supplier supplier = new Supplier("SUP-1", supplierName, "orders@mill.example");
+        supplier.setItemPrice(ingredientName, 0.80);
+        supplierRepository.saveSupplier(supplier);
+        Map<String, IngredientSupplierLink> links = new HashMap<>();
+        links.put(ingredientName, new IngredientSupplierLink(ingredientName, "SUP-1", 500, "kg", 100, 1000));
+        purchasingService = new PurchasingService(ingredientRepository, supplierRepository, links);
+    }
+
+    @When("the purchasing service reorders automatically")
+    public void the_purchasing_service_reorders_automatically() {
+        purchasingService.startAutoReorder(1);
+    }
+
+    @When("{int} threads each use {int} units of {string} one at a time through the inventory service")
+    public void threads_each_use_units_of_one_at_a_time_through_the_inventory_service(int threads, int units, String name) throws Exception {
+        InventoryService inventoryService = new InventoryService(ingredientRepository);
+        ConcurrentKitchenSteps.runConcurrently(threads, thread -> {
+            for (int i = 0; i < units; i++) {
+                assertThat(inventoryService.useSingleIngredient(name, 1)).isTrue();
+            }
+        });
+    }
+
+    @Then("the purchasing service should eventually have {int} open order for {string} from {string}")
+    public void the_purchasing_service_should_eventually_have_open_order_for_from(int count, String ingredientName, String supplierName) throws InterruptedException {
+        PurchaseOrderRepository orders = purchasingService.getPurchaseOrderRepository();
+        waitFor(() -> orders.findOpenOrder(ingredientName, supplierName) != null);
+        assertThat(orders.getOpenPurchaseOrders()).hasSize(count);
+        assertThat(orders.getAllPurchaseOrders()).hasSize(count);
+    }
+
+    @Then("no purchase order file should have been written")
+    public void no_purchase_order_file_should_have_been_written() {
+        assertThat(Files.exists(Paths.get("src/main/resources/purchase_orders.txt"))).isEqualTo(purchaseOrderFileExisted);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
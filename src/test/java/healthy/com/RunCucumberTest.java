@@ -0,0 +1,18 @@
+package healthy.com;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectDirectories;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/** Runs every feature under usecase/ as part of {@code mvn test}. */
+@Suite
+@IncludeEngines("cucumber")
+@SelectDirectories("usecase")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "healthy.com")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "summary")
+public class RunCucumberTest {
+}
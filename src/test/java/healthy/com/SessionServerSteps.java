@@ -0,0 +1,90 @@
+package healthy.com;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+public class SessionServerSteps {
+
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+
+    private SessionServer sessionServer;
+    private Thread serverThread;
+    private final Map<String, Socket> clients = new HashMap<>();
+    private final Map<String, BufferedReader> readers = new HashMap<>();
+
+    @After
+    public void tearDown() throws IOException, InterruptedException {
+        for (Socket client : clients.values()) {
+            client.close();
+        }
+        if (sessionServer != null) {
+            sessionServer.close();
+            serverThread.join(READ_TIMEOUT_MILLIS);
+        }
+    }
+
+    @Given("a session server that greets each session and allows {int} platform sessions")
+    public void a_session_server_that_greets_each_session_and_allows_platform_sessions(int maxSessions) throws InterruptedException {
+        // Each session greets, then stays open until its client disconnects.
+        sessionServer = new SessionServer(0, (in, out) -> {
+            out.println("Welcome");
+            Scanner lines = new Scanner(in, StandardCharsets.UTF_8);
+            while (lines.hasNextLine()) {
+                lines.nextLine();
+            }
+        }, maxSessions);
+        serverThread = new Thread(() -> {
+            try {
+                sessionServer.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "session-server-test");
+        serverThread.setDaemon(true);
+        serverThread.start();
+        long deadline = System.currentTimeMillis() + READ_TIMEOUT_MILLIS;
+        while (sessionServer.getLocalPort() < 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(sessionServer.getLocalPort()).isPositive();
+    }
+
+    @Given("the session server runs sessions on platform threads")
+    public void the_session_server_runs_sessions_on_platform_threads() {
+        // On Java 21+ sessions run on virtual threads, which are not capped.
+        assumeThat(sessionServer.usesVirtualThreads()).isFalse();
+    }
+
+    @When("client {string} connects to the session server")
+    public void client_connects_to_the_session_server(String client) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), sessionServer.getLocalPort());
+        socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+        clients.put(client, socket);
+        readers.put(client, new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @Then("client {string} should read {string} from the session server")
+    public void client_should_read_from_the_session_server(String client, String line) throws IOException {
+        assertThat(readers.get(client).readLine()).isEqualTo(line);
+    }
+
+    @Then("the session server should have {int} active sessions")
+    public void the_session_server_should_have_active_sessions(int sessions) {
+        assertThat(sessionServer.getActiveSessions()).isEqualTo(sessions);
+    }
+}
@@ -0,0 +1,64 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SkillRuleSteps {
+
+    private Path dataDirectory;
+    private SkillRules skillRules;
+    private ChefRepository chefRepository;
+    private KitchenManagementService kitchen;
+
+    @Given("the skill rules:")
+    public void the_skill_rules(String rules) throws IOException {
+        dataDirectory = TestSupport.createDataDirectory("skill-rules");
+        Path rulesFile = dataDirectory.resolve("skill_rules.txt");
+        Files.write(rulesFile, (rules + "\n").getBytes(StandardCharsets.UTF_8));
+        skillRules = SkillRules.load(rulesFile);
+    }
+
+    @Given("a brigade of chefs:")
+    public void a_brigade_of_chefs(DataTable chefsTable) {
+        chefRepository = new ChefRepository(dataDirectory.resolve("chefs.txt"));
+        for (Map<String, String> columns : chefsTable.asMaps(String.class, String.class)) {
+            chefRepository.saveChef(new Chef(columns.get("Name"), columns.get("Expertise"), "Low"));
+        }
+        kitchen = new KitchenManagementService(chefRepository, skillRules);
+    }
+
+    @When("{string} learns {string}")
+    public void learns(String chefName, String skill) {
+        Chef chef = chefRepository.findChefByName(chefName);
+        chef.addExpertise(skill);
+        chefRepository.saveChef(chef);
+    }
+
+    @Then("the chefs suitable for {string} should be {string}")
+    public void the_chefs_suitable_for_should_be(String mealName, String chefNames) {
+        List<String> names = kitchen.findSuitableChefs(mealName).stream().map(Chef::getName).collect(Collectors.toList());
+        assertThat(names).containsExactlyInAnyOrderElementsOf(TestSupport.split(chefNames));
+    }
+
+    @Then("assigning {string} to {string} should be refused")
+    public void assigning_to_should_be_refused(String mealName, String chefName) {
+        assertThat(kitchen.assignTaskToChef("ORD-SKILL", mealName, chefName)).isFalse();
+    }
+
+    @Then("assigning {string} to {string} should succeed")
+    public void assigning_to_should_succeed(String mealName, String chefName) {
+        assertThat(kitchen.assignTaskToChef("ORD-SKILL", mealName, chefName)).isTrue();
+    }
+}
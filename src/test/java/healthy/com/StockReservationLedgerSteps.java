@@ -0,0 +1,216 @@
+package healthy.com;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StockReservationLedgerSteps {
+
+    private static final Logger LEDGER_LOGGER = Logger.getLogger(StockReservationLedger.class.getName());
+
+    private Path dataDirectory;
+    private IngredientRepository ingredientRepository;
+    private StockReservationLedger ledger;
+    private ChefRepository chefRepository;
+    private KitchenManagementService kitchen;
+    private KitchenOrderService orders;
+    private final Map<String, Map<String, Integer>> ingredientsByMeal = new HashMap<>();
+    private String placedWith;
+    private final TestSupport.SettableClock clock = new TestSupport.SettableClock(LocalDateTime.parse("2026-10-18T10:00"));
+    private List<String> released = new ArrayList<>();
+    private final List<String> ledgerWarnings = new CopyOnWriteArrayList<>();
+    private final Handler warningCollector = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() == Level.WARNING) {
+                ledgerWarnings.add(MessageFormat.format(record.getMessage(), record.getParameters()));
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @After
+    public void tearDown() {
+        LEDGER_LOGGER.removeHandler(warningCollector);
+    }
+
+    @Given("a reservation ledger over the following ingredient stock:")
+    public void a_reservation_ledger_over_the_following_ingredient_stock(DataTable stockTable) throws IOException {
+        LEDGER_LOGGER.addHandler(warningCollector);
+        dataDirectory = TestSupport.createDataDirectory("reservations");
+        ingredientRepository = new IngredientRepository(dataDirectory.resolve("ingredients.txt"));
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (Map<String, String> columns : stockTable.asMaps(String.class, String.class)) {
+            ingredients.add(new Ingredient(columns.get("Name"), 1.00, "", "", Integer.parseInt(columns.get("Stock")), "unit", 0));
+        }
+        ingredientRepository.saveAllIngredients(ingredients);
+        openLedger();
+    }
+
+    @Given("a kitchen that places orders through the ledger with chef {string}")
+    public void a_kitchen_that_places_orders_through_the_ledger_with_chef(String chefName) {
+        chefRepository = new ChefRepository(dataDirectory.resolve("chefs.txt"));
+        chefRepository.saveChef(new Chef(chefName, "Baking", "Low"));
+        openKitchen();
+    }
+
+    @Given("the meal {string} uses {string}")
+    public void the_meal_uses(String mealName, String quantities) {
+        ingredientsByMeal.put(mealName, parseQuantities(quantities));
+    }
+
+    @When("order {string} for {string} is placed with {string}")
+    public void order_for_is_placed_with(String orderId, String mealName, String chefName) {
+        placedWith = orders.placeOrder(orderId, mealName, chefName, null);
+    }
+
+    @When("order {string} for {string} due {string} is placed with {string}")
+    public void order_for_due_is_placed_with(String orderId, String mealName, String dueTime, String chefName) {
+        placedWith = orders.placeOrder(orderId, mealName, chefName, dueTime);
+    }
+
+    @Given("order {string} reserves {string} without a kitchen task")
+    public void order_reserves_without_a_kitchen_task(String orderId, String quantities) {
+        assertThat(ledger.reserve(orderId, parseQuantities(quantities))).isTrue();
+    }
+
+    @When("order {string} for {string} is assigned straight to {string}")
+    public void order_for_is_assigned_straight_to(String orderId, String mealName, String chefName) {
+        assertThat(kitchen.assignTaskToChef(orderId, mealName, chefName)).isTrue();
+    }
+
+    @When("{int} hours pass and the ledger releases expired holds")
+    public void hours_pass_and_the_ledger_releases_expired_holds(int hours) {
+        clock.advance(Duration.ofHours(hours));
+        released = ledger.releaseExpired();
+    }
+
+    @Then("no reservations should have been released")
+    public void no_reservations_should_have_been_released() {
+        assertThat(released).isEmpty();
+    }
+
+    @Then("the reservations of {string} should have been released")
+    public void the_reservations_of_should_have_been_released(String orderId) {
+        assertThat(released).containsExactly(orderId);
+    }
+
+    @Then("the kitchen task board should have {int} scheduled tasks")
+    public void the_kitchen_task_board_should_have_scheduled_tasks(int count) {
+        assertThat(kitchen.getTaskBoard().getScheduledCount()).isEqualTo(count);
+    }
+
+    @Then("the kitchen task for order {string} should be {string} and no longer open")
+    public void the_kitchen_task_for_order_should_be_and_no_longer_open(String orderId, String status) {
+        KitchenTask task = kitchen.findTask(orderId);
+        assertThat(task.getStatus()).isEqualTo(status);
+        assertThat(task.isOpen()).isFalse();
+    }
+
+    @Then("the workload of {string} should be {string}")
+    public void the_workload_of_should_be(String chefName, String workload) {
+        assertThat(chefRepository.findChefByName(chefName).getCurrentWorkload()).isEqualTo(workload);
+    }
+
+    @Then("a warning that order {string} was completed after its stock reservation ran out should be logged")
+    public void a_warning_that_order_was_completed_after_its_stock_reservation_ran_out_should_be_logged(String orderId) {
+        assertThat(ledgerWarnings).anyMatch(warning -> warning.startsWith("Order " + orderId + " was completed after"));
+    }
+
+    @When("order {string} is cancelled")
+    public void order_is_cancelled(String orderId) {
+        assertThat(orders.cancelOrder(orderId)).isTrue();
+    }
+
+    @When("{string} completes the kitchen task for order {string}")
+    public void completes_the_kitchen_task_for_order(String chefName, String orderId) {
+        assertThat(kitchen.completeTask(chefName, orderId)).isTrue();
+    }
+
+    @When("the ledger and its inventory are opened again from their files")
+    public void the_ledger_and_its_inventory_are_opened_again_from_their_files() {
+        ingredientRepository = new IngredientRepository(dataDirectory.resolve("ingredients.txt"));
+        openLedger();
+        openKitchen();
+    }
+
+    @Then("the order should not have been placed")
+    public void the_order_should_not_have_been_placed() {
+        assertThat(placedWith).isNull();
+    }
+
+    @Then("the ledger should hold {int} {string} for orders with {int} available")
+    public void the_ledger_should_hold_for_orders_with_available(int reserved, String ingredient, int available) {
+        assertThat(ledger.getReservedStock(ingredient)).isEqualTo(reserved);
+        assertThat(ledger.getAvailableStock(ingredient)).isEqualTo(available);
+    }
+
+    @Then("the ledger should have {int} open reservations")
+    public void the_ledger_should_have_open_reservations(int count) {
+        assertThat(ledger.getOpenReservationCount()).isEqualTo(count);
+    }
+
+    @Then("the last reservation record should be {string}")
+    public void the_last_reservation_record_should_be(String record) throws IOException {
+        List<String> lines = Files.readAllLines(dataDirectory.resolve("reservations.txt"));
+        assertThat(lines.get(lines.size() - 1)).isEqualTo(record);
+    }
+
+    @Then("reserving {string} again for order {string} should be refused")
+    public void reserving_again_for_order_should_be_refused(String quantities, String orderId) {
+        assertThat(ledger.reserve(orderId, parseQuantities(quantities))).isFalse();
+    }
+
+    @Then("{string} should hold no kitchen task for order {string}")
+    public void should_hold_no_kitchen_task_for_order(String chefName, String orderId) {
+        assertThat(chefRepository.findChefByName(chefName).getTask(orderId)).isNull();
+    }
+
+    private void openLedger() {
+        ledger = new StockReservationLedger(dataDirectory.resolve("reservations.txt"),
+                new InventoryService(ingredientRepository), clock);
+    }
+
+    // Without a rules file every chef may cook every meal.
+    private void openKitchen() {
+        kitchen = new KitchenManagementService(chefRepository, SkillRules.load(dataDirectory.resolve("no-skill-rules.txt")));
+        orders = new KitchenOrderService(kitchen, ledger, ingredientsByMeal::get);
+    }
+
+    // Flour:4,Eggs:2
+    private static Map<String, Integer> parseQuantities(String quantities) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String item : TestSupport.split(quantities)) {
+            int split = item.lastIndexOf(':');
+            parsed.put(item.substring(0, split), Integer.parseInt(item.substring(split + 1)));
+        }
+        return parsed;
+    }
+}
@@ -33,6 +33,7 @@ public class TaskAssignmentSteps {
     public void setUp() {
         try {
             Files.deleteIfExists(Paths.get("src/main/resources/chefs.txt"));
+            Files.deleteIfExists(Paths.get("src/main/resources/notifications.txt"));
         } catch (IOException e) {
             System.err.println("Could not delete data files: " + e.getMessage());
         }
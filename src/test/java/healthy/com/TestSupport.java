@@ -0,0 +1,86 @@
+package healthy.com;
+
+import io.cucumber.java.After;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/** Helpers shared by the step classes: scenario data directories, list cells and a hand-moved clock. */
+public class TestSupport {
+
+    /** A UTC clock that only moves when the steps move it. */
+    static final class SettableClock extends Clock {
+        private volatile Instant instant;
+
+        SettableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private static final List<Path> dataDirectories = new ArrayList<>();
+
+    /** A new temporary directory, deleted with everything in it when the scenario ends. */
+    static Path createDataDirectory(String prefix) throws IOException {
+        Path directory = Files.createTempDirectory(prefix);
+        dataDirectories.add(directory);
+        return directory;
+    }
+
+    // Runs after every other step class's @After hook, so those can still use their files.
+    @After(order = 0)
+    public void deleteDataDirectories() throws IOException {
+        try {
+            for (Path directory : dataDirectories) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } finally {
+            dataDirectories.clear();
+        }
+    }
+
+    /** Splits a comma-separated list; an empty cell is an empty list. */
+    static List<String> split(String commaSeparated) {
+        return commaSeparated.isEmpty() ? Collections.emptyList() : Arrays.asList(commaSeparated.split(","));
+    }
+}
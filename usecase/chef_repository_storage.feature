@@ -0,0 +1,49 @@
+Feature: Chef Repository Storage
+  In order to save kitchen changes without rewriting every chef,
+  As the system,
+  I want only the chefs and tasks that changed appended to the chefs file.
+
+  Background:
+    Given an empty chef store
+    And the chef store holds the following chefs:
+      | Name          | Expertise               | Workload |
+      | Chef Gordon   | Grilling,Italian Cuisine | Low      |
+      | Chef Julia    | Baking,Desserts         | Medium   |
+      | Chef Marco    | Italian Cuisine         | Low      |
+
+  Scenario: Changed chefs are written only when changes are persisted, once each
+    When the chef store marks "Chef Julia" as changed with workload "High"
+    And the chef store marks "Chef Julia" as changed with workload "Full"
+    Then the chef data file should hold 3 records
+    When the chef store persists its changes
+    Then the chef data file should hold 4 records
+    And the last chef record should start with "Chef Julia;Baking,Desserts;Full;"
+
+  Scenario: A task change appends a task record and a workload record
+    When "Chef Marco" is given task "ORD-7" for "Lasagna" in the chef store
+    And task "ORD-7" of "Chef Marco" is marked "Completed" in the chef store
+    Then the chef data file should hold 7 records
+    And the last chef record should start with "WORKLOAD;Chef Marco;"
+    When the chef store is opened again from its data file
+    Then the chef store should find task "ORD-7" held by "Chef Marco" with status "Completed"
+
+  Scenario: Chefs are found through the skill index
+    Then the chef store should list "Chef Gordon,Chef Marco" for skill "italian cuisine"
+    When the chef store marks "Chef Marco" as changed with expertise "Vegan Cuisine"
+    Then the chef store should list "Chef Gordon" for skill "italian cuisine"
+    And the chef store should list "Chef Marco" for skill "vegan cuisine"
+
+  Scenario: A task id held by one chef cannot be given to another
+    When "Chef Marco" is given task "ORD-7" for "Lasagna" in the chef store
+    Then giving task "ORD-7" for "Tiramisu" to "Chef Julia" in the chef store should be refused
+    And the chef store should find task "ORD-7" held by "Chef Marco" with status "Assigned"
+
+  Scenario: Chefs handed out before another writer changed the file are reloaded in place
+    Given "Chef Marco" is given task "ORD-7" for "Lasagna" in the chef store
+    And "Chef Marco" and task "ORD-7" are held from the chef store
+    When another writer completes task "ORD-7" of "Chef Marco" and sets the workload to "High"
+    Then the held chef should still be the chef store's "Chef Marco" with workload "High"
+    And the held task should still be the chef store's task with status "Completed"
+    When the held chef's workload is set to "Full" and saved in the chef store
+    And the chef store is opened again from its data file
+    Then "Chef Marco" should have workload "Full" in the chef store
@@ -0,0 +1,46 @@
+Feature: Concurrent Task Assignment
+  In order to take orders from several intake threads at once,
+  As the system,
+  I want task assignments to different chefs to run in parallel without losing any.
+
+  Background:
+    Given a kitchen with the following chefs:
+      | Name        | Expertise        | Workload |
+      | Chef Gordon | Grilling         | Low      |
+      | Chef Julia  | Baking           | Low      |
+      | Chef Marco  | Italian Cuisine  | Low      |
+
+  Scenario: Tasks assigned from many threads are all kept
+    When 8 intake threads each assign 25 "Soup" tasks to the kitchen's chefs in turn
+    Then the kitchen should hold 200 open tasks in total
+    And every task should be found through the kitchen's task index
+    When the kitchen is opened again from its data file
+    Then the kitchen should hold 200 open tasks in total
+
+  Scenario: Assigning the same task id twice keeps one task
+    When 4 intake threads each assign task "ORD-1" for "Soup" to "Chef Julia"
+    Then "Chef Julia" should hold 1 open tasks in the kitchen
+
+  Scenario: Keys map to fixed lock stripes
+    Given striped locks with 5 stripes
+    Then the striped locks should have 8 stripes
+    And key "Chef Gordon" should always get the same stripe
+    And while every stripe is held another thread cannot lock key "Chef Julia"
+
+  Scenario: Tasks auto-assigned from many threads are spread evenly
+    When 6 intake threads each auto-assign 10 "Soup" tasks
+    Then every chef in the kitchen should hold 20 open tasks
+
+  Scenario: Ties on open tasks go to the chef with fewer prep minutes left
+    Given the kitchen estimates "Roast" at 60 minutes and "Salad" at 5 minutes
+    When task "ORD-R" for "Roast" is assigned to "Chef Gordon" in the kitchen
+    And task "ORD-S" for "Salad" is assigned to "Chef Julia" in the kitchen
+    Then auto-assigning task "ORD-A" for "Soup" should pick "Chef Marco"
+    And auto-assigning task "ORD-B" for "Soup" should pick "Chef Julia"
+
+  Scenario: Completing a task makes the chef the least loaded again
+    When task "ORD-1" for "Soup" is assigned to "Chef Gordon" in the kitchen
+    And task "ORD-2" for "Soup" is assigned to "Chef Julia" in the kitchen
+    And task "ORD-3" for "Soup" is assigned to "Chef Marco" in the kitchen
+    And "Chef Julia" completes task "ORD-2" in the kitchen
+    Then auto-assigning task "ORD-4" for "Soup" should pick "Chef Julia"
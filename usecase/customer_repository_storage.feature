@@ -0,0 +1,59 @@
+Feature: Customer Repository Storage
+  In order to find customers by dietary needs without rereading the data file,
+  As the system,
+  I want customers kept in memory and indexed by their preferences and allergies.
+
+  Background:
+    Given an empty customer store
+    And the customer store holds the following customers:
+      | Email             | Preferences      | Allergies      |
+      | lina@example.com  | Vegan,Keto       | Nuts           |
+      | omar@example.com  | vegan            |                |
+      | sara@example.com  |                  | nuts,Dairy     |
+
+  Scenario: Customers are found by preference and allergy regardless of case
+    Then the customer store should list "lina@example.com,omar@example.com" for preference "VEGAN"
+    And the customer store should list "lina@example.com,sara@example.com" for allergy "nuts"
+    And the customer store should list "" for allergy "Shellfish"
+
+  Scenario: A customer saved again with changed attributes moves in the indexes
+    When customer "lina@example.com" drops allergy "Nuts", adds allergy "Gluten" and is saved
+    Then the customer store should list "sara@example.com" for allergy "nuts"
+    And the customer store should list "lina@example.com" for allergy "gluten"
+
+  Scenario: Every save appends one record and the store replays it
+    When customer "lina@example.com" drops allergy "Nuts", adds allergy "Gluten" and is saved
+    Then the customer data file should hold 4 records
+    When the customer store is opened again from its data file
+    Then the customer store should list "lina@example.com" for allergy "Gluten"
+    And the customer store should list "omar@example.com,sara@example.com,lina@example.com" as all customers
+
+  Scenario: A change written by another store instance is picked up
+    When another customer store saves customer "new@example.com" with allergy "Nuts"
+    Then the customer store should list "lina@example.com,sara@example.com,new@example.com" for allergy "nuts"
+
+  Scenario: Dietary profiles are imported in one batch
+    When the following dietary profiles are imported:
+      | Email             | Preferences  | Allergies |
+      | omar@example.com  | Keto         | Shellfish |
+      | new@example.com   | Vegetarian   |           |
+      |                   | Vegan        |           |
+      | omar@example.com  | Paleo        |           |
+    Then 2 customers should have been updated by the import
+    And the customer data file should hold 5 records
+    And the customer store should list "lina@example.com,omar@example.com" for preference "keto"
+    And the customer store should list "omar@example.com" for allergy "shellfish"
+    And the customer store should list "omar@example.com" for preference "Paleo"
+    And the customer store should list "new@example.com" for preference "vegetarian"
+
+  Scenario: Allergic customers ordering on a given day are found from both indexes
+    Given the orders for "2024-05-01" were placed by "sara@example.com,omar@example.com,lina@example.com"
+    And the orders for "2024-05-02" were placed by "sara@example.com"
+    Then the customers with allergy "NUTS" ordering on "2024-05-01" should be "lina@example.com,sara@example.com"
+    And the customers with allergy "dairy" ordering on "2024-05-02" should be "sara@example.com"
+    And the customers with allergy "dairy" ordering on "2024-05-03" should be ""
+
+  Scenario: A looked-up customer changed without saving leaves the store as it was
+    When customer "lina@example.com" is looked up and given allergy "Shellfish" without saving
+    Then the customer store should list "" for allergy "shellfish"
+    And customer "lina@example.com" in the customer store should not have allergy "Shellfish"
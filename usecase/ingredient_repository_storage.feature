@@ -0,0 +1,75 @@
+Feature: Ingredient Repository Storage
+  In order to keep stock counts right while the kitchen and the office work at once,
+  As the system,
+  I want every ingredient held as one shared instance that saves update in place.
+
+  Background:
+    Given an empty ingredient store
+    And the ingredient store holds the following ingredients:
+      | Name  | Price | Stock | Unit | Reorder Level |
+      | Flour | 1.20  | 1000  | kg   | 100           |
+      | Sugar | 0.90  | 500   | kg   | 50            |
+
+  Scenario: Stock taken through a held ingredient after an edited copy is saved is kept
+    Given ingredient "Flour" is held from the ingredient store
+    When an edited copy of "Flour" priced 2.50 with stock 800 is saved to the ingredient store
+    And 30 units of the held "Flour" are taken
+    Then the ingredient store's "Flour" should be the held one with price 2.50 and stock 770
+
+  Scenario: Stock taken concurrently with saves of edited copies lands on the stored ingredient
+    Given ingredient "Flour" is held from the ingredient store
+    When 4 threads each take 1 unit of the held "Flour" 200 times while 50 edited copies of it are saved with stock 1000
+    Then the ingredient store's "Flour" should still be the held one with the price of the last edited copy
+    And the held "Flour" should have lost exactly the units taken since the last edited copy was saved
+
+  Scenario: Stock used through the inventory appends one record for the ingredient
+    When 30 units of "Flour" are used through the inventory service
+    Then the ingredient data file should hold 3 records
+    And the last ingredient record should be "Flour;1.2;;;970;kg;100"
+    When the ingredient store is opened again from its data file
+    Then the ingredient store should have 970 of "Flour" and 500 of "Sugar"
+
+  Scenario: Changes marked together are written together, once
+    When "Flour" and "Sugar" are each used 10 units in place and marked changed
+    And the ingredient store persists its changes
+    And the ingredient store persists its changes
+    Then the ingredient data file should hold 4 records
+    When the ingredient store is opened again from its data file
+    Then the ingredient store should have 990 of "Flour" and 490 of "Sugar"
+
+  Scenario: Superseded stock records are compacted away
+    When the stock of "Flour" is set through the inventory service to every level from 1 to 1100
+    Then the ingredient data file should be compacted to at most 100 records
+    When the ingredient store is opened again from its data file
+    Then the ingredient store should have 1100 of "Flour" and 500 of "Sugar"
+
+  Scenario: An ingredient used below its reorder level is queued for restocking once
+    Given the ingredient store reports low stock to a listener
+    When 950 units of "Flour" are used through the inventory service
+    And 20 units of "Flour" are used through the inventory service
+    Then the ingredients below their reorder level should be "Flour"
+    And the low stock listener should have heard of "Flour" only
+
+  Scenario: A restocked ingredient leaves the restock queue
+    When 950 units of "Flour" are used through the inventory service
+    And the stock of "Flour" is set through the inventory service to every level from 500 to 500
+    Then the ingredients below their reorder level should be ""
+
+  Scenario: Raising the reorder level above the stock queues the ingredient
+    Given the ingredient store reports low stock to a listener
+    When the reorder level of "Sugar" is set to 600 through the inventory service
+    Then the ingredients below their reorder level should be "Sugar"
+    And the low stock listener should have heard of "Sugar" only
+
+  Scenario: Ingredients already below their reorder level are queued when the store is opened
+    When 460 units of "Sugar" are used through the inventory service
+    And the ingredient store persists its changes
+    And the ingredient store is opened again from its data file
+    Then the ingredients below their reorder level should be "Sugar"
+
+  Scenario: Concurrent use reports the crossing of the reorder level exactly once
+    Given the ingredient store reports low stock to a listener
+    When 8 threads each use 1 unit of "Flour" through the inventory service 120 times
+    Then the ingredient store should have 40 of "Flour" and 500 of "Sugar"
+    And the ingredients below their reorder level should be "Flour"
+    And the low stock listener should have heard of "Flour" only
@@ -0,0 +1,40 @@
+Feature: Kitchen Task Board
+  In order to remind chefs of tasks coming due and flag the ones running late,
+  As the kitchen,
+  I want open tasks tracked on a board that moves them to upcoming and then overdue on time.
+
+  Background:
+    Given a kitchen task board whose clock reads "2026-10-18T18:00" with a 30 minute lead
+
+  Scenario: A task becomes upcoming in its lead window and overdue once its time passes
+    When task "ORD-1" of "Chef Gordon" due "18:45" is put on the task board
+    And the task board clock moves to "2026-10-18T18:10"
+    Then the task board should have reported ""
+    When the task board clock moves to "2026-10-18T18:20"
+    Then the task board should have reported "ORD-1 UPCOMING"
+    And the task board should show "ORD-1" upcoming and "" overdue for "Chef Gordon"
+    When the task board clock moves to "2026-10-18T18:46"
+    Then the task board should have reported "ORD-1 UPCOMING,ORD-1 OVERDUE"
+    And the task board should show "" upcoming and "ORD-1" overdue for "Chef Gordon"
+
+  Scenario: A time of day earlier than the clock shortly before midnight is due the next day
+    Given the task board clock moves to "2026-10-18T23:50"
+    When task "ORD-2" of "Chef Julia" due "00:15" is put on the task board
+    And the task board clock moves to "2026-10-18T23:51"
+    Then the task board should have reported "ORD-2 UPCOMING"
+    When the task board clock moves to "2026-10-19T00:16"
+    Then the task board should have reported "ORD-2 UPCOMING,ORD-2 OVERDUE"
+
+  Scenario: A task taken off the board is never reported
+    When task "ORD-3" of "Chef Marco" due "18:05" is put on the task board
+    And task "ORD-3" is taken off the task board
+    And the task board clock moves to "2026-10-18T19:00"
+    Then the task board should have reported ""
+    And the task board should hold 0 scheduled tasks
+
+  Scenario: Tasks already late at start-up are shown overdue without a new report
+    Given the task board clock moves to "2026-10-18T19:00"
+    When the task board loads "Chef Gordon" holding task "ORD-4" due "18:30"
+    And the task board clock moves to "2026-10-18T19:01"
+    Then the task board should have reported ""
+    And the task board should show "" upcoming and "ORD-4" overdue for "Chef Gordon"
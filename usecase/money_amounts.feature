@@ -0,0 +1,55 @@
+Feature: Money Amounts
+  In order to keep totals exact,
+  As the system,
+  I want money held as whole cents and converted only at the edges.
+
+  Scenario Outline: Amounts are parsed into cents
+    When the amount "<text>" is parsed
+    Then the amount should be <cents> cents
+
+    Examples:
+      | text    | cents  |
+      | 12.5    | 1250   |
+      | 12.50   | 1250   |
+      | 3       | 300    |
+      | -3.05   | -305   |
+      | +0.1    | 10     |
+      | 0.125   | 13     |
+      | 1e2     | 10000  |
+
+  Scenario Outline: Cents are formatted with two decimals and a dot
+    Then <cents> cents should be formatted as "<text>"
+
+    Examples:
+      | cents  | text   |
+      | 1250   | 12.50  |
+      | 5      | 0.05   |
+      | 0      | 0.00   |
+      | -305   | -3.05  |
+      | 100000 | 1000.00 |
+
+  Scenario: A decimal amount is rounded to the nearest cent
+    Then the decimal amount 19.999 should be 2000 cents
+    And the decimal amount 0.1 plus 0.2 should be 30 cents
+
+  Scenario: A purchase order totals the exact unit price before rounding
+    When a purchase order for 40 units at 0.125 each is generated
+    Then the purchase order total should be 500 cents
+    And the purchase order unit price should be 0.125
+
+  Scenario: A stored purchase order keeps its exact unit price
+    When a purchase order for 40 units at 0.125 each is saved in a purchase order store
+    And the purchase order store is opened again
+    Then the purchase order total should be 500 cents
+    And the purchase order unit price should be 0.125
+
+  Scenario Outline: A purchase order prints its unit price and total with two decimals
+    When a purchase order for <quantity> units at <price> each is generated
+    Then the purchase order should print "price=<printed price>, total=<printed total>"
+
+    Examples:
+      | quantity | price      | printed price | printed total |
+      | 10       | 0.80       | 0.80          | 8.00          |
+      | 40       | 0.125      | 0.13          | 5.00          |
+      | 2        | 12500000.0 | 12500000.00   | 25000000.00   |
+      | 1000     | 0.0001     | 0.00          | 0.10          |
@@ -0,0 +1,34 @@
+Feature: Chef Notification Outbox
+  In order to notify chefs with one appended line and keep the file bounded,
+  As the system,
+  I want chef notifications numbered, tracked as read or unread, and trimmed.
+
+  Scenario: Notifications stay unread until the chef reads them
+    Given a notification outbox keeping 2 read and at most 10 notifications per chef
+    When 3 notifications are sent to "Chef Gordon"
+    Then "Chef Gordon" should have 3 unread notifications
+    When "Chef Gordon" reads up to notification 2
+    Then "Chef Gordon" should have unread notifications "message 3"
+    And the outbox should retain "message 1,message 2,message 3" for "Chef Gordon"
+
+  Scenario: Read notifications beyond the retention limit are dropped
+    Given a notification outbox keeping 2 read and at most 10 notifications per chef
+    When 5 notifications are sent to "Chef Gordon"
+    And "Chef Gordon" reads every notification
+    Then the outbox should retain "message 4,message 5" for "Chef Gordon"
+    And "Chef Gordon" should have 0 unread notifications
+
+  Scenario: A chef who never reads keeps only the newest notifications
+    Given a notification outbox keeping 2 read and at most 3 notifications per chef
+    When 5 notifications are sent to "Chef Julia"
+    Then the outbox should retain "message 3,message 4,message 5" for "Chef Julia"
+    And "Chef Julia" should have unread notifications "message 3,message 4,message 5"
+
+  Scenario: The read cursor and trimmed mailbox survive a reload
+    Given a notification outbox keeping 2 read and at most 3 notifications per chef
+    When 5 notifications are sent to "Chef Julia"
+    And "Chef Julia" reads up to notification 4
+    And the notification outbox is opened again from its data file
+    Then the outbox should retain "message 3,message 4,message 5" for "Chef Julia"
+    And "Chef Julia" should have unread notifications "message 5"
+    And notification 6 should be the next one sent to "Chef Julia"
@@ -0,0 +1,37 @@
+Feature: Closed Order Archive
+  In order to run monthly analytics without loading every open order,
+  As the system,
+  I want closed orders copied into a compact columnar archive file.
+
+  Background:
+    Given the following orders are ready for archiving:
+      | Order ID | Order Date | Status    | Meals                 | Total |
+      | ARC-1    | 2024-01-15 | Delivered | Pasta,Salad           | 20.00 |
+      | ARC-2    | 2024-02-03 | Paid      | Pasta                 | 12.50 |
+      | ARC-3    | 2024-02-20 | Delivered | Soup,Pasta,Soup       | 18.25 |
+      | ARC-4    | 2024-02-21 | Preparing | Salad                 | 9.00  |
+      | ARC-5    | 2024-03-01 | Cancelled | Soup                  | 7.00  |
+
+  Scenario: Only paid and delivered orders are archived
+    When the orders are archived in memory
+    Then the archive should hold 3 orders
+    And the archive total revenue should be 5075 cents
+    And the archive revenue for "2024-02" should be 3075 cents
+    And the archive revenue for "2024-02" in status "Delivered" should be 1825 cents
+    And the archive revenue for "2024-03" should be 0 cents
+
+  Scenario: Meal frequencies are counted per month, most frequent first
+    When the orders are archived in memory
+    Then the archive meal frequencies for "2024-02" should be "Pasta=2,Soup=2"
+    And the archive meal frequencies overall should be "Pasta=3,Soup=2,Salad=1"
+
+  Scenario: An archive written to disk reads back the same figures
+    When the orders are archived to a file and read back
+    Then the archive should hold 3 orders
+    And the archive revenue for "2024-01" should be 2000 cents
+    And the archive revenue for "2024-02" in status "Paid" should be 1250 cents
+    And the archive meal frequencies overall should be "Pasta=3,Soup=2,Salad=1"
+
+  Scenario: A file that is not an archive is rejected
+    When a plain text file is read as an order archive
+    Then reading the archive should fail with "is not an order archive"
@@ -0,0 +1,25 @@
+Feature: Memory-Mapped Order History Read
+  In order to load large order histories without copying them through a reader,
+  As the system,
+  I want the memory-mapped read mode to load exactly what the buffered mode loads.
+
+  Background:
+    Given an order data file containing:
+      """
+      ORD-1;sara@example.com;2024-03-01;Delivered;12.50;Crème brûlée,1,12.50,12.50
+
+      ORD-2;omar@example.com;2024-03-02;Preparing;8.75;Soup,1,8.75,8.75
+      ORD-3;omar@example.com;2024-03-02;Delivered;20.00;Pasta,2,10.00,20.00
+      DELETED;ORD-2
+      ORD-1;sara@example.com;2024-03-01;Delivered;25.00;Crème brûlée,2,12.50,25.00
+      """
+
+  Scenario: Both read modes load the same orders
+    Then the buffered and memory-mapped order stores should hold the same orders
+    And the memory-mapped order store should hold orders "ORD-1,ORD-3"
+    And the memory-mapped order "ORD-3" should have meal "Pasta" and total 2000 cents
+
+  Scenario: Windows line endings and a missing final line break are read the same way
+    Given the order data file uses Windows line endings without a final line break
+    Then the buffered and memory-mapped order stores should hold the same orders
+    And the memory-mapped order store should hold orders "ORD-1,ORD-3"
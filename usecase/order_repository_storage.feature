@@ -0,0 +1,67 @@
+Feature: Order Repository Storage
+  In order to look up orders quickly without rereading the data file,
+  As the system,
+  I want saved orders kept in memory, indexed and written through to the file.
+
+  Background:
+    Given an empty order store
+    And the order store holds the following orders:
+      | Order ID | Customer           | Order Date | Status    | Total |
+      | ORD-1    | sara@example.com   | 2024-03-01 | Delivered | 12.50 |
+      | ORD-2    | sara@example.com   | 2024-03-02 | Preparing | 8.75  |
+      | ORD-3    | omar@example.com   | 2024-03-02 | Delivered | 20.00 |
+
+  Scenario: Saved orders are found by id, customer and date
+    Then the order store should find order "ORD-2" for customer "sara@example.com"
+    And the order store should list orders "ORD-1,ORD-2" for customer "sara@example.com"
+    And the order store should list orders "ORD-2,ORD-3" for date "2024-03-02"
+
+  Scenario: Saving an order again moves it in the indexes
+    When order "ORD-2" is saved again for customer "omar@example.com" on "2024-03-05"
+    Then the order store should list orders "ORD-1" for customer "sara@example.com"
+    And the order store should list orders "ORD-3,ORD-2" for customer "omar@example.com"
+    And the order store should list orders "ORD-3" for date "2024-03-02"
+    And the order store should list orders "ORD-2" for date "2024-03-05"
+
+  Scenario: Saved orders are written through to the data file
+    When the order store is opened again from its data file
+    Then the order store should list orders "ORD-1,ORD-2" for customer "sara@example.com"
+    And the order store should find order "ORD-3" for customer "omar@example.com"
+
+  Scenario: A deleted order disappears from every index and from the file
+    When order "ORD-1" is deleted from the order store
+    And the order store is opened again from its data file
+    Then the order store should not find order "ORD-1"
+    And the order store should list orders "ORD-2" for customer "sara@example.com"
+
+  Scenario: Each save appends one journal record instead of rewriting the file
+    When order "ORD-3" is saved again for customer "omar@example.com" on "2024-03-04"
+    Then the order data file should hold 4 records
+    And the last order record should start with "ORD-3;omar@example.com;2024-03-04"
+
+  Scenario: A delete appends a tombstone record
+    When order "ORD-1" is deleted from the order store
+    Then the order data file should hold 4 records
+    And the last order record should start with "DELETED;ORD-1"
+
+  Scenario: The journal is compacted once superseded records pile up
+    When order "ORD-2" is saved again 3000 times
+    Then the order data file should be compacted to at most 1027 records
+    When the order store is opened again from its data file
+    Then the order store should list orders "ORD-1,ORD-2" for customer "sara@example.com"
+
+  Scenario: A looked-up order changed without saving leaves the store as it was
+    When order "ORD-1" is looked up and marked "Cancelled" without saving
+    Then order "ORD-1" in the order store should have status "Delivered"
+    And the order store closed revenue overall should be 3250 cents
+
+  Scenario Outline: The order read mode is chosen by name and falls back to buffered
+    Then the order read mode named "<name>" should be <mode>
+
+    Examples:
+      | name          | mode          |
+      | MEMORY_MAPPED | MEMORY_MAPPED |
+      | memory_mapped | MEMORY_MAPPED |
+      | buffered      | BUFFERED      |
+      | mapped        | BUFFERED      |
+      |               | BUFFERED      |
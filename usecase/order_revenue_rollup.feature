@@ -0,0 +1,39 @@
+Feature: Order Revenue Rollup
+  In order to report monthly revenue without summing every order,
+  As the system,
+  I want revenue totals kept per month and status as orders are saved.
+
+  Background:
+    Given an empty order store
+    And the order store holds the following orders:
+      | Order ID | Customer           | Order Date | Status    | Total |
+      | REV-1    | sara@example.com   | 2024-03-01 | Delivered | 12.50 |
+      | REV-2    | sara@example.com   | 2024-03-15 | Preparing | 8.75  |
+      | REV-3    | omar@example.com   | 2024-04-02 | Paid      | 20.00 |
+
+  Scenario: Revenue is totalled per month and per status
+    Then the order store revenue for "2024-03" should be 2125 cents
+    And the order store closed revenue for "2024-03" should be 1250 cents over 1 orders
+    And the order store closed revenue overall should be 3250 cents
+    And the order store revenue overall should be 4125 cents
+
+  Scenario: Changing an order's status in place moves its revenue
+    When order "REV-2" is marked "Delivered" in place and saved
+    Then the order store closed revenue for "2024-03" should be 2125 cents over 2 orders
+    And the order store revenue overall should be 4125 cents
+
+  Scenario: Moving an order to another month moves its revenue
+    When order "REV-2" is saved again for customer "sara@example.com" on "2024-04-10"
+    Then the order store revenue for "2024-03" should be 1250 cents
+    And the order store revenue for "2024-04" should be 2875 cents
+
+  Scenario: Deleted orders no longer count
+    When order "REV-3" is deleted from the order store
+    Then the order store revenue for "2024-04" should be 0 cents
+    And the order store closed revenue overall should be 1250 cents
+
+  Scenario: The rollup is rebuilt when the store is opened again
+    When order "REV-2" is marked "Delivered" in place and saved
+    And the order store is opened again from its data file
+    Then the order store closed revenue for "2024-03" should be 2125 cents over 2 orders
+    And the order store revenue overall should be 4125 cents
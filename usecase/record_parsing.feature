@@ -0,0 +1,52 @@
+Feature: Record Parsing
+  In order to load data files quickly and the same way they were always read,
+  As the system,
+  I want records split into fields with the same results as String.split.
+
+  Scenario Outline: Fields are split like String.split with a negative limit
+    Given the record line "<line>"
+    Then splitting it on "<separator>" should give the fields "<fields>"
+
+    Examples:
+      | line      | separator | fields        |
+      | a;b;c     | ;         | [a, b, c]     |
+      | a;;b;     | ;         | [a, , b, ]    |
+      | ;         | ;         | [, ]          |
+      | x\|y      | \|        | [x, y]        |
+      | only      | ,         | [only]        |
+
+  Scenario Outline: Numbers are parsed in place with the same values as the JDK
+    Given the record line "<line>"
+    Then its first field should read as the int <int> and its second as the same double as "<double>"
+
+    Examples:
+      | line                   | int         | double                 |
+      | 42;3.5                 | 42          | 3.5                    |
+      |  -7 ; 0.1              | -7          | 0.1                    |
+      | +12;123456789.123456   | 12          | 123456789.123456       |
+      | 2147483647;1e3         | 2147483647  | 1e3                    |
+      | 0;0.1234567890123456789 | 0          | 0.1234567890123456789  |
+
+  Scenario Outline: Money fields are read straight into cents
+    Given the record line "<line>"
+    Then its first field should read as <cents> cents
+
+    Examples:
+      | line    | cents |
+      | 12.50;x | 1250  |
+      | 12.5    | 1250  |
+      | 0.125   | 13    |
+      | -3      | -300  |
+
+  Scenario: Nested lists are read by entering a field
+    Given the record line "ORD-1;Pasta,2,10.50|Soup,1,4.25;Delivered"
+    Then reading its items with "|" and "," should give "Pasta x2 @1050, Soup x1 @425"
+    And the field after the items should be "Delivered"
+
+  Scenario: List items are trimmed and blank items skipped
+    Given the record line "name; a , ,b ,;rest"
+    Then the list in its second field should be "[a, b]"
+
+  Scenario: A malformed number is rejected
+    Given the record line "12x;1"
+    Then reading its first field as an int should fail
@@ -0,0 +1,41 @@
+Feature: Reorder Pipeline
+  In order to restock ingredients as soon as they run low without slowing down the kitchen,
+  As the purchasing office,
+  I want low-stock reports turned into purchase orders on a background thread.
+
+  Scenario: Repeated reports of one ingredient are queued once
+    Given a reorder pipeline holding 4 reports that is not running
+    When the pipeline is told "Flour" is low 3 times
+    Then the pipeline should have 1 queued reports and 0 dropped
+
+  Scenario: A report that finds the queue full is dropped without waiting
+    Given a reorder pipeline holding 2 reports that is not running
+    And the ingredients below their reorder level are "Flour,Sugar,Eggs"
+    When the pipeline is told "Flour" is low 1 times
+    And the pipeline is told "Sugar" is low 1 times
+    Then telling the pipeline "Eggs" is low should be refused at once
+    And the pipeline should have 2 queued reports and 1 dropped
+
+  Scenario: The sweep reorders what a full queue dropped
+    Given a reorder pipeline holding 2 reports that is not running
+    And the ingredients below their reorder level are "Flour,Sugar,Eggs"
+    When the pipeline is told "Flour" is low 1 times
+    And the pipeline is told "Sugar" is low 1 times
+    And the pipeline is told "Eggs" is low 1 times
+    And the pipeline is started
+    Then the pipeline should eventually have reordered "Flour,Sugar,Eggs"
+
+  Scenario: A failing reorder does not stop the pipeline
+    Given a reorder pipeline holding 4 reports that is not running
+    And reordering "Flour" fails
+    When the pipeline is started
+    And the pipeline is told "Flour" is low 1 times
+    And the pipeline is told "Sugar" is low 1 times
+    Then the pipeline should eventually have reordered "Sugar"
+
+  Scenario: Stock used below its reorder level is reordered once from its supplier
+    Given a purchasing service that keeps its orders in memory, reordering "Flour" from "Mill Co"
+    When the purchasing service reorders automatically
+    And 8 threads each use 120 units of "Flour" one at a time through the inventory service
+    Then the purchasing service should eventually have 1 open order for "Flour" from "Mill Co"
+    And no purchase order file should have been written
@@ -0,0 +1,21 @@
+Feature: Session Server
+  In order to serve many console users at once without exhausting the machine,
+  As the system,
+  I want each connection served as its own session, and connections beyond capacity turned away.
+
+  Scenario: Two connections are served at the same time
+    Given a session server that greets each session and allows 2 platform sessions
+    When client "A" connects to the session server
+    And client "B" connects to the session server
+    Then client "A" should read "Welcome" from the session server
+    And client "B" should read "Welcome" from the session server
+    And the session server should have 2 active sessions
+
+  Scenario: A connection beyond the platform thread cap is turned away
+    Given a session server that greets each session and allows 1 platform sessions
+    And the session server runs sessions on platform threads
+    When client "A" connects to the session server
+    Then client "A" should read "Welcome" from the session server
+    When client "B" connects to the session server
+    Then client "B" should read "The server is busy. Please try again later." from the session server
+    And the session server should have 1 active sessions
@@ -0,0 +1,38 @@
+Feature: Skill Rule Matching
+  In order to give meals only to chefs who can cook them,
+  As the system,
+  I want meal names matched to skill rules and chefs found through their skills.
+
+  Background:
+    Given the skill rules:
+      """
+      # meal keywords;skills
+      steak,burger;grilling,meats
+      pasta;italian
+      pizza;italian,*
+      """
+    And a brigade of chefs:
+      | Name        | Expertise        |
+      | Chef Gordon | Grilling         |
+      | Chef Marco  | Italian,Baking   |
+      | Chef Ana    | Pastry           |
+      | Chef Trainee|                  |
+
+  Scenario Outline: The first rule whose keyword occurs in the meal name decides
+    Then the chefs suitable for "<meal>" should be "<chefs>"
+
+    Examples:
+      | meal              | chefs                                            |
+      | Grilled STEAK     | Chef Gordon                                      |
+      | Pasta Carbonara   | Chef Marco                                       |
+      | Steak Pizza       | Chef Gordon                                      |
+      | Margherita Pizza  | Chef Gordon,Chef Marco,Chef Ana                  |
+      | Tomato Soup       | Chef Gordon,Chef Marco,Chef Ana,Chef Trainee     |
+
+  Scenario: A chef without a matching skill cannot be given the meal
+    Then assigning "Pasta Carbonara" to "Chef Gordon" should be refused
+    And assigning "Pasta Carbonara" to "Chef Marco" should succeed
+
+  Scenario: A chef who learns a skill is found for the meal
+    When "Chef Ana" learns "Meats"
+    Then the chefs suitable for "Beef Burger" should be "Chef Gordon,Chef Ana"
@@ -0,0 +1,79 @@
+Feature: Stock Reservation Ledger
+  In order to keep stock for orders the kitchen has accepted but not yet cooked,
+  As the kitchen,
+  I want ingredients reserved when an order is placed, used up when it is cooked and put back when it is not.
+
+  Background:
+    Given a reservation ledger over the following ingredient stock:
+      | Name  | Stock |
+      | Flour | 10    |
+      | Eggs  | 6     |
+    And a kitchen that places orders through the ledger with chef "Chef Julia"
+    And the meal "Pancakes" uses "Flour:4,Eggs:2"
+
+  Scenario: Stock reserved for a placed order is used up when its task is completed
+    When order "ORD-1" for "Pancakes" is placed with "Chef Julia"
+    Then the ledger should hold 4 "Flour" for orders with 6 available
+    When "Chef Julia" completes the kitchen task for order "ORD-1"
+    Then the ledger should hold 0 "Flour" for orders with 6 available
+    And the last reservation record should be "C;ORD-1"
+
+  Scenario: Stock reserved for a cancelled order is put back
+    When order "ORD-2" for "Pancakes" is placed with "Chef Julia"
+    And order "ORD-2" is cancelled
+    Then the ledger should hold 0 "Eggs" for orders with 6 available
+    And the ledger should hold 0 "Flour" for orders with 10 available
+    And the last reservation record should be "X;ORD-2"
+
+  Scenario: An order short of stock is refused and holds nothing
+    Given the meal "Bread" uses "Flour:20"
+    When order "ORD-3" for "Bread" is placed with "Chef Julia"
+    Then the order should not have been placed
+    And the ledger should hold 0 "Flour" for orders with 10 available
+    And "Chef Julia" should hold no kitchen task for order "ORD-3"
+
+  Scenario: An order no chef takes gives its stock back
+    When order "ORD-4" for "Pancakes" is placed with "Chef Nobody"
+    Then the order should not have been placed
+    And the ledger should hold 0 "Flour" for orders with 10 available
+
+  Scenario: An order can hold only one reservation
+    When order "ORD-5" for "Pancakes" is placed with "Chef Julia"
+    Then reserving "Eggs:1" again for order "ORD-5" should be refused
+    And the ledger should hold 2 "Eggs" for orders with 4 available
+
+  Scenario: Open reservations and stock levels survive a restart
+    When order "ORD-6" for "Pancakes" is placed with "Chef Julia"
+    And order "ORD-7" for "Pancakes" is placed with "Chef Julia"
+    And "Chef Julia" completes the kitchen task for order "ORD-6"
+    And the ledger and its inventory are opened again from their files
+    Then the ledger should have 1 open reservations
+    And the ledger should hold 4 "Flour" for orders with 2 available
+    And the ledger should hold 2 "Eggs" for orders with 2 available
+
+  Scenario: A cancelled order is taken off its chef and the task board
+    When order "ORD-8" for "Pancakes" due "2030-01-01T12:00" is placed with "Chef Julia"
+    Then the kitchen task board should have 1 scheduled tasks
+    When order "ORD-8" is cancelled
+    Then the kitchen task for order "ORD-8" should be "Cancelled" and no longer open
+    And the kitchen task board should have 0 scheduled tasks
+    And the workload of "Chef Julia" should be "Low"
+    And the ledger should hold 0 "Flour" for orders with 10 available
+
+  Scenario: A hold that runs out while the order is being cooked is extended
+    When order "ORD-9" for "Pancakes" is placed with "Chef Julia"
+    And 3 hours pass and the ledger releases expired holds
+    Then no reservations should have been released
+    And the ledger should hold 4 "Flour" for orders with 6 available
+    When "Chef Julia" completes the kitchen task for order "ORD-9"
+    Then the ledger should hold 0 "Flour" for orders with 6 available
+    And the last reservation record should be "C;ORD-9"
+
+  Scenario: Completing an order whose hold already ran out is logged
+    Given order "ORD-10" reserves "Flour:4" without a kitchen task
+    When 3 hours pass and the ledger releases expired holds
+    Then the reservations of "ORD-10" should have been released
+    And the ledger should hold 0 "Flour" for orders with 10 available
+    When order "ORD-10" for "Pancakes" is assigned straight to "Chef Julia"
+    And "Chef Julia" completes the kitchen task for order "ORD-10"
+    Then a warning that order "ORD-10" was completed after its stock reservation ran out should be logged